@@ -0,0 +1,301 @@
+package com.sivalabs.springblog.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Fills a database with a synthetic {@link Dataset} through {@code COPY}: users, categories, tags with a
+ * Zipf-distributed popularity, posts with log-normal markdown lengths, comments concentrated on a few
+ * popular posts, and view counts with the same skew. The schema is migrated first and all blog data in it
+ * is replaced. The manifest the {@link LoadDriver} reads is written at the end.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.args="--posts=100000 --comments=1000000"}
+ */
+public class DataGenerator {
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("jdbc-url", "jdbc:postgresql://localhost:5432/postgres"),
+            Map.entry("username", "postgres"),
+            Map.entry("password", "postgres"),
+            Map.entry("seed", "42"),
+            Map.entry("users", "1000"),
+            Map.entry("categories", "20"),
+            Map.entry("tags", "500"),
+            Map.entry("posts", "20000"),
+            Map.entry("comments", "200000"),
+            Map.entry("max-tags-per-post", "5"),
+            Map.entry("manifest", "target/benchmark/dataset.json"));
+    private static final int BATCH_SIZE = 1000;
+    private static final long VIEWS_PER_POST = 200;
+
+    private final Dataset dataset;
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+    DataGenerator(Dataset dataset) {
+        this.dataset = dataset;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, DEFAULTS);
+        Dataset dataset = new Dataset(
+                options.getLong("seed"),
+                options.getInt("users"),
+                options.getInt("categories"),
+                options.getInt("tags"),
+                options.getInt("posts"),
+                options.getInt("comments"),
+                options.getInt("max-tags-per-post"));
+        String url = options.get("jdbc-url");
+        Flyway.configure()
+                .dataSource(url, options.get("username"), options.get("password"))
+                .load()
+                .migrate();
+        try (Connection connection =
+                DriverManager.getConnection(url, options.get("username"), options.get("password"))) {
+            new DataGenerator(dataset).load(connection);
+        }
+        dataset.write(options.getPath("manifest"));
+        log.info("Wrote {} to {}", dataset, options.get("manifest"));
+    }
+
+    void load(Connection connection) throws SQLException, IOException {
+        execute(
+                connection,
+                "truncate table post_related, post_stats, post_tags, comments, posts, tags, categories, users");
+        timed("users", () -> copyUsers(connection));
+        timed("categories", () -> copyCategories(connection));
+        timed("tags", () -> copyTags(connection));
+        timed("posts", () -> copyPosts(connection));
+        timed("post tags", () -> copyPostTags(connection));
+        timed("comments", () -> copyComments(connection));
+        timed("post stats", () -> copyPostStats(connection));
+        timed("counters and statistics", () -> finish(connection));
+    }
+
+    private void copyUsers(Connection connection) throws SQLException, IOException {
+        // One hash for everyone; hashing a thousand passwords would take longer than loading the posts
+        String passwordHash = new BCryptPasswordEncoder().encode(Dataset.PASSWORD);
+        try (Copy copy = new Copy(connection, "users (id, email, password, name, role, created_date)")) {
+            for (long id = 1; id <= dataset.users(); id++) {
+                copy.row(
+                        id,
+                        Dataset.userEmail(id),
+                        passwordHash,
+                        "User " + id,
+                        id == 1 ? "ROLE_ADMIN" : "ROLE_USER",
+                        Dataset.LAST_POST_DATE.minus(Dataset.POSTING_PERIOD));
+            }
+        }
+    }
+
+    private void copyCategories(Connection connection) throws SQLException, IOException {
+        try (Copy copy = new Copy(connection, "categories (id, name, slug)")) {
+            for (long id = 1; id <= dataset.categories(); id++) {
+                copy.row(id, "Category " + id, Dataset.categorySlug(id));
+            }
+        }
+    }
+
+    private void copyTags(Connection connection) throws SQLException, IOException {
+        try (Copy copy = new Copy(connection, "tags (id, name, slug)")) {
+            for (long id = 1; id <= dataset.tags(); id++) {
+                copy.row(id, "Tag " + id, Dataset.tagSlug(id));
+            }
+        }
+    }
+
+    private void copyPosts(Connection connection) throws SQLException, IOException {
+        ZipfDistribution categories = new ZipfDistribution(dataset.categories(), 0.8);
+        try (Copy copy = new Copy(
+                connection,
+                "posts (id, title, slug, short_description, content_markdown, content_html, status, category_id,"
+                        + " created_by, created_date)")) {
+            for (long from = 1; from <= dataset.posts(); from += BATCH_SIZE) {
+                // Rendering dominates, so each batch renders in parallel and is written in id order
+                List<Object[]> rows = LongStream.range(from, Math.min(from + BATCH_SIZE, dataset.posts() + 1L))
+                        .parallel()
+                        .mapToObj(id -> post(id, categories))
+                        .toList();
+                for (Object[] row : rows) {
+                    copy.row(row);
+                }
+                if ((from / BATCH_SIZE) % 20 == 19) {
+                    log.info("Wrote {} posts", from + BATCH_SIZE - 1);
+                }
+            }
+        }
+    }
+
+    private Object[] post(long id, ZipfDistribution categories) {
+        SplittableRandom random = dataset.random("post", id);
+        String markdown = PostContent.markdown(random, PostContent.markdownLength(random));
+        return new Object[] {
+            id,
+            PostContent.title(random, id),
+            Dataset.postSlug(id),
+            PostContent.shortDescription(random),
+            markdown,
+            renderer.render(parser.parse(markdown)),
+            Dataset.isPublished(id) ? "PUBLISHED" : "DRAFT",
+            categories.sample(random) + 1,
+            random.nextLong(1, Math.min(Dataset.AUTHORS, dataset.users()) + 1L),
+            dataset.postCreatedDate(id)
+        };
+    }
+
+    private void copyPostTags(Connection connection) throws SQLException, IOException {
+        ZipfDistribution tags = new ZipfDistribution(dataset.tags(), 1.0);
+        try (Copy copy = new Copy(connection, "post_tags (post_id, tag_id)")) {
+            for (long postId = 1; postId <= dataset.posts(); postId++) {
+                SplittableRandom random = dataset.random("post-tags", postId);
+                int count = Math.min(random.nextInt(dataset.maxTagsPerPost() + 1), dataset.tags());
+                Set<Integer> tagIds = new LinkedHashSet<>();
+                while (tagIds.size() < count) {
+                    tagIds.add(tags.sample(random) + 1);
+                }
+                for (int tagId : tagIds) {
+                    copy.row(postId, tagId);
+                }
+            }
+        }
+    }
+
+    private void copyComments(Connection connection) throws SQLException, IOException {
+        ZipfDistribution posts = new ZipfDistribution(dataset.posts(), 1.0);
+        try (Copy copy = new Copy(connection, "comments (id, content, post_id, created_by, created_date)")) {
+            for (long id = 1; id <= dataset.comments(); id++) {
+                SplittableRandom random = dataset.random("comment", id);
+                long postId = dataset.postIdByRank(posts.sample(random));
+                if (!Dataset.isPublished(postId)) {
+                    postId--;
+                }
+                copy.row(
+                        id,
+                        PostContent.comment(random),
+                        postId,
+                        random.nextLong(1, dataset.users() + 1L),
+                        dataset.postCreatedDate(postId).plusMinutes(random.nextLong(30 * 24 * 60)));
+            }
+        }
+    }
+
+    private void copyPostStats(Connection connection) throws SQLException, IOException {
+        ZipfDistribution popularity = new ZipfDistribution(dataset.posts(), 1.0);
+        long totalViews = VIEWS_PER_POST * dataset.posts();
+        try (Copy copy = new Copy(connection, "post_stats (post_id, view_count)")) {
+            for (int rank = 0; rank < dataset.posts(); rank++) {
+                long postId = dataset.postIdByRank(rank);
+                long views = Math.round(totalViews * popularity.probability(rank));
+                if (Dataset.isPublished(postId) && views > 0) {
+                    copy.row(postId, views);
+                }
+            }
+        }
+    }
+
+    private void finish(Connection connection) throws SQLException {
+        // The same statements that initialized the counter columns in V8
+        execute(
+                connection,
+                """
+                UPDATE posts p SET comments_count = c.count
+                FROM (SELECT post_id, count(*) AS count FROM comments GROUP BY post_id) c
+                WHERE c.post_id = p.id""");
+        execute(
+                connection,
+                """
+                UPDATE tags t SET posts_count = pt.count
+                FROM (SELECT tag_id, count(*) AS count FROM post_tags GROUP BY tag_id) pt
+                WHERE pt.tag_id = t.id""");
+        execute(
+                connection,
+                """
+                UPDATE categories c SET posts_count = p.count
+                FROM (SELECT category_id, count(*) AS count FROM posts GROUP BY category_id) p
+                WHERE p.category_id = c.id""");
+        for (String table :
+                List.of("users:user", "categories:category", "tags:tag", "posts:post", "comments:comment")) {
+            String[] names = table.split(":");
+            execute(
+                    connection,
+                    "select setval('" + names[1] + "_id_seq', (select coalesce(max(id), 1) from " + names[0] + "))");
+        }
+        execute(connection, "vacuum analyze");
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void timed(String step, Step action) throws SQLException, IOException {
+        long start = System.nanoTime();
+        action.run();
+        log.info("Loaded {} in {} ms", step, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private interface Step {
+        void run() throws SQLException, IOException;
+    }
+
+    /**
+     * One {@code COPY ... FROM STDIN} in CSV format, streamed as rows are added.
+     */
+    private static final class Copy implements AutoCloseable {
+        private final Writer writer;
+
+        Copy(Connection connection, String table) throws SQLException {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            this.writer = new BufferedWriter(
+                    new OutputStreamWriter(
+                            new PGCopyOutputStream(pgConnection, "COPY " + table + " FROM STDIN (FORMAT csv)"),
+                            StandardCharsets.UTF_8),
+                    1 << 16);
+        }
+
+        void row(Object... fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object field = fields[i];
+                if (field instanceof Number) {
+                    writer.write(field.toString());
+                } else if (field != null) {
+                    writer.write('"');
+                    writer.write(field.toString().replace("\"", "\"\""));
+                    writer.write('"');
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.sivalabs.springblog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * The shape of a generated dataset. Everything about a row (its slug, dates, popularity rank and random
+ * content) is derived from the seed and the row id, so {@link DataGenerator} and {@link LoadDriver} agree
+ * on the data without sharing anything but this manifest, and the same options always give the same rows.
+ * <p>
+ * Every user's password is {@link #PASSWORD}; user 1 is an admin, users 1 to {@link #AUTHORS} write the posts.
+ * Every twentieth post is a draft.
+ */
+record Dataset(long seed, int users, int categories, int tags, int posts, int comments, int maxTagsPerPost) {
+    static final String PASSWORD = "secret";
+    static final int AUTHORS = 20;
+    static final LocalDateTime LAST_POST_DATE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    static final Duration POSTING_PERIOD = Duration.ofDays(3 * 365);
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    Dataset {
+        if (users < 1 || categories < 1 || tags < 1 || posts < 1 || comments < 0 || maxTagsPerPost < 0) {
+            throw new IllegalArgumentException("Dataset sizes must be positive");
+        }
+    }
+
+    static Dataset read(Path manifest) throws IOException {
+        return JSON.readValue(manifest.toFile(), Dataset.class);
+    }
+
+    void write(Path manifest) throws IOException {
+        if (manifest.getParent() != null) {
+            Files.createDirectories(manifest.getParent());
+        }
+        JSON.writeValue(manifest.toFile(), this);
+    }
+
+    static String userEmail(long userId) {
+        return "user" + userId + "@example.com";
+    }
+
+    static String categorySlug(long categoryId) {
+        return "category-" + categoryId;
+    }
+
+    static String tagSlug(long tagId) {
+        return "tag-" + tagId;
+    }
+
+    static String postSlug(long postId) {
+        return "post-" + postId;
+    }
+
+    static boolean isPublished(long postId) {
+        return postId % 20 != 0;
+    }
+
+    /**
+     * Posts are spread evenly over {@link #POSTING_PERIOD}, in id order, with some jitter within each slot.
+     */
+    LocalDateTime postCreatedDate(long postId) {
+        long slotSeconds = Math.max(1, POSTING_PERIOD.toSeconds() / posts);
+        long jitter = random("post-date", postId).nextLong(slotSeconds);
+        return LAST_POST_DATE.minus(POSTING_PERIOD).plusSeconds((postId - 1) * slotSeconds + jitter);
+    }
+
+    /**
+     * Maps popularity ranks (0 is the most popular) onto post ids, scattered so that popular posts are
+     * neither all new nor all old.
+     */
+    long postIdByRank(int rank) {
+        return (rank * popularityStride()) % posts + 1;
+    }
+
+    /**
+     * A random generator for one row of one kind, independent of the order rows are generated in.
+     */
+    SplittableRandom random(String stream, long id) {
+        return new SplittableRandom(mix(mix(seed ^ stream.hashCode()) + id));
+    }
+
+    private long popularityStride() {
+        long stride = 7919;
+        while (gcd(stride, posts) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    // The SplitMix64 finalizer, so neighbouring ids get unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,438 @@
+package com.sivalabs.springblog.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays a mixed read and write workload against a running application loaded by {@link DataGenerator}
+ * and writes throughput and latency percentiles per operation as JSON, to keep as a baseline and to
+ * compare later runs with.
+ * <p>
+ * Each client is a virtual thread that sends one request after the other (a closed loop, so latency
+ * includes queueing in the application but a stalled server also slows the clients down). Clients pick
+ * operations by the {@code mix} weights and posts, tags and categories by the same Zipf popularity the
+ * generator used for views and comments. Clients that post comments sign in as their own user first.
+ * Nothing is measured during the warmup.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.main=LoadDriver
+ * -Dbenchmark.args="--clients=100 --duration=2m --compare=baseline.json"}
+ */
+public class LoadDriver {
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("base-url", "http://localhost:8080"),
+            Map.entry("manifest", "target/benchmark/dataset.json"),
+            Map.entry("clients", "50"),
+            Map.entry("warmup", "15s"),
+            Map.entry("duration", "60s"),
+            Map.entry("seed", "7"),
+            Map.entry("mix", "posts:35,post:40,tag:10,category:10,comment:5"),
+            Map.entry("output", "target/benchmark/baseline.json"),
+            Map.entry("compare", ""));
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    enum Operation {
+        POSTS,
+        POST,
+        TAG,
+        CATEGORY,
+        COMMENT
+    }
+
+    private final Dataset dataset;
+    private final String baseUrl;
+    private final Map<Operation, Integer> mix;
+    private final long seed;
+    private final HttpClient anonymous = newClient();
+    private final ZipfDistribution postPopularity;
+    private final ZipfDistribution tagPopularity;
+    private final ZipfDistribution categoryPopularity;
+    private final ZipfDistribution listingPages = new ZipfDistribution(10, 1.5);
+
+    LoadDriver(Dataset dataset, String baseUrl, Map<Operation, Integer> mix, long seed) {
+        this.dataset = dataset;
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.seed = seed;
+        this.postPopularity = new ZipfDistribution(dataset.posts(), 1.0);
+        this.tagPopularity = new ZipfDistribution(dataset.tags(), 1.0);
+        this.categoryPopularity = new ZipfDistribution(dataset.categories(), 0.8);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, DEFAULTS);
+        Dataset dataset = Dataset.read(options.getPath("manifest"));
+        LoadDriver driver =
+                new LoadDriver(dataset, options.get("base-url"), parseMix(options.get("mix")), options.getLong("seed"));
+        int clients = options.getInt("clients");
+        Duration duration = options.getDuration("duration");
+
+        log.info("Warming up {} clients for {}", clients, options.get("warmup"));
+        driver.run(clients, options.getDuration("warmup"));
+        log.info("Measuring {} clients for {}", clients, duration);
+        Instant startedAt = Instant.now();
+        Map<Operation, Recorder> recorders = driver.run(clients, duration);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("options", new TreeMap<>(options.asMap()));
+        report.put("dataset", dataset);
+        report.put("environment", environment());
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Recorder total = new Recorder();
+        recorders.forEach((operation, recorder) -> {
+            operations.put(operation.name().toLowerCase(), recorder.summary(duration));
+            total.addAll(recorder);
+        });
+        report.put("operations", operations);
+        report.put("total", total.summary(duration));
+
+        Path output = options.getPath("output");
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        JSON.writeValue(output.toFile(), report);
+        log.info("{}Wrote {}", table(report), output);
+        if (!options.get("compare").isEmpty()) {
+            log.info(compare(JSON.readTree(Path.of(options.get("compare")).toFile()), JSON.valueToTree(report)));
+        }
+    }
+
+    Map<Operation, Recorder> run(int clients, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : mix.keySet()) {
+            recorders.put(operation, new Recorder());
+        }
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(i);
+            threads.add(Thread.ofVirtual().name("client-" + i).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = client.nextOperation();
+                    long start = System.nanoTime();
+                    int status = client.perform(operation);
+                    recorders.get(operation).record(System.nanoTime() - start, status);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return recorders;
+    }
+
+    private final class Client {
+        private final int index;
+        private final SplittableRandom random;
+        private final int totalWeight;
+        private HttpClient session;
+        private String csrfToken;
+
+        Client(int index) {
+            this.index = index;
+            this.random = new SplittableRandom(seed * 1_000_003 + index);
+            this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        Operation nextOperation() {
+            int pick = random.nextInt(totalWeight);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty mix");
+        }
+
+        /**
+         * Returns the HTTP status, or -1 when the request failed.
+         */
+        int perform(Operation operation) {
+            try {
+                return switch (operation) {
+                    case POSTS -> get(anonymous, "/posts?page=" + (listingPages.sample(random) + 1));
+                    case POST -> get(anonymous, "/posts/" + Dataset.postSlug(popularPost()));
+                    case TAG -> get(anonymous, "/posts/tag/" + Dataset.tagSlug(tagPopularity.sample(random) + 1));
+                    case CATEGORY -> get(
+                            anonymous,
+                            "/posts/category/" + Dataset.categorySlug(categoryPopularity.sample(random) + 1));
+                    case COMMENT -> comment();
+                };
+            } catch (IOException e) {
+                return -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+
+        private long popularPost() {
+            long postId = dataset.postIdByRank(postPopularity.sample(random));
+            return Dataset.isPublished(postId) ? postId : postId - 1;
+        }
+
+        private int comment() throws IOException, InterruptedException {
+            if (session == null) {
+                signIn();
+            }
+            long postId = popularPost();
+            HttpResponse<Void> response = send(
+                    session,
+                    post(
+                            "/posts/" + Dataset.postSlug(postId) + "/comments",
+                            Map.of(
+                                    "content", PostContent.comment(random),
+                                    "postId", String.valueOf(postId),
+                                    "_csrf", csrfToken)));
+            // A successful submission redirects back to the post
+            return response.statusCode() == 302 ? 200 : response.statusCode();
+        }
+
+        private void signIn() throws IOException, InterruptedException {
+            HttpClient client = newClient();
+            String loginToken = csrfToken(client, "/login");
+            long userId = index % dataset.users() + 1;
+            HttpResponse<Void> response = send(
+                    client,
+                    post(
+                            "/login",
+                            Map.of(
+                                    "username",
+                                    Dataset.userEmail(userId),
+                                    "password",
+                                    Dataset.PASSWORD,
+                                    "_csrf",
+                                    loginToken)));
+            String location = response.headers().firstValue("Location").orElse("");
+            if (response.statusCode() != 302 || location.contains("error")) {
+                throw new IOException("Could not sign in as " + Dataset.userEmail(userId));
+            }
+            // Signing in replaces the session's token
+            csrfToken = csrfToken(client, "/posts/" + Dataset.postSlug(popularPost()));
+            session = client;
+        }
+
+        private String csrfToken(HttpClient client, String path) throws IOException, InterruptedException {
+            HttpResponse<String> page = client.send(request(path).build(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = CSRF_TOKEN.matcher(page.body());
+            if (!matcher.find()) {
+                throw new IOException("No CSRF token in " + path);
+            }
+            return matcher.group(1);
+        }
+    }
+
+    private int get(HttpClient client, String path) throws IOException, InterruptedException {
+        return send(client, request(path)).statusCode();
+    }
+
+    private static HttpResponse<Void> send(HttpClient client, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("User-Agent", "Mozilla/5.0 (spring-blog load driver)")
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].strip());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].strip().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operations: " + mix);
+        }
+        return weights;
+    }
+
+    private static Map<String, Object> environment() {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("processors", Runtime.getRuntime().availableProcessors());
+        return environment;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String table(Map<String, Object> report) {
+        StringBuilder sb = new StringBuilder(String.format(
+                "%n%-9s %9s %7s %7s %9s %8s %8s %8s %8s%n",
+                "operation", "ok", "503", "errors", "ok/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) report.get("operations"));
+        rows.put("total", report.get("total"));
+        rows.forEach((name, value) -> {
+            Summary summary = (Summary) value;
+            sb.append(String.format(
+                    "%-9s %9d %7d %7d %9.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    name,
+                    summary.ok(),
+                    summary.rejected(),
+                    summary.errors(),
+                    summary.throughput(),
+                    summary.latencyMillis().get("p50"),
+                    summary.latencyMillis().get("p90"),
+                    summary.latencyMillis().get("p99"),
+                    summary.latencyMillis().get("max")));
+        });
+        return sb.toString();
+    }
+
+    private static String compare(JsonNode baseline, JsonNode current) {
+        StringBuilder sb = new StringBuilder(
+                String.format("%nCompared with the baseline%n%-9s %12s %12s%n", "operation", "ok/s", "p99 ms"));
+        List<String> names = new ArrayList<>();
+        current.get("operations").fieldNames().forEachRemaining(names::add);
+        names.add("total");
+        for (String name : names) {
+            JsonNode before = name.equals("total")
+                    ? baseline.get("total")
+                    : baseline.path("operations").get(name);
+            JsonNode after = name.equals("total")
+                    ? current.get("total")
+                    : current.get("operations").get(name);
+            if (before == null) {
+                continue;
+            }
+            sb.append(String.format(
+                    "%-9s %+11.1f%% %+11.1f%%%n",
+                    name,
+                    change(before.get("throughput"), after.get("throughput")),
+                    change(before.at("/latencyMillis/p99"), after.at("/latencyMillis/p99"))));
+        }
+        return sb.toString();
+    }
+
+    private static double change(JsonNode before, JsonNode after) {
+        return before.asDouble() == 0 ? 0 : (after.asDouble() / before.asDouble() - 1) * 100;
+    }
+
+    /**
+     * Latencies of successful requests. Requests turned away with 503 and failed requests are only counted.
+     */
+    static final class Recorder {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, int status) {
+            if (status == 200) {
+                synchronized (latencies) {
+                    latencies.add(nanos);
+                }
+            } else if (status == 503) {
+                rejected.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        void addAll(Recorder other) {
+            synchronized (other.latencies) {
+                synchronized (latencies) {
+                    latencies.addAll(other.latencies);
+                }
+            }
+            rejected.addAndGet(other.rejected.get());
+            errors.addAndGet(other.errors.get());
+        }
+
+        Summary summary(Duration duration) {
+            long[] sorted;
+            synchronized (latencies) {
+                sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            }
+            Arrays.sort(sorted);
+            Map<String, Double> latencyMillis = new LinkedHashMap<>();
+            latencyMillis.put(
+                    "mean",
+                    sorted.length == 0
+                            ? 0
+                            : millis((long) Arrays.stream(sorted).average().orElse(0)));
+            for (double percentile : new double[] {50, 90, 95, 99, 99.9}) {
+                String name =
+                        "p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile));
+                latencyMillis.put(name, millis(percentile(sorted, percentile / 100)));
+            }
+            latencyMillis.put("max", sorted.length == 0 ? 0 : millis(sorted[sorted.length - 1]));
+            return new Summary(
+                    sorted.length,
+                    rejected.get(),
+                    errors.get(),
+                    sorted.length / (duration.toMillis() / 1000.0),
+                    latencyMillis);
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+
+    record Summary(long ok, long rejected, long errors, double throughput, Map<String, Double> latencyMillis) {}
+}
@@ -0,0 +1,60 @@
+package com.sivalabs.springblog.benchmark;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * {@code --name=value} command line options with defaults. Unknown names are rejected, so a typo does
+ * not silently run a benchmark with the default.
+ */
+final class Options {
+    private final Map<String, String> values;
+
+    private Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Options parse(String[] args, Map<String, String> defaults) {
+        Map<String, String> values = new LinkedHashMap<>(defaults);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            if (!defaults.containsKey(name)) {
+                throw new IllegalArgumentException(
+                        "Unknown option --" + name + ", expected one of " + defaults.keySet());
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+        return new Options(values);
+    }
+
+    String get(String name) {
+        return values.get(name);
+    }
+
+    int getInt(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+
+    long getLong(String name) {
+        return Long.parseLong(values.get(name));
+    }
+
+    Duration getDuration(String name) {
+        return DurationStyle.detectAndParse(values.get(name));
+    }
+
+    Path getPath(String name) {
+        return Path.of(values.get(name));
+    }
+
+    Map<String, String> asMap() {
+        return Map.copyOf(values);
+    }
+}
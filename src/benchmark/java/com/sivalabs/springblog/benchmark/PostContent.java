@@ -0,0 +1,182 @@
+package com.sivalabs.springblog.benchmark;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Text for generated posts and comments. Markdown lengths are log-normal around {@link #MEDIAN_MARKDOWN_LENGTH}
+ * characters, so most posts are a few kilobytes and a long tail runs to over a hundred, and the markdown
+ * mixes the constructs of real articles: headings, inline markup, links, lists, quotes and code blocks.
+ */
+final class PostContent {
+    static final int MEDIAN_MARKDOWN_LENGTH = 6_000;
+    private static final double MARKDOWN_LENGTH_SIGMA = 0.8;
+    private static final int MIN_MARKDOWN_LENGTH = 500;
+    private static final int MAX_MARKDOWN_LENGTH = 150_000;
+
+    private static final String[] WORDS = {
+        "spring",
+        "boot",
+        "java",
+        "record",
+        "stream",
+        "thread",
+        "virtual",
+        "database",
+        "query",
+        "index",
+        "cache",
+        "request",
+        "response",
+        "template",
+        "security",
+        "token",
+        "container",
+        "docker",
+        "module",
+        "bean",
+        "kotlin",
+        "gradle",
+        "maven",
+        "test",
+        "integration",
+        "postgres",
+        "transaction",
+        "latency",
+        "throughput",
+        "memory",
+        "garbage",
+        "collector",
+        "heap",
+        "profile",
+        "benchmark",
+        "service",
+        "controller",
+        "repository",
+        "schema",
+        "migration",
+        "flyway",
+        "jdbc",
+        "connection",
+        "pool",
+        "batch",
+        "event",
+        "listener",
+        "scheduler",
+        "reactive",
+        "blocking",
+        "compiler",
+        "native",
+        "image",
+        "cloud",
+        "kubernetes",
+        "deployment",
+        "metrics",
+        "tracing",
+        "logging",
+        "configuration",
+        "property",
+        "validation",
+        "pagination",
+        "search",
+        "markdown"
+    };
+
+    private PostContent() {}
+
+    static int markdownLength(RandomGenerator random) {
+        double length = MEDIAN_MARKDOWN_LENGTH * Math.exp(MARKDOWN_LENGTH_SIGMA * random.nextGaussian());
+        return (int) Math.clamp(length, MIN_MARKDOWN_LENGTH, MAX_MARKDOWN_LENGTH);
+    }
+
+    static String markdown(RandomGenerator random, int length) {
+        StringBuilder sb = new StringBuilder(length + 512);
+        int section = 0;
+        while (sb.length() < length) {
+            sb.append("## ")
+                    .append(capitalized(words(random, 2 + random.nextInt(4))))
+                    .append("\n\n");
+            for (int i = 1 + random.nextInt(3); i > 0 && sb.length() < length; i--) {
+                paragraph(random, sb);
+            }
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    for (int i = 2 + random.nextInt(4); i > 0; i--) {
+                        sb.append("- ")
+                                .append(words(random, 3 + random.nextInt(6)))
+                                .append('\n');
+                    }
+                    sb.append('\n');
+                }
+                case 1 -> sb.append("> ").append(sentence(random)).append("\n\n");
+                case 2 -> {
+                    sb.append("```java\npublic class Example").append(++section).append(" {\n");
+                    for (int i = 1 + random.nextInt(6); i > 0; i--) {
+                        sb.append("    private final String ")
+                                .append(WORDS[random.nextInt(WORDS.length)])
+                                .append(i)
+                                .append(" = \"")
+                                .append(words(random, 2))
+                                .append("\";\n");
+                    }
+                    sb.append("}\n```\n\n");
+                }
+                default -> {}
+            }
+        }
+        return sb.toString();
+    }
+
+    static String title(RandomGenerator random, long postId) {
+        return "Post " + postId + ": " + capitalized(words(random, 3 + random.nextInt(5)));
+    }
+
+    static String shortDescription(RandomGenerator random) {
+        return sentence(random);
+    }
+
+    static String comment(RandomGenerator random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            sb.append(sentence(random)).append(' ');
+        }
+        return sb.toString().strip();
+    }
+
+    private static void paragraph(RandomGenerator random, StringBuilder sb) {
+        for (int i = 3 + random.nextInt(4); i > 0; i--) {
+            String sentence = sentence(random);
+            sb.append(sentence, 0, sentence.length() - 1);
+            switch (random.nextInt(4)) {
+                case 0 -> sb.append(" with *emphasis*");
+                case 1 -> sb.append(" see [the docs](https://docs.spring.io/")
+                        .append(i)
+                        .append(')');
+                case 2 -> sb.append(" using `")
+                        .append(WORDS[random.nextInt(WORDS.length)])
+                        .append('`');
+                default -> {}
+            }
+            sb.append(". ");
+        }
+        sb.append("\n\n");
+    }
+
+    private static String sentence(RandomGenerator random) {
+        return capitalized(words(random, 8 + random.nextInt(10))) + ".";
+    }
+
+    private static String words(RandomGenerator random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String capitalized(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
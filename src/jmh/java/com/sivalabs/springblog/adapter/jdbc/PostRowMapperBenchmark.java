@@ -0,0 +1,177 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import com.sivalabs.springblog.domain.models.Category;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostStatus;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.Role;
+import com.sivalabs.springblog.domain.models.User;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.RowMapper;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Cost of mapping post rows with the repository's index-based row mappers, compared with looking every
+ * column up by name and parsing enums with {@code valueOf} as the mappers used to ({@code byName}).
+ * <p>
+ * The rows come from a real PostgreSQL driver result set that is fetched once and scrolled back for every
+ * operation, so only the mapping is measured. Each operation maps all rows with a new mapper, as each query
+ * does. PostgreSQL runs in a container unless {@code -p jdbcUrl=jdbc:postgresql://...} is given.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostRowMapperBenchmark {
+    // The columns of the post details and listing queries, with typical lengths
+    private static final String SQL =
+            """
+            SELECT g AS id, 'Post ' || g || ': getting started with spring boot' AS title, 'post-' || g AS slug,
+                   repeat('A short description. ', 8) AS short_description,
+                   repeat('Some *markdown* text. ', 250) AS content_markdown,
+                   repeat('<p>Some <em>html</em> text.</p>', 250) AS content_html,
+                   CASE WHEN g % 20 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END AS status,
+                   timestamp '2025-01-01' - g * interval '1 hour' AS created_date,
+                   g % 50 AS comments_count, g * 7 AS view_count,
+                   g % 20 + 1 AS category_id, 'Category ' || (g % 20 + 1) AS category_name,
+                   'category-' || (g % 20 + 1) AS category_slug,
+                   g % 10 + 1 AS user_id, 'User ' || (g % 10 + 1) AS user_name,
+                   'user' || (g % 10 + 1) || '@example.com' AS user_email,
+                   CASE WHEN g % 10 = 0 THEN 'ROLE_ADMIN' ELSE 'ROLE_USER' END AS user_role
+            FROM generate_series(1, ?) g
+            """;
+
+    @Param({"10", "100"})
+    int rows;
+
+    @Param({""})
+    String jdbcUrl;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        if (jdbcUrl.isEmpty()) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17"));
+            postgres.start();
+            connection =
+                    DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        } else {
+            connection = DriverManager.getConnection(jdbcUrl, "postgres", "postgres");
+        }
+        PreparedStatement statement =
+                connection.prepareStatement(SQL, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        statement.setInt(1, rows);
+        resultSet = statement.executeQuery();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public void post(Blackhole bh) throws SQLException {
+        mapAll(new JdbcPostRepository.PostRowMapper(), bh);
+    }
+
+    @Benchmark
+    public void postByName(Blackhole bh) throws SQLException {
+        mapAll(new ByNamePostRowMapper(), bh);
+    }
+
+    @Benchmark
+    public void summary(Blackhole bh) throws SQLException {
+        mapAll(new JdbcPostRepository.PostSummaryRowMapper(), bh);
+    }
+
+    @Benchmark
+    public void summaryByName(Blackhole bh) throws SQLException {
+        mapAll(new ByNamePostSummaryRowMapper(), bh);
+    }
+
+    private void mapAll(RowMapper<?> mapper, Blackhole bh) throws SQLException {
+        resultSet.beforeFirst();
+        int rowNum = 0;
+        while (resultSet.next()) {
+            bh.consume(mapper.mapRow(resultSet, rowNum++));
+        }
+    }
+
+    static class ByNamePostRowMapper implements RowMapper<Post> {
+        @Override
+        public Post mapRow(ResultSet rs, int rowNum) throws SQLException {
+            var category = new Category(
+                    rs.getLong("category_id"), rs.getString("category_name"), rs.getString("category_slug"));
+            var user = new User(
+                    rs.getLong("user_id"),
+                    rs.getString("user_email"),
+                    null,
+                    rs.getString("user_name"),
+                    Role.valueOf(rs.getString("user_role")));
+            var post = new Post(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("slug"),
+                    rs.getString("short_description"),
+                    rs.getString("content_markdown"),
+                    rs.getString("content_html"),
+                    category,
+                    Set.of(),
+                    PostStatus.valueOf(rs.getString("status")),
+                    user,
+                    rs.getTimestamp("created_date").toLocalDateTime());
+            post.setCommentsCount(rs.getInt("comments_count"));
+            post.setViewCount(rs.getLong("view_count"));
+            return post;
+        }
+    }
+
+    static class ByNamePostSummaryRowMapper implements RowMapper<PostSummary> {
+        @Override
+        public PostSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+            var category = new Category(
+                    rs.getLong("category_id"), rs.getString("category_name"), rs.getString("category_slug"));
+            var user = new User(rs.getLong("user_id"), null, null, rs.getString("user_name"), null);
+            var post = new PostSummary(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("slug"),
+                    rs.getString("short_description"),
+                    category,
+                    Set.of(),
+                    PostStatus.valueOf(rs.getString("status")),
+                    user,
+                    rs.getTimestamp("created_date").toLocalDateTime());
+            post.setCommentsCount(rs.getInt("comments_count"));
+            return post;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sivalabs.springblog.adapter.search;
+
+import com.sivalabs.springblog.domain.models.PostSearchDocument;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Build time, size and query latency of the in-memory search index over a generated corpus whose
+ * word frequencies are heavily skewed, like natural language.
+ * <p>
+ * {@code build} reports the estimated index size per post as the {@code bytesPerPost} secondary
+ * result. Query latency is measured for a term found in most posts ({@code common}), two common terms
+ * that have to be intersected ({@code two-terms}) and a term found in a handful of posts ({@code rare}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvertedIndexBenchmark {
+    private static final int VOCABULARY_SIZE = 30_000;
+    private static final String[] SYLLABLES = {
+        "ka", "lo", "mi", "ne", "ru", "ta", "vo", "zi", "spr", "ing", "boo", "jav", "ent", "ion", "ser", "vic"
+    };
+
+    @Param({"1000", "10000"})
+    int posts;
+
+    private String[] vocabulary;
+    private List<PostSearchDocument> documents;
+    private InvertedIndex index;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IndexSize {
+        public double bytesPerPost;
+        private int measurementIterations;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkParams params) {
+            bytesPerPost = 0;
+            measurementIterations = params.getMeasurement().getCount();
+        }
+
+        // JMH sums EVENTS counters over the measurement iterations, so each one contributes its share
+        void record(InvertedIndex index, int posts) {
+            bytesPerPost = (double) index.estimateMemoryBytes() / posts / measurementIterations;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+        @Param({"common", "two-terms", "rare"})
+        String query;
+
+        String text;
+
+        @Setup
+        public void setUp(InvertedIndexBenchmark benchmark) {
+            text = switch (query) {
+                case "common" -> benchmark.vocabulary[0];
+                case "two-terms" -> benchmark.vocabulary[1] + " " + benchmark.vocabulary[2];
+                case "rare" -> benchmark.vocabulary[VOCABULARY_SIZE / 2];
+                default -> throw new IllegalArgumentException("Unknown query: " + query);
+            };
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        vocabulary = vocabulary(new Random(7));
+        Random random = new Random(42);
+        documents = new ArrayList<>(posts);
+        for (long id = 1; id <= posts; id++) {
+            documents.add(new PostSearchDocument(
+                    id,
+                    words(random, vocabulary, 6),
+                    words(random, vocabulary, 25),
+                    words(random, vocabulary, 600 + random.nextInt(600))));
+        }
+        index = build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public InvertedIndex build(IndexSize size) {
+        InvertedIndex built = build();
+        size.record(built, posts);
+        return built;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void search(Query query, Blackhole bh) {
+        bh.consume(index.search(query.text, null, 10));
+    }
+
+    private InvertedIndex build() {
+        InvertedIndex built = new InvertedIndex();
+        documents.forEach(built::put);
+        return built;
+    }
+
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            do {
+                word.setLength(0);
+                int syllables = 2 + random.nextInt(3);
+                for (int s = 0; s < syllables; s++) {
+                    word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                word.append(i);
+            } while (!word.toString().equals(SearchTokenizer.stem(word.toString())));
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    // Cubing a uniform sample favours low indices, giving a long-tailed word frequency distribution
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double u = random.nextDouble();
+            sb.append(vocabulary[(int) (vocabulary.length * u * u * u)]).append(' ');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-row and per-page costs in the domain model: parsing enum columns with {@code fromName} compared with
+ * {@code valueOf}, and {@link PagedResult#map(Function)} on a listing page compared with the stream copy it
+ * replaced ({@code mapPageWithStream}).
+ * <p>
+ * Enum names are created from characters before parsing, as the JDBC driver creates a new string per row
+ * whose hash isn't cached yet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainModelBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    private final char[][] statuses = names("PUBLISHED", "PUBLISHED", "DRAFT", "PUBLISHED");
+    private final char[][] roles = names("ROLE_USER", "ROLE_USER", "ROLE_ADMIN", "ROLE_USER");
+    private int row;
+    private PagedResult<Integer> page;
+    private final Function<Integer, String> converter = String::valueOf;
+
+    @Setup
+    public void setUp() {
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            data.add(i);
+        }
+        page = PagedResult.of(data, 1, PAGE_SIZE, 1000);
+    }
+
+    @Benchmark
+    public PostStatus postStatusFromName() {
+        return PostStatus.fromName(nextName(statuses));
+    }
+
+    @Benchmark
+    public PostStatus postStatusValueOf() {
+        return PostStatus.valueOf(nextName(statuses));
+    }
+
+    @Benchmark
+    public Role roleFromName() {
+        return Role.fromName(nextName(roles));
+    }
+
+    @Benchmark
+    public Role roleValueOf() {
+        return Role.valueOf(nextName(roles));
+    }
+
+    @Benchmark
+    public PagedResult<String> mapPage() {
+        return page.map(converter);
+    }
+
+    @Benchmark
+    public PagedResult<String> mapPageWithStream() {
+        return new PagedResult<>(
+                page.data().stream().map(converter).toList(),
+                page.totalElements(),
+                page.pageNumber(),
+                page.totalPages(),
+                page.isFirst(),
+                page.isLast(),
+                page.hasNext(),
+                page.hasPrevious());
+    }
+
+    private String nextName(char[][] names) {
+        return new String(names[row++ & (names.length - 1)]);
+    }
+
+    private static char[][] names(String... names) {
+        char[][] chars = new char[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            chars[i] = names[i].toCharArray();
+        }
+        return chars;
+    }
+}
@@ -0,0 +1,98 @@
+package com.sivalabs.springblog.domain.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.commonmark.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * Cost of turning post markdown into HTML, split into its parse and render phases, compared with a
+ * {@link MarkdownRenderer} cache hit (which still hashes the content).
+ * <p>
+ * {@code articles} renders all bundled {@code data/*.md} articles per operation; {@code synthetic-1mb}
+ * renders one generated 1MB document. Run with {@code -prof gc} to see the allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkdownRendererBenchmark {
+
+    @Param({"articles", "synthetic-1mb"})
+    String corpus;
+
+    private List<String> documents;
+    private List<Node> parsedDocuments;
+    private MarkdownRenderer renderer;
+
+    @Setup
+    public void setUp() throws IOException {
+        documents = switch (corpus) {
+            case "articles" -> loadArticles();
+            case "synthetic-1mb" -> List.of(SyntheticMarkdown.generate(1024 * 1024, 42));
+            default -> throw new IllegalArgumentException("Unknown corpus: " + corpus);
+        };
+        renderer = new MarkdownRenderer(List.of(), 256L * 1024 * 1024, new SimpleMeterRegistry());
+        parsedDocuments = documents.stream().map(renderer::parse).toList();
+        documents.forEach(renderer::render);
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String document : documents) {
+            bh.consume(renderer.parse(document));
+        }
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) {
+        for (Node document : parsedDocuments) {
+            bh.consume(renderer.renderHtml(document));
+        }
+    }
+
+    @Benchmark
+    public void parseAndRender(Blackhole bh) {
+        for (String document : documents) {
+            bh.consume(renderer.renderUncached(document));
+        }
+    }
+
+    @Benchmark
+    public void cachedRender(Blackhole bh) {
+        for (String document : documents) {
+            bh.consume(renderer.render(document));
+        }
+    }
+
+    private static List<String> loadArticles() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:data/*.md");
+        List<String> articles = new ArrayList<>();
+        for (Resource resource : resources) {
+            articles.add(resource.getContentAsString(StandardCharsets.UTF_8));
+        }
+        if (articles.isEmpty()) {
+            throw new IllegalStateException("No articles found in classpath:data/");
+        }
+        return articles;
+    }
+}
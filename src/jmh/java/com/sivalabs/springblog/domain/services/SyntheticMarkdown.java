@@ -0,0 +1,64 @@
+package com.sivalabs.springblog.domain.services;
+
+import java.util.Random;
+
+/**
+ * Deterministic markdown documents of a given size that mix the constructs found in the bundled articles:
+ * headings, paragraphs with inline markup and links, lists, block quotes and fenced code blocks.
+ */
+final class SyntheticMarkdown {
+    private static final String[] WORDS = {
+        "spring", "boot", "java", "record", "stream", "thread", "virtual", "database", "query", "index",
+        "cache", "request", "response", "template", "security", "token", "container", "docker", "module", "bean"
+    };
+
+    private SyntheticMarkdown() {}
+
+    static String generate(int sizeInBytes, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(sizeInBytes + 1024);
+        int section = 0;
+        while (sb.length() < sizeInBytes) {
+            sb.append("## Section ").append(++section).append(' ').append(words(random, 3)).append("\n\n");
+            for (int i = 0; i < 3; i++) {
+                paragraph(random, sb);
+            }
+            sb.append("- ").append(words(random, 5)).append('\n');
+            sb.append("- **").append(words(random, 2)).append("** ").append(words(random, 6)).append('\n');
+            sb.append("- `").append(WORDS[random.nextInt(WORDS.length)]).append("()` ").append(words(random, 4));
+            sb.append("\n\n> ").append(words(random, 12)).append("\n\n");
+            sb.append("```java\n");
+            sb.append("public class Section").append(section).append(" {\n");
+            sb.append("    private final String name = \"").append(words(random, 2)).append("\";\n");
+            sb.append("}\n```\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static void paragraph(Random random, StringBuilder sb) {
+        int sentences = 3 + random.nextInt(4);
+        for (int i = 0; i < sentences; i++) {
+            String sentence = words(random, 8 + random.nextInt(10));
+            sb.append(Character.toUpperCase(sentence.charAt(0))).append(sentence, 1, sentence.length());
+            switch (random.nextInt(4)) {
+                case 0 -> sb.append(" with *emphasis*");
+                case 1 -> sb.append(" see [the docs](https://docs.spring.io/").append(i).append(')');
+                case 2 -> sb.append(" using `").append(WORDS[random.nextInt(WORDS.length)]).append('`');
+                default -> {}
+            }
+            sb.append(". ");
+        }
+        sb.append("\n\n");
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,98 @@
 package com.sivalabs.springblog;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import java.nio.file.Path;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
 @ConfigurationProperties(prefix = "blog")
-public record ApplicationProperties(@DefaultValue("10") @Min(1) int pageSize) {}
+public record ApplicationProperties(
+        @DefaultValue("10") @Min(1) int pageSize,
+        @DefaultValue("20") @Min(1) int commentsPageSize,
+        @DefaultValue @Valid PostCounts postCounts,
+        @DefaultValue @Valid TaxonomyCache taxonomyCache,
+        @DefaultValue @Valid PostPageCache postPageCache,
+        @DefaultValue @Valid ContentVersions contentVersions,
+        @DefaultValue @Valid MarkdownCache markdownCache,
+        @DefaultValue @Valid PostImport postImport,
+        @DefaultValue @Valid Search search,
+        @DefaultValue @Valid CommentQueue commentQueue,
+        @DefaultValue @Valid PostViews postViews,
+        @DefaultValue @Valid Trending trending,
+        @DefaultValue @Valid RelatedPosts relatedPosts,
+        @DefaultValue @Valid DbAdmission dbAdmission,
+        @DefaultValue @Valid QueryTracking queryTracking,
+        @DefaultValue @Valid FlightRecorder flightRecorder) {
+
+    public record PostCounts(
+            @DefaultValue("false") boolean estimatesEnabled,
+            @DefaultValue("1000000") @Min(1) long estimateThreshold,
+            @DefaultValue("10000") @Min(1) long maxEntries,
+            @DefaultValue("5m") Duration ttl) {}
+
+    public record TaxonomyCache(@DefaultValue("5m") Duration ttl) {}
+
+    public record PostPageCache(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("32MB") DataSize maxMemory,
+            @DefaultValue("512KB") DataSize maxEntrySize,
+            @DefaultValue("5m") Duration ttl) {}
+
+    public record ContentVersions(@DefaultValue("5s") Duration ttl) {}
+
+    public record MarkdownCache(@DefaultValue("16MB") DataSize maxSize) {}
+
+    public record PostImport(@DefaultValue("0") @Min(0) int parallelism, @DefaultValue("500") @Min(1) int batchSize) {}
+
+    public record Search(
+            @DefaultValue("postgres") @Pattern(regexp = "postgres|in-memory") String backend,
+            @DefaultValue("1h") Duration rebuildInterval) {}
+
+    public record CommentQueue(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("10000") @Min(1) int capacity,
+            @DefaultValue("200") @Min(1) int batchSize,
+            @DefaultValue("100ms") Duration offerTimeout,
+            @DefaultValue("30s") Duration retryInterval,
+            @DefaultValue("data/pending-comments.jsonl") Path spillFile,
+            @DefaultValue("data/failed-comments.jsonl") Path deadLetterFile) {}
+
+    public record PostViews(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("10s") Duration flushInterval,
+            @DefaultValue("100000") @Min(1) int maxPendingPosts,
+            @DefaultValue("5") @Min(1) int popularPostsCount) {}
+
+    public record Trending(
+            @DefaultValue("24h") Duration halfLife,
+            @DefaultValue("5") @Min(0) int commentWeight,
+            @DefaultValue("20") @Min(1) int size,
+            @DefaultValue("5s") Duration publishInterval,
+            @DefaultValue("100000") @Min(1) int maxTrackedPosts) {}
+
+    public record RelatedPosts(
+            @DefaultValue("5") @Min(1) int size,
+            @DefaultValue("0.2") double categoryBoost,
+            @DefaultValue("24h") Duration rebuildInterval) {}
+
+    public record DbAdmission(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("200") @Min(0) int maxQueued,
+            @DefaultValue("2s") Duration maxWait) {}
+
+    public record QueryTracking(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("100ms") Duration slowQueryThreshold,
+            @DefaultValue("20") @Min(1) int maxQueriesPerRequest) {}
+
+    public record FlightRecorder(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("30m") Duration maxAge,
+            @DefaultValue("250MB") DataSize maxSize) {}
+}
@@ -1,17 +1,15 @@
 package com.sivalabs.springblog;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sivalabs.springblog.domain.models.Category;
-import com.sivalabs.springblog.domain.models.Post;
-import com.sivalabs.springblog.domain.models.PostStatus;
-import com.sivalabs.springblog.domain.models.Tag;
+import com.sivalabs.springblog.domain.models.PostImportEntry;
+import com.sivalabs.springblog.domain.models.User;
 import com.sivalabs.springblog.domain.services.*;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -22,20 +20,17 @@ import org.springframework.stereotype.Component;
 public class DataLoader implements CommandLineRunner {
     private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
     private final PostService postService;
-    private final CategoryService categoryService;
-    private final TagService tagService;
+    private final PostImportService postImportService;
     private final ObjectMapper objectMapper;
     private final UserService userService;
 
     public DataLoader(
             PostService postService,
-            CategoryService categoryService,
-            TagService tagService,
+            PostImportService postImportService,
             ObjectMapper objectMapper,
             UserService userService) {
         this.postService = postService;
-        this.categoryService = categoryService;
-        this.tagService = tagService;
+        this.postImportService = postImportService;
         this.objectMapper = objectMapper;
         this.userService = userService;
     }
@@ -49,29 +44,26 @@ public class DataLoader implements CommandLineRunner {
         }
         InputStream inputStream = new ClassPathResource("posts.json").getInputStream();
         PostEntries postEntries = objectMapper.readValue(inputStream, PostEntries.class);
-        for (PostEntry postEntry : postEntries.posts) {
-            String markdownFile = postEntry.markdownFile();
-            String mdContent = new ClassPathResource("data/" + markdownFile).getContentAsString(StandardCharsets.UTF_8);
-            String html = MarkdownUtils.toHTML(mdContent);
-
-            Set<Tag> tags = postEntry.tags().stream()
-                    .map(tagService::getOrCreateTagByName)
-                    .collect(Collectors.toSet());
-            Category category = categoryService.getOrCreateCategoryByName(postEntry.category());
-            Post post = new Post(
-                    null,
-                    postEntry.title(),
-                    postEntry.slug(),
-                    postEntry.shortDescription(),
-                    mdContent,
-                    html,
-                    category,
-                    tags,
-                    PostStatus.PUBLISHED,
-                    userService.findByEmail("siva@gmail.com").orElseThrow(),
-                    LocalDateTime.now());
-            postService.createPost(post);
-        }
+        List<PostEntry> posts = postEntries.posts();
+        // One second apart in file order, like the posts used to get when they were created one by one,
+        // so the listings have a well-defined newest first order
+        LocalDateTime loadedAt = LocalDateTime.now();
+        List<PostImportEntry> entries = IntStream.range(0, posts.size())
+                .mapToObj(i -> {
+                    PostEntry postEntry = posts.get(i);
+                    return new PostImportEntry(
+                            postEntry.title(),
+                            postEntry.slug(),
+                            postEntry.shortDescription(),
+                            postEntry.category(),
+                            postEntry.tags(),
+                            loadedAt.minusSeconds(posts.size() - 1 - i),
+                            () -> new ClassPathResource("data/" + postEntry.markdownFile())
+                                    .getContentAsString(StandardCharsets.UTF_8));
+                })
+                .toList();
+        User author = userService.findByEmail("siva@gmail.com").orElseThrow();
+        postImportService.importPosts(entries, author);
     }
 
     record PostEntries(List<PostEntry> posts) {}
@@ -0,0 +1,34 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Resolves column labels to indexes once per {@link ResultSet}, so that row mappers for wide, frequently
+ * read rows don't look every column up by name on every row. Row mappers are created per query, so a
+ * mapper holding one of these sees a single result set, but a different one is resolved again.
+ */
+final class ColumnIndexes {
+    private final String[] labels;
+    private ResultSet resultSet;
+    private int[] indexes;
+
+    ColumnIndexes(String... labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * The index of each label, in the order the labels were given.
+     */
+    int[] of(ResultSet rs) throws SQLException {
+        if (rs != resultSet) {
+            int[] resolved = new int[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                resolved[i] = rs.findColumn(labels[i]);
+            }
+            indexes = resolved;
+            resultSet = rs;
+        }
+        return indexes;
+    }
+}
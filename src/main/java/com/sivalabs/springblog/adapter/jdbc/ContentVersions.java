@@ -0,0 +1,28 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+/**
+ * SQL for the {@code content_versions} rows read by the page validators. Statements that change the counted
+ * rows bump the version in the same statement, so it can never miss a committed change.
+ */
+final class ContentVersions {
+    static final String COMMENTS = "comments";
+    static final String VIEWS = "views";
+
+    private ContentVersions() {}
+
+    /**
+     * A {@code versioned} CTE that bumps the named version if the CTE {@code changedRows} returned any row.
+     */
+    static String bumpIfChanged(String name, String changedRows) {
+        return """
+                versioned as (
+                    update content_versions set version = version + 1, last_modified = now()
+                    where name = '%s' and exists (select 1 from %s)
+                )"""
+                .formatted(name, changedRows);
+    }
+
+    static String select(String name) {
+        return "select last_modified, version from content_versions where name = '%s'".formatted(name);
+    }
+}
@@ -5,7 +5,12 @@ import com.sivalabs.springblog.domain.models.Category;
 import com.sivalabs.springblog.domain.services.StringUtils;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.simple.JdbcClient;
@@ -58,13 +63,54 @@ public class JdbcCategoryRepository implements CategoryRepository {
 
     @Override
     public Category getOrCreateCategoryByName(String name) {
-        String slug = StringUtils.toSlug(name);
-        Category category = findBySlug(slug).orElse(null);
-        if (category == null) {
-            category = new Category(null, name, slug);
-            category = create(category);
+        return getOrCreateCategoriesByNames(List.of(name)).getFirst();
+    }
+
+    @Override
+    public List<Category> getOrCreateCategoriesByNames(Collection<String> names) {
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        names.forEach(name -> namesBySlug.putIfAbsent(StringUtils.toSlug(name), name));
+        if (namesBySlug.isEmpty()) {
+            return List.of();
         }
-        return category;
+        String sql =
+                """
+                with input (name, slug) as (select * from unnest(?::text[], ?::text[])),
+                inserted as (
+                    insert into categories (name, slug)
+                    select name, slug from input
+                    on conflict do nothing
+                    returning id, name, slug, posts_count
+                )
+                select id, name, slug, posts_count from inserted
+                union all
+                select c.id, c.name, c.slug, c.posts_count from categories c join input i on i.slug = c.slug
+                """;
+        Map<String, Category> categoriesBySlug = new HashMap<>();
+        jdbcClient
+                .sql(sql)
+                .param(namesBySlug.values().toArray(String[]::new))
+                .param(namesBySlug.keySet().toArray(String[]::new))
+                .query(new CategoryRowMapper())
+                .list()
+                .forEach(category -> categoriesBySlug.put(category.getSlug(), category));
+
+        // Same race as for tags: rows committed by a concurrent insert are only visible to a new statement
+        String[] missingSlugs = namesBySlug.keySet().stream()
+                .filter(slug -> !categoriesBySlug.containsKey(slug))
+                .toArray(String[]::new);
+        if (missingSlugs.length > 0) {
+            jdbcClient
+                    .sql("select * from categories where slug = any(?::text[])")
+                    .param(missingSlugs)
+                    .query(new CategoryRowMapper())
+                    .list()
+                    .forEach(category -> categoriesBySlug.put(category.getSlug(), category));
+        }
+        return namesBySlug.keySet().stream()
+                .map(categoriesBySlug::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
@@ -93,7 +139,9 @@ public class JdbcCategoryRepository implements CategoryRepository {
     static class CategoryRowMapper implements RowMapper<Category> {
         @Override
         public Category mapRow(ResultSet rs, int rowNum) throws SQLException {
-            return new Category(rs.getLong("id"), rs.getString("name"), rs.getString("slug"));
+            var category = new Category(rs.getLong("id"), rs.getString("name"), rs.getString("slug"));
+            category.setPostsCount(rs.getInt("posts_count"));
+            return category;
         }
     }
 }
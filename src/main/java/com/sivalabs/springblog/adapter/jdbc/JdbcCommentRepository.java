@@ -2,82 +2,279 @@ package com.sivalabs.springblog.adapter.jdbc;
 
 import com.sivalabs.springblog.domain.data.CommentRepository;
 import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.CommentActivity;
+import com.sivalabs.springblog.domain.models.CommentCursor;
+import com.sivalabs.springblog.domain.models.CommentFilter;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
 import com.sivalabs.springblog.domain.models.Role;
 import com.sivalabs.springblog.domain.models.User;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.simple.JdbcClient;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class JdbcCommentRepository implements CommentRepository {
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final String SELECT_COMMENTS =
+            """
+            select c.*, u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
+            from comments c join users u on c.created_by = u.id
+            """;
+    // Keeps posts.comments_count in step with the deleted rows, in the same statement
+    private static final String DELETE_COMMENTS =
+            """
+            with deleted as (delete from comments where %s returning post_id), %s
+            update posts p set comments_count = p.comments_count - d.deleted_count
+            from (select post_id, count(*) as deleted_count from deleted group by post_id) d
+            where p.id = d.post_id
+            """;
+
     private final JdbcClient jdbcClient;
+    private final JdbcClient exportClient;
 
-    public JdbcCommentRepository(JdbcClient jdbcClient) {
+    public JdbcCommentRepository(JdbcClient jdbcClient, DataSource dataSource) {
         this.jdbcClient = jdbcClient;
+        var exportTemplate = new JdbcTemplate(dataSource);
+        exportTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.exportClient = JdbcClient.create(exportTemplate);
     }
 
     @Override
-    public List<Comment> findAll() {
-        String sql =
-                """
-        select c.*, u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
-        from comments c join users u on c.created_by = u.id
-        order by c.created_date desc
-        """;
-        return jdbcClient.sql(sql).query(new CommentRowMapper()).list();
+    public Optional<Comment> findById(Long id) {
+        String sql = SELECT_COMMENTS + "where c.id = ?";
+        return jdbcClient.sql(sql).param(id).query(new CommentRowMapper()).optional();
     }
 
     @Override
-    public Optional<Comment> findById(Long id) {
+    public CursorPagedResult<Comment> findByPostId(Long postId, CommentCursor after, int pageSize) {
+        String sql = SELECT_COMMENTS
+                + "where c.post_id = :postId"
+                + (after == null ? "" : " and (c.created_date, c.id) > (:cursorDate, :cursorId)")
+                + " order by c.created_date, c.id limit :limit";
+        var spec = jdbcClient.sql(sql).param("postId", postId).param("limit", pageSize + 1);
+        if (after != null) {
+            spec = spec.param("cursorDate", after.createdDate()).param("cursorId", after.id());
+        }
+        List<Comment> comments =
+                new ArrayList<>(spec.query(new CommentRowMapper()).list());
+        boolean hasNext = comments.size() > pageSize;
+        if (hasNext) {
+            comments.removeLast();
+        }
+        String nextCursor = hasNext ? CommentCursor.of(comments.getLast()).encode() : null;
+        return new CursorPagedResult<>(comments, null, nextCursor, after != null, hasNext);
+    }
+
+    // Same keyset scheme as the post listings: when only "before" is given the page is read in
+    // ascending order and reversed.
+    @Override
+    public CursorPagedResult<Comment> findComments(
+            CommentFilter filter, CommentCursor after, CommentCursor before, int pageSize) {
+        boolean backward = after == null && before != null;
+        CommentCursor cursor = backward ? before : after;
+
+        Map<String, Object> params = new HashMap<>();
+        List<String> conditions = filterConditions(filter, params);
+        if (cursor != null) {
+            conditions.add(
+                    backward
+                            ? "(c.created_date, c.id) > (:cursorDate, :cursorId)"
+                            : "(c.created_date, c.id) < (:cursorDate, :cursorId)");
+            params.put("cursorDate", cursor.createdDate());
+            params.put("cursorId", cursor.id());
+        }
+        params.put("limit", pageSize + 1);
+        String order = backward ? "c.created_date asc, c.id asc" : "c.created_date desc, c.id desc";
+        String sql = SELECT_COMMENTS + where(conditions) + " order by " + order + " limit :limit";
+
+        List<Comment> comments = new ArrayList<>(
+                jdbcClient.sql(sql).params(params).query(new CommentRowMapper()).list());
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments.removeLast();
+        }
+        if (backward) {
+            Collections.reverse(comments);
+        }
+        boolean hasPrevious = backward ? hasMore : cursor != null;
+        boolean hasNext = backward || hasMore;
+
+        if (comments.isEmpty()) {
+            String cursorValue = cursor == null ? null : cursor.encode();
+            return new CursorPagedResult<>(
+                    List.of(), backward ? null : cursorValue, backward ? cursorValue : null, hasPrevious, hasNext);
+        }
+        return new CursorPagedResult<>(
+                comments,
+                hasPrevious ? CommentCursor.of(comments.getFirst()).encode() : null,
+                hasNext ? CommentCursor.of(comments.getLast()).encode() : null,
+                hasPrevious,
+                hasNext);
+    }
+
+    @Override
+    public void streamComments(CommentFilter filter, Consumer<Comment> action) {
+        Map<String, Object> params = new HashMap<>();
         String sql =
-                """
-        select c.*, u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
-        from comments c join users u on c.created_by = u.id
-        where c.id = ?
-        """;
-        return jdbcClient.sql(sql).param(id).query(new CommentRowMapper()).optional();
+                SELECT_COMMENTS + where(filterConditions(filter, params)) + " order by c.created_date desc, c.id desc";
+        var rowMapper = new CommentRowMapper();
+        exportClient.sql(sql).params(params).query(rs -> {
+            action.accept(rowMapper.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    private static List<String> filterConditions(CommentFilter filter, Map<String, Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.postId() != null) {
+            conditions.add("c.post_id = :postId");
+            params.put("postId", filter.postId());
+        }
+        if (filter.authorEmail() != null) {
+            // Resolving the author first lets the (created_by, created_date, id) index return rows in page order
+            conditions.add("c.created_by = (select id from users where lower(email) = lower(:authorEmail))");
+            params.put("authorEmail", filter.authorEmail());
+        }
+        if (filter.from() != null) {
+            conditions.add("c.created_date >= :fromDate");
+            params.put("fromDate", filter.from().atStartOfDay());
+        }
+        if (filter.to() != null) {
+            conditions.add("c.created_date < :toDate");
+            params.put("toDate", filter.to().plusDays(1).atStartOfDay());
+        }
+        return conditions;
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : "where " + String.join(" and ", conditions);
+    }
+
+    @Override
+    public Map<Long, Long> findPostIdsByCommentIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        String sql = "select id, post_id from comments where id IN (:ids)";
+        Map<Long, Long> postIdsByCommentIds = new HashMap<>();
+        jdbcClient.sql(sql).param("ids", ids).query(rs -> {
+            postIdsByCommentIds.put(rs.getLong("id"), rs.getLong("post_id"));
+        });
+        return postIdsByCommentIds;
     }
 
     @Override
-    public List<Comment> findByPostId(Long postId) {
+    public List<CommentActivity> findCommentActivity(LocalDateTime since) {
         String sql =
                 """
-        select c.*, u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
-        from comments c join users u on c.created_by = u.id
-        where c.post_id = ? order by c.created_date
-        """;
-        return jdbcClient.sql(sql).param(postId).query(new CommentRowMapper()).list();
+                select post_id, date_trunc('hour', created_date) as hour, count(*) as count
+                from comments
+                where created_date >= ?
+                group by post_id, date_trunc('hour', created_date)
+                """;
+        return jdbcClient
+                .sql(sql)
+                .param(since)
+                .query((rs, rowNum) -> new CommentActivity(
+                        rs.getLong("post_id"), rs.getTimestamp("hour").toLocalDateTime(), rs.getLong("count")))
+                .list();
     }
 
     @Override
     public Comment create(Comment comment) {
         String sql =
                 """
-                insert into comments (content, post_id, created_by, created_date)
-                values (:content, :post_id, :created_by, :created_date)
-                returning id
-                """;
-        var keyHolder = new GeneratedKeyHolder();
-        jdbcClient
+                with inserted as (
+                    insert into comments (content, post_id, created_by, created_date, client_id)
+                    values (:content, :post_id, :created_by, :created_date, :client_id)
+                    returning id, post_id
+                ), counted as (
+                    update posts p set comments_count = p.comments_count + 1
+                    from inserted i where p.id = i.post_id
+                ), %s
+                select id from inserted
+                """
+                        .formatted(versioned("inserted"));
+        Long id = jdbcClient
                 .sql(sql)
                 .param("content", comment.getContent())
                 .param("post_id", comment.getPostId())
                 .param("created_by", comment.getCreatedBy().getId())
                 .param("created_date", comment.getCreatedDate())
-                .update(keyHolder);
-        comment.setId(keyHolder.getKeyAs(Long.class));
+                .param("client_id", comment.getClientId())
+                .query(Long.class)
+                .single();
+        comment.setId(id);
         return comment;
     }
 
+    @Override
+    public Map<Long, Long> createAll(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return Map.of();
+        }
+        int size = comments.size();
+        String[] contents = new String[size];
+        Long[] postIds = new Long[size];
+        Long[] createdBy = new Long[size];
+        String[] createdDates = new String[size];
+        String[] clientIds = new String[size];
+        for (int i = 0; i < size; i++) {
+            Comment comment = comments.get(i);
+            contents[i] = comment.getContent();
+            postIds[i] = comment.getPostId();
+            createdBy[i] = comment.getCreatedBy().getId();
+            createdDates[i] = comment.getCreatedDate() == null
+                    ? null
+                    : comment.getCreatedDate().toString();
+            clientIds[i] =
+                    comment.getClientId() == null ? null : comment.getClientId().toString();
+        }
+        String sql =
+                """
+                with inserted as (
+                    insert into comments (content, post_id, created_by, created_date, client_id)
+                    select content, post_id, created_by, coalesce(created_date::timestamp, now()), client_id
+                    from unnest(?::text[], ?::bigint[], ?::bigint[], ?::text[], ?::uuid[])
+                         as i(content, post_id, created_by, created_date, client_id)
+                    where exists (select 1 from posts p where p.id = i.post_id)
+                    on conflict (client_id) do nothing
+                    returning id, post_id
+                ), counted as (
+                    update posts p set comments_count = p.comments_count + c.inserted_count
+                    from (select post_id, count(*) as inserted_count from inserted group by post_id) c
+                    where p.id = c.post_id
+                ), %s
+                select id, post_id from inserted
+                """
+                        .formatted(versioned("inserted"));
+        Map<Long, Long> postIdsByCommentIds = new HashMap<>();
+        jdbcClient
+                .sql(sql)
+                .params(contents, postIds, createdBy, createdDates, clientIds)
+                .query(rs -> {
+                    postIdsByCommentIds.put(rs.getLong("id"), rs.getLong("post_id"));
+                });
+        return postIdsByCommentIds;
+    }
+
     @Override
     public void deleteById(Long id) {
-        String sql = "delete from comments where id = ?";
-        jdbcClient.sql(sql).param(id).update();
+        jdbcClient
+                .sql(DELETE_COMMENTS.formatted("id = ?", versioned("deleted")))
+                .param(id)
+                .update();
     }
 
     @Override
@@ -87,7 +284,7 @@ public class JdbcCommentRepository implements CommentRepository {
         }
 
         String placeholders = String.join(",", ids.stream().map(id -> "?").toList());
-        String sql = "delete from comments where id IN (" + placeholders + ")";
+        String sql = DELETE_COMMENTS.formatted("id IN (" + placeholders + ")", versioned("deleted"));
 
         var spec = jdbcClient.sql(sql);
         for (Long id : ids) {
@@ -98,10 +295,21 @@ public class JdbcCommentRepository implements CommentRepository {
 
     @Override
     public void deleteCommentsByPostIds(List<Long> ids) {
-        String sql = "delete from comments where post_id IN (:postIds)";
+        String sql =
+                """
+                with deleted as (delete from comments where post_id IN (:postIds) returning id),
+                %s
+                update posts set comments_count = 0 where id IN (:postIds)
+                """
+                        .formatted(versioned("deleted"));
         jdbcClient.sql(sql).param("postIds", ids).update();
     }
 
+    // Comments are shown on listings and post pages, so any change to them changes the comments version
+    private static String versioned(String changedRows) {
+        return ContentVersions.bumpIfChanged(ContentVersions.COMMENTS, changedRows);
+    }
+
     static class CommentRowMapper implements RowMapper<Comment> {
         @Override
         public Comment mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -110,7 +318,7 @@ public class JdbcCommentRepository implements CommentRepository {
                     rs.getString("user_email"),
                     null,
                     rs.getString("user_name"),
-                    Role.valueOf(rs.getString("user_role")));
+                    Role.fromName(rs.getString("user_role")));
             return new Comment(
                     rs.getLong("id"),
                     rs.getString("content"),
@@ -0,0 +1,64 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import com.sivalabs.springblog.domain.data.CounterRepository;
+import com.sivalabs.springblog.domain.models.Counter;
+import java.util.List;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+class JdbcCounterRepository implements CounterRepository {
+    private final JdbcClient jdbcClient;
+
+    JdbcCounterRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public List<Long> findDriftedIds(Counter counter) {
+        CounterColumn column = CounterColumn.of(counter);
+        String sql = "select t.id from %s t where t.%s <> %s order by t.id"
+                .formatted(column.table(), column.column(), column.actualCount());
+        return jdbcClient.sql(sql).query(Long.class).list();
+    }
+
+    @Override
+    public int recount(Counter counter, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CounterColumn column = CounterColumn.of(counter);
+        Long[] idArray = ids.toArray(Long[]::new);
+        // Waits for transactions that changed the counted rows to commit and keeps new ones from adjusting the
+        // counter until the recount is done. The recount is a new statement, so it sees their committed rows.
+        jdbcClient
+                .sql("select id from %s where id = any(?) order by id for update".formatted(column.table()))
+                .param(idArray)
+                .query(Long.class)
+                .list();
+        String sql = "update %1$s t set %2$s = %3$s where t.id = any(?) and t.%2$s <> %3$s"
+                .formatted(column.table(), column.column(), column.actualCount());
+        int recounted = jdbcClient.sql(sql).param(idArray).update();
+        if (counter == Counter.POST_COMMENTS && recounted > 0) {
+            // Listings show the corrected comment counts, so their validators have to change
+            jdbcClient
+                    .sql("update content_versions set version = version + 1, last_modified = now()"
+                            + " where name = 'comments'")
+                    .update();
+        }
+        return recounted;
+    }
+
+    private record CounterColumn(String table, String column, String actualCount) {
+        static CounterColumn of(Counter counter) {
+            return switch (counter) {
+                case POST_COMMENTS -> new CounterColumn(
+                        "posts", "comments_count", "(select count(*) from comments c where c.post_id = t.id)");
+                case TAG_POSTS -> new CounterColumn(
+                        "tags", "posts_count", "(select count(*) from post_tags pt where pt.tag_id = t.id)");
+                case CATEGORY_POSTS -> new CounterColumn(
+                        "categories", "posts_count", "(select count(*) from posts p where p.category_id = t.id)");
+            };
+        }
+    }
+}
@@ -4,9 +4,17 @@ import com.sivalabs.springblog.domain.data.PostRepository;
 import com.sivalabs.springblog.domain.models.*;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -21,9 +29,12 @@ public class JdbcPostRepository implements PostRepository {
     }
 
     @Override
-    public PagedResult<Post> findAllPosts(int pageNo, int pageSize) {
-        String countSql = "SELECT count(*) FROM posts";
-        long totalElements = jdbcClient.sql(countSql).query(Long.class).single();
+    public PagedResult<PostSummary> findAllPosts(int pageNo, int pageSize) {
+        return findAllPosts(pageNo, pageSize, findPostsCount());
+    }
+
+    @Override
+    public PagedResult<PostSummary> findAllPosts(int pageNo, int pageSize, long totalElements) {
         if (totalElements == 0) {
             return PagedResult.empty();
         }
@@ -32,29 +43,37 @@ public class JdbcPostRepository implements PostRepository {
 
         String sql =
                 """
-            SELECT p.*, c.id as category_id, c.name as category_name, c.slug as category_slug,
-                   u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
+            SELECT p.id, p.title, p.slug, p.short_description, p.status, p.created_date, p.comments_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
+                   u.id as user_id, u.name as user_name
             FROM posts p
             JOIN categories c ON c.id = p.category_id
             JOIN users u ON u.id = p.created_by
-            ORDER BY created_date DESC LIMIT :size OFFSET :offset
+            ORDER BY p.created_date DESC, p.id DESC LIMIT :size OFFSET :offset
             """;
 
         var posts = jdbcClient
                 .sql(sql)
                 .param("size", pageSize)
                 .param("offset", offset)
-                .query(new PostRowMapper())
+                .query(new PostSummaryRowMapper())
                 .list();
 
         return PagedResult.of(posts, pageNo, pageSize, totalElements);
     }
 
     @Override
-    public PagedResult<Post> findPostsByCategorySlug(String categorySlug, int pageNo, int pageSize) {
-        String countSql = "SELECT count(*) FROM posts p JOIN categories c ON c.id = p.category_id WHERE c.slug = ?";
-        long totalElements =
-                jdbcClient.sql(countSql).param(categorySlug).query(Long.class).single();
+    public PagedResult<PostSummary> findPostsByCategorySlug(String categorySlug, int pageNo, int pageSize) {
+        return findPostsByCategorySlug(
+                categorySlug,
+                pageNo,
+                pageSize,
+                countPostsByCategorySlug(categorySlug).orElse(0L));
+    }
+
+    @Override
+    public PagedResult<PostSummary> findPostsByCategorySlug(
+            String categorySlug, int pageNo, int pageSize, long totalElements) {
         if (totalElements == 0) {
             return PagedResult.empty();
         }
@@ -63,13 +82,14 @@ public class JdbcPostRepository implements PostRepository {
 
         String sql =
                 """
-            SELECT p.*, c.id as category_id, c.name as category_name, c.slug as category_slug,
-                   u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
+            SELECT p.id, p.title, p.slug, p.short_description, p.status, p.created_date, p.comments_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
+                   u.id as user_id, u.name as user_name
             FROM posts p
             JOIN categories c ON c.id = p.category_id
             JOIN users u ON u.id = p.created_by
-            WHERE c.slug = ?
-            ORDER BY created_date DESC LIMIT ? OFFSET ?
+            WHERE p.category_id = (SELECT id FROM categories WHERE slug = ?)
+            ORDER BY p.created_date DESC, p.id DESC LIMIT ? OFFSET ?
             """;
 
         var posts = jdbcClient
@@ -77,24 +97,20 @@ public class JdbcPostRepository implements PostRepository {
                 .param(categorySlug)
                 .param(pageSize)
                 .param(offset)
-                .query(new PostRowMapper())
+                .query(new PostSummaryRowMapper())
                 .list();
 
         return PagedResult.of(posts, pageNo, pageSize, totalElements);
     }
 
     @Override
-    public PagedResult<Post> findPostsByTagSlug(String tagSlug, int pageNo, int pageSize) {
-        String countSql =
-                """
-            SELECT count(DISTINCT p.id)
-            FROM posts p
-            JOIN post_tags pt ON p.id = pt.post_id
-            JOIN tags t ON t.id = pt.tag_id
-            WHERE t.slug = ?
-            """;
-        long totalElements =
-                jdbcClient.sql(countSql).param(tagSlug).query(Long.class).single();
+    public PagedResult<PostSummary> findPostsByTagSlug(String tagSlug, int pageNo, int pageSize) {
+        return findPostsByTagSlug(
+                tagSlug, pageNo, pageSize, countPostsByTagSlug(tagSlug).orElse(0L));
+    }
+
+    @Override
+    public PagedResult<PostSummary> findPostsByTagSlug(String tagSlug, int pageNo, int pageSize, long totalElements) {
         if (totalElements == 0) {
             return PagedResult.empty();
         }
@@ -103,15 +119,15 @@ public class JdbcPostRepository implements PostRepository {
 
         String sql =
                 """
-            SELECT DISTINCT p.*, c.id as category_id, c.name as category_name, c.slug as category_slug,
-                   u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
+            SELECT p.id, p.title, p.slug, p.short_description, p.status, p.created_date, p.comments_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
+                   u.id as user_id, u.name as user_name
             FROM posts p
             JOIN categories c ON c.id = p.category_id
             JOIN users u ON u.id = p.created_by
-            JOIN post_tags pt ON p.id = pt.post_id
-            JOIN tags t ON t.id = pt.tag_id
-            WHERE t.slug = ?
-            ORDER BY p.created_date DESC LIMIT ? OFFSET ?
+            WHERE EXISTS (SELECT 1 FROM post_tags pt JOIN tags t ON t.id = pt.tag_id
+                          WHERE pt.post_id = p.id AND t.slug = ?)
+            ORDER BY p.created_date DESC, p.id DESC LIMIT ? OFFSET ?
             """;
 
         var posts = jdbcClient
@@ -119,26 +135,131 @@ public class JdbcPostRepository implements PostRepository {
                 .param(tagSlug)
                 .param(pageSize)
                 .param(offset)
-                .query(new PostRowMapper())
+                .query(new PostSummaryRowMapper())
                 .list();
 
         return PagedResult.of(posts, pageNo, pageSize, totalElements);
     }
 
+    @Override
+    public CursorPagedResult<PostSummary> findAllPosts(PostCursor after, PostCursor before, int pageSize) {
+        return findPostsByKeyset(null, Map.of(), after, before, pageSize);
+    }
+
+    @Override
+    public CursorPagedResult<PostSummary> findPostsByCategorySlug(
+            String categorySlug, PostCursor after, PostCursor before, int pageSize) {
+        // A constant category id, unlike a join on the slug, lets the (category_id, created_date, id) index
+        // return rows already in page order
+        return findPostsByKeyset(
+                "p.category_id = (SELECT id FROM categories WHERE slug = :categorySlug)",
+                Map.of("categorySlug", categorySlug),
+                after,
+                before,
+                pageSize);
+    }
+
+    @Override
+    public CursorPagedResult<PostSummary> findPostsByTagSlug(
+            String tagSlug, PostCursor after, PostCursor before, int pageSize) {
+        String filter =
+                """
+                EXISTS (SELECT 1 FROM post_tags pt JOIN tags t ON t.id = pt.tag_id
+                        WHERE pt.post_id = p.id AND t.slug = :tagSlug)
+                """;
+        return findPostsByKeyset(filter, Map.of("tagSlug", tagSlug), after, before, pageSize);
+    }
+
+    // Seeks past the cursor on (created_date, id) so every page costs the same regardless of depth.
+    // When only "before" is given the page is read in ascending order and reversed.
+    private CursorPagedResult<PostSummary> findPostsByKeyset(
+            String filter, Map<String, Object> params, PostCursor after, PostCursor before, int pageSize) {
+        boolean backward = after == null && before != null;
+        PostCursor cursor = backward ? before : after;
+
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            conditions.add(filter);
+        }
+        if (cursor != null) {
+            conditions.add(
+                    backward
+                            ? "(p.created_date, p.id) > (:cursorDate, :cursorId)"
+                            : "(p.created_date, p.id) < (:cursorDate, :cursorId)");
+        }
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+        String order = backward ? "p.created_date ASC, p.id ASC" : "p.created_date DESC, p.id DESC";
+
+        String sql =
+                """
+            SELECT p.id, p.title, p.slug, p.short_description, p.status, p.created_date, p.comments_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
+                   u.id as user_id, u.name as user_name
+            FROM posts p
+            JOIN categories c ON c.id = p.category_id
+            JOIN users u ON u.id = p.created_by
+            %s
+            ORDER BY %s LIMIT :limit
+            """
+                        .formatted(where, order);
+
+        var spec = jdbcClient.sql(sql).params(params).param("limit", pageSize + 1);
+        if (cursor != null) {
+            spec = spec.param("cursorDate", cursor.createdDate()).param("cursorId", cursor.id());
+        }
+        List<PostSummary> posts =
+                new ArrayList<>(spec.query(new PostSummaryRowMapper()).list());
+
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts.removeLast();
+        }
+        if (backward) {
+            Collections.reverse(posts);
+        }
+        boolean hasPrevious = backward ? hasMore : cursor != null;
+        boolean hasNext = backward || hasMore;
+
+        if (posts.isEmpty()) {
+            String cursorValue = cursor == null ? null : cursor.encode();
+            return new CursorPagedResult<>(
+                    List.of(), backward ? null : cursorValue, backward ? cursorValue : null, hasPrevious, hasNext);
+        }
+        PostSummary first = posts.getFirst();
+        PostSummary last = posts.getLast();
+        return new CursorPagedResult<>(
+                posts,
+                hasPrevious
+                        ? PostCursor.of(first.getCreatedDate(), first.getId()).encode()
+                        : null,
+                hasNext ? PostCursor.of(last.getCreatedDate(), last.getId()).encode() : null,
+                hasPrevious,
+                hasNext);
+    }
+
     @Override
     public Optional<Post> findBySlug(String slug) {
         String sql =
                 """
-            SELECT p.*, c.id as category_id, c.name as category_name, c.slug as category_slug,
+            SELECT p.id, p.title, p.slug, p.short_description, p.content_markdown, p.content_html, p.status,
+                   p.created_date, p.comments_count, coalesce(s.view_count, 0) as view_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
                    u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
             FROM posts p
             JOIN categories c ON c.id = p.category_id
             JOIN users u ON u.id = p.created_by
+            LEFT JOIN post_stats s ON s.post_id = p.id
             WHERE p.slug = ?
             """;
         return jdbcClient.sql(sql).param(slug).query(new PostRowMapper()).optional();
     }
 
+    @Override
+    public Optional<Long> findIdBySlug(String slug) {
+        String sql = "SELECT id FROM posts WHERE slug = ?";
+        return jdbcClient.sql(sql).param(slug).query(Long.class).optional();
+    }
+
     public Long create(Post post) {
         String sql =
                 """
@@ -161,26 +282,161 @@ public class JdbcPostRepository implements PostRepository {
                 .param("created_by", post.getCreatedBy().getId())
                 .update(keyHolder);
         post.setId(keyHolder.getKeyAs(Long.class));
+        adjustCategoryPostCounts(List.of(post.getCategory().getId()), 1);
 
         this.insertPostTags(post.getId(), post.getTags());
 
         return post.getId();
     }
 
+    @Override
+    public List<Post> createAll(List<Post> posts) {
+        List<Post> batch = withDistinctTitlesAndSlugs(posts);
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        int size = batch.size();
+        String[] titles = new String[size];
+        String[] slugs = new String[size];
+        String[] shortDescriptions = new String[size];
+        String[] markdowns = new String[size];
+        String[] htmls = new String[size];
+        String[] statuses = new String[size];
+        Long[] categoryIds = new Long[size];
+        Long[] createdBy = new Long[size];
+        String[] createdDates = new String[size];
+        for (int i = 0; i < size; i++) {
+            Post post = batch.get(i);
+            titles[i] = post.getTitle();
+            slugs[i] = post.getSlug();
+            shortDescriptions[i] = post.getShortDescription();
+            markdowns[i] = post.getContentMarkdown();
+            htmls[i] = post.getContentHtml();
+            statuses[i] = post.getStatus().name();
+            categoryIds[i] = post.getCategory().getId();
+            createdBy[i] = post.getCreatedBy().getId();
+            createdDates[i] =
+                    post.getCreatedDate() == null ? null : post.getCreatedDate().toString();
+        }
+        String sql =
+                """
+                insert into posts (title, slug, short_description, content_markdown,
+                                   content_html, status, category_id, created_by, created_date)
+                select title, slug, short_description, content_markdown,
+                       content_html, status, category_id, created_by, coalesce(created_date::timestamp, now())
+                from unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[],
+                            ?::bigint[], ?::bigint[], ?::text[])
+                     as i(title, slug, short_description, content_markdown,
+                          content_html, status, category_id, created_by, created_date)
+                on conflict do nothing
+                returning id, slug
+                """;
+        Map<String, Long> idsBySlug = new HashMap<>();
+        jdbcClient
+                .sql(sql)
+                .params(
+                        titles,
+                        slugs,
+                        shortDescriptions,
+                        markdowns,
+                        htmls,
+                        statuses,
+                        categoryIds,
+                        createdBy,
+                        createdDates)
+                .query(rs -> {
+                    idsBySlug.put(rs.getString("slug"), rs.getLong("id"));
+                });
+
+        List<Post> created = new ArrayList<>(idsBySlug.size());
+        List<Long> createdCategoryIds = new ArrayList<>();
+        List<Long> postIds = new ArrayList<>();
+        List<Long> tagIds = new ArrayList<>();
+        for (Post post : batch) {
+            Long id = idsBySlug.get(post.getSlug());
+            if (id == null) {
+                continue;
+            }
+            post.setId(id);
+            created.add(post);
+            createdCategoryIds.add(post.getCategory().getId());
+            for (Tag tag : post.getTags()) {
+                postIds.add(id);
+                tagIds.add(tag.getId());
+            }
+        }
+        adjustCategoryPostCounts(createdCategoryIds, 1);
+        if (!tagIds.isEmpty()) {
+            List<Long> insertedTagIds = jdbcClient
+                    .sql(
+                            """
+                            insert into post_tags (post_id, tag_id) select * from unnest(?::bigint[], ?::bigint[])
+                            on conflict do nothing
+                            returning tag_id
+                            """)
+                    .params(postIds.toArray(Long[]::new), tagIds.toArray(Long[]::new))
+                    .query(Long.class)
+                    .list();
+            adjustTagPostCounts(insertedTagIds, 1);
+        }
+        return created;
+    }
+
+    // The insert skips a post repeating the title or slug of an earlier one in the same batch, and ids are
+    // mapped back by slug, so such a post would be reported as created with the earlier post's id
+    private static List<Post> withDistinctTitlesAndSlugs(List<Post> posts) {
+        Set<String> titles = new HashSet<>();
+        Set<String> slugs = new HashSet<>();
+        List<Post> distinct = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            if (!titles.contains(post.getTitle()) && !slugs.contains(post.getSlug())) {
+                titles.add(post.getTitle());
+                slugs.add(post.getSlug());
+                distinct.add(post);
+            }
+        }
+        return distinct;
+    }
+
     @Override
     public Optional<Post> findById(Long id) {
         String sql =
                 """
-            SELECT p.*, c.id as category_id, c.name as category_name, c.slug as category_slug,
+            SELECT p.id, p.title, p.slug, p.short_description, p.content_markdown, p.content_html, p.status,
+                   p.created_date, p.comments_count, coalesce(s.view_count, 0) as view_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
                    u.id as user_id, u.name as user_name, u.email as user_email, u.role as user_role
             FROM posts p
             JOIN categories c ON c.id = p.category_id
             JOIN users u ON u.id = p.created_by
+            LEFT JOIN post_stats s ON s.post_id = p.id
             WHERE p.id = ?
             """;
         return jdbcClient.sql(sql).param(id).query(new PostRowMapper()).optional();
     }
 
+    @Override
+    public List<PostSummary> findPostSummariesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        String sql =
+                """
+            SELECT p.id, p.title, p.slug, p.short_description, p.status, p.created_date, p.comments_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
+                   u.id as user_id, u.name as user_name
+            FROM posts p
+            JOIN categories c ON c.id = p.category_id
+            JOIN users u ON u.id = p.created_by
+            WHERE p.id IN (:ids)
+            """;
+        return jdbcClient
+                .sql(sql)
+                .param("ids", ids)
+                .query(new PostSummaryRowMapper())
+                .list();
+    }
+
     @Override
     public void deletePostsByIds(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
@@ -189,22 +445,28 @@ public class JdbcPostRepository implements PostRepository {
         this.deletePostTagsByIds(ids);
 
         String placeholders = String.join(",", ids.stream().map(id -> "?").toList());
-        String sql = "DELETE FROM posts WHERE id IN (" + placeholders + ")";
+        String sql = "DELETE FROM posts WHERE id IN (" + placeholders + ") RETURNING category_id";
 
         var spec = jdbcClient.sql(sql);
         for (Long id : ids) {
             spec = spec.param(id);
         }
-        spec.update();
+        adjustCategoryPostCounts(spec.query(Long.class).list(), -1);
     }
 
     @Override
     public void update(Post post) {
+        Long previousCategoryId = jdbcClient
+                .sql("select category_id from posts where id = ? for update")
+                .param(post.getId())
+                .query(Long.class)
+                .optional()
+                .orElse(null);
         String sql =
                 """
                 update posts set title = :title, slug = :slug, short_description = :short_description,
                 content_markdown = :content_markdown, content_html = :content_html,
-                status = :status, category_id = :category_id
+                status = :status, category_id = :category_id, updated_date = clock_timestamp()
                 where id = :id
                 """;
         jdbcClient
@@ -218,9 +480,13 @@ public class JdbcPostRepository implements PostRepository {
                 .param("category_id", post.getCategory().getId())
                 .param("id", post.getId())
                 .update();
+        Long categoryId = post.getCategory().getId();
+        if (previousCategoryId != null && !previousCategoryId.equals(categoryId)) {
+            adjustCategoryPostCounts(List.of(previousCategoryId), -1);
+            adjustCategoryPostCounts(List.of(categoryId), 1);
+        }
 
-        this.deletePostTagsByIds(List.of(post.getId()));
-        this.insertPostTags(post.getId(), post.getTags());
+        this.syncPostTags(post.getId(), post.getTags());
     }
 
     @Override
@@ -228,48 +494,282 @@ public class JdbcPostRepository implements PostRepository {
         return jdbcClient.sql("SELECT count(*) FROM posts").query(Long.class).single();
     }
 
+    @Override
+    public Optional<Long> countPostsByCategorySlug(String categorySlug) {
+        String sql = "SELECT posts_count FROM categories WHERE slug = ?";
+        return jdbcClient.sql(sql).param(categorySlug).query(Long.class).optional();
+    }
+
+    @Override
+    public Optional<Long> countPostsByTagSlug(String tagSlug) {
+        String sql = "SELECT posts_count FROM tags WHERE slug = ?";
+        return jdbcClient.sql(sql).param(tagSlug).query(Long.class).optional();
+    }
+
+    @Override
+    public ContentVersion findPostsActivity() {
+        String sql =
+                """
+                SELECT greatest((SELECT max(coalesce(updated_date, created_date)) FROM posts),
+                                v.last_modified) as last_modified,
+                       v.version as comments_version
+                FROM content_versions v
+                WHERE v.name = 'comments'
+                """;
+        return jdbcClient
+                .sql(sql)
+                .query((rs, rowNum) -> {
+                    Timestamp lastModified = rs.getTimestamp("last_modified");
+                    return new ContentVersion(
+                            lastModified == null ? null : lastModified.toLocalDateTime(),
+                            rs.getLong("comments_version"));
+                })
+                .single();
+    }
+
+    @Override
+    public Optional<ContentVersion> findPostVersionBySlug(String slug) {
+        String sql =
+                """
+                SELECT greatest(coalesce(p.updated_date, p.created_date),
+                                (SELECT max(c.created_date) FROM comments c WHERE c.post_id = p.id)) as last_modified,
+                       p.comments_count
+                FROM posts p
+                WHERE p.slug = ?
+                """;
+        return jdbcClient
+                .sql(sql)
+                .param(slug)
+                .query((rs, rowNum) -> new ContentVersion(
+                        rs.getTimestamp("last_modified").toLocalDateTime(), rs.getLong("comments_count")))
+                .optional();
+    }
+
+    @Override
+    public long estimatePostsCount() {
+        // reltuples is -1 until the table has been vacuumed or analyzed
+        String sql = "SELECT greatest(reltuples, 0)::bigint FROM pg_class WHERE oid = 'posts'::regclass";
+        return jdbcClient.sql(sql).query(Long.class).single();
+    }
+
     private void deletePostTagsByIds(List<Long> ids) {
-        String sql = "delete from post_tags where post_id IN (:postIds)";
-        jdbcClient.sql(sql).param("postIds", ids).update();
+        String sql = "delete from post_tags where post_id IN (:postIds) returning tag_id";
+        adjustTagPostCounts(
+                jdbcClient.sql(sql).param("postIds", ids).query(Long.class).list(), -1);
     }
 
     private void insertPostTags(Long postId, Set<Tag> tags) {
+        insertPostTags(postId, tags.stream().map(Tag::getId).toList());
+    }
+
+    private void insertPostTags(Long postId, Collection<Long> tagIds) {
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        String sql =
+                "insert into post_tags (post_id, tag_id) select ?, unnest(?::bigint[]) on conflict do nothing returning tag_id";
+        List<Long> insertedTagIds = jdbcClient
+                .sql(sql)
+                .param(postId)
+                .param(tagIds.toArray(Long[]::new))
+                .query(Long.class)
+                .list();
+        adjustTagPostCounts(insertedTagIds, 1);
+    }
+
+    // Only touches the rows that changed, so re-saving a post with unchanged tags writes nothing
+    private void syncPostTags(Long postId, Set<Tag> tags) {
+        Set<Long> currentTagIds = new HashSet<>(jdbcClient
+                .sql("select tag_id from post_tags where post_id = ?")
+                .param(postId)
+                .query(Long.class)
+                .list());
+        Set<Long> newTagIds = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+
+        List<Long> removedTagIds =
+                currentTagIds.stream().filter(id -> !newTagIds.contains(id)).toList();
+        if (!removedTagIds.isEmpty()) {
+            String sql = "delete from post_tags where post_id = ? and tag_id = any(?::bigint[]) returning tag_id";
+            List<Long> deletedTagIds = jdbcClient
+                    .sql(sql)
+                    .param(postId)
+                    .param(removedTagIds.toArray(Long[]::new))
+                    .query(Long.class)
+                    .list();
+            adjustTagPostCounts(deletedTagIds, -1);
+        }
+        List<Long> addedTagIds =
+                newTagIds.stream().filter(id -> !currentTagIds.contains(id)).toList();
+        insertPostTags(postId, addedTagIds);
+    }
+
+    // Only the rows actually inserted or deleted (as reported by RETURNING) are counted, so "on conflict do
+    // nothing" and concurrent deletes cannot make the counters drift
+    private void adjustTagPostCounts(List<Long> tagIds, int sign) {
+        adjustCounts("tags", "posts_count", tagIds, sign);
+    }
+
+    private void adjustCategoryPostCounts(List<Long> categoryIds, int sign) {
+        adjustCounts("categories", "posts_count", categoryIds, sign);
+    }
+
+    // Adds sign times the number of occurrences of each id to that row's counter
+    private void adjustCounts(String table, String column, List<Long> ids, int sign) {
+        if (ids.isEmpty()) {
+            return;
+        }
         String sql =
                 """
-                insert into post_tags (post_id, tag_id)
-                values (:post_id, :tag_id)
-                """;
-        tags.forEach(tag -> jdbcClient
+                update %1$s t set %2$s = t.%2$s + d.delta
+                from (select id, count(*) * ? as delta from unnest(?::bigint[]) as u(id) group by id) d
+                where t.id = d.id
+                """
+                        .formatted(table, column);
+        jdbcClient.sql(sql).param(sign).param(ids.toArray(Long[]::new)).update();
+    }
+
+    @Override
+    public List<PostSearchDocument> findSearchDocumentsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        String sql =
+                """
+            SELECT id, title, short_description, content_markdown
+            FROM posts
+            WHERE id IN (:ids)
+            """;
+        return jdbcClient
+                .sql(sql)
+                .param("ids", ids)
+                .query(new PostSearchDocumentRowMapper())
+                .list();
+    }
+
+    @Override
+    public List<PostSearchDocument> findSearchDocuments(long afterId, int limit) {
+        String sql =
+                """
+            SELECT id, title, short_description, content_markdown
+            FROM posts
+            WHERE id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+        return jdbcClient
                 .sql(sql)
-                .param("post_id", postId)
-                .param("tag_id", tag.getId())
-                .update());
+                .params(afterId, limit)
+                .query(new PostSearchDocumentRowMapper())
+                .list();
     }
 
+    // Post pages and listings are the most frequently read rows, so their mappers read columns by index
     static class PostRowMapper implements RowMapper<Post> {
+        private static final int ID = 0, TITLE = 1, SLUG = 2, SHORT_DESCRIPTION = 3, CONTENT_MARKDOWN = 4;
+        private static final int CONTENT_HTML = 5, STATUS = 6, CREATED_DATE = 7, COMMENTS_COUNT = 8, VIEW_COUNT = 9;
+        private static final int CATEGORY_ID = 10, CATEGORY_NAME = 11, CATEGORY_SLUG = 12;
+        private static final int USER_ID = 13, USER_NAME = 14, USER_EMAIL = 15, USER_ROLE = 16;
+
+        private final ColumnIndexes columns = new ColumnIndexes(
+                "id",
+                "title",
+                "slug",
+                "short_description",
+                "content_markdown",
+                "content_html",
+                "status",
+                "created_date",
+                "comments_count",
+                "view_count",
+                "category_id",
+                "category_name",
+                "category_slug",
+                "user_id",
+                "user_name",
+                "user_email",
+                "user_role");
+
         @Override
         public Post mapRow(ResultSet rs, int rowNum) throws SQLException {
-            Long postId = rs.getLong("id");
+            int[] column = columns.of(rs);
             var category = new Category(
-                    rs.getLong("category_id"), rs.getString("category_name"), rs.getString("category_slug"));
+                    rs.getLong(column[CATEGORY_ID]),
+                    rs.getString(column[CATEGORY_NAME]),
+                    rs.getString(column[CATEGORY_SLUG]));
             var user = new User(
-                    rs.getLong("user_id"),
-                    rs.getString("user_email"),
+                    rs.getLong(column[USER_ID]),
+                    rs.getString(column[USER_EMAIL]),
                     null,
-                    rs.getString("user_name"),
-                    Role.valueOf(rs.getString("user_role")));
-            return new Post(
-                    postId,
-                    rs.getString("title"),
-                    rs.getString("slug"),
-                    rs.getString("short_description"),
-                    rs.getString("content_markdown"),
-                    rs.getString("content_html"),
+                    rs.getString(column[USER_NAME]),
+                    Role.fromName(rs.getString(column[USER_ROLE])));
+            var post = new Post(
+                    rs.getLong(column[ID]),
+                    rs.getString(column[TITLE]),
+                    rs.getString(column[SLUG]),
+                    rs.getString(column[SHORT_DESCRIPTION]),
+                    rs.getString(column[CONTENT_MARKDOWN]),
+                    rs.getString(column[CONTENT_HTML]),
                     category,
                     Set.of(),
-                    PostStatus.valueOf(rs.getString("status")),
+                    PostStatus.fromName(rs.getString(column[STATUS])),
                     user,
-                    rs.getTimestamp("created_date").toLocalDateTime());
+                    rs.getTimestamp(column[CREATED_DATE]).toLocalDateTime());
+            post.setCommentsCount(rs.getInt(column[COMMENTS_COUNT]));
+            post.setViewCount(rs.getLong(column[VIEW_COUNT]));
+            return post;
+        }
+    }
+
+    static class PostSummaryRowMapper implements RowMapper<PostSummary> {
+        private static final int ID = 0, TITLE = 1, SLUG = 2, SHORT_DESCRIPTION = 3, STATUS = 4;
+        private static final int CREATED_DATE = 5, COMMENTS_COUNT = 6;
+        private static final int CATEGORY_ID = 7, CATEGORY_NAME = 8, CATEGORY_SLUG = 9, USER_ID = 10, USER_NAME = 11;
+
+        private final ColumnIndexes columns = new ColumnIndexes(
+                "id",
+                "title",
+                "slug",
+                "short_description",
+                "status",
+                "created_date",
+                "comments_count",
+                "category_id",
+                "category_name",
+                "category_slug",
+                "user_id",
+                "user_name");
+
+        @Override
+        public PostSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+            int[] column = columns.of(rs);
+            var category = new Category(
+                    rs.getLong(column[CATEGORY_ID]),
+                    rs.getString(column[CATEGORY_NAME]),
+                    rs.getString(column[CATEGORY_SLUG]));
+            var user = new User(rs.getLong(column[USER_ID]), null, null, rs.getString(column[USER_NAME]), null);
+            var post = new PostSummary(
+                    rs.getLong(column[ID]),
+                    rs.getString(column[TITLE]),
+                    rs.getString(column[SLUG]),
+                    rs.getString(column[SHORT_DESCRIPTION]),
+                    category,
+                    Set.of(),
+                    PostStatus.fromName(rs.getString(column[STATUS])),
+                    user,
+                    rs.getTimestamp(column[CREATED_DATE]).toLocalDateTime());
+            post.setCommentsCount(rs.getInt(column[COMMENTS_COUNT]));
+            return post;
+        }
+    }
+
+    static class PostSearchDocumentRowMapper implements RowMapper<PostSearchDocument> {
+        @Override
+        public PostSearchDocument mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new PostSearchDocument(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("short_description"),
+                    rs.getString("content_markdown"));
         }
     }
 }
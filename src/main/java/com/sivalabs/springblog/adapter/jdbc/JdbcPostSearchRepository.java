@@ -0,0 +1,41 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import com.sivalabs.springblog.domain.data.PostSearchRepository;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@ConditionalOnProperty(prefix = "blog.search", name = "backend", havingValue = "postgres", matchIfMissing = true)
+public class JdbcPostSearchRepository implements PostSearchRepository {
+    private final JdbcClient jdbcClient;
+
+    public JdbcPostSearchRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public List<PostSearchHit> search(String query, SearchCursor after, int limit) {
+        // websearch_to_tsquery accepts free-form user input ("quoted phrases", or, -exclusions) without syntax errors
+        String sql =
+                """
+                SELECT p.id, ts_rank(p.search_vector, q.query) AS rank
+                FROM posts p, websearch_to_tsquery('english', :query) AS q(query)
+                WHERE p.search_vector @@ q.query
+                """;
+        if (after != null) {
+            sql += " AND (ts_rank(p.search_vector, q.query), p.id) < (CAST(:cursorRank AS real), :cursorId)";
+        }
+        sql += " ORDER BY rank DESC, p.id DESC LIMIT :limit";
+
+        var spec = jdbcClient.sql(sql).param("query", query).param("limit", limit);
+        if (after != null) {
+            spec = spec.param("cursorRank", after.rank()).param("cursorId", after.id());
+        }
+        return spec.query((rs, rowNum) -> new PostSearchHit(rs.getLong("id"), rs.getFloat("rank")))
+                .list();
+    }
+}
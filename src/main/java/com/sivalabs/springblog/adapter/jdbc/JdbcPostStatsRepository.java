@@ -0,0 +1,73 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import com.sivalabs.springblog.domain.data.PostStatsRepository;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.PopularPost;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+class JdbcPostStatsRepository implements PostStatsRepository {
+    private final JdbcClient jdbcClient;
+
+    JdbcPostStatsRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public void addViewCounts(Map<Long, Long> viewCountsByPostId) {
+        if (viewCountsByPostId.isEmpty()) {
+            return;
+        }
+        Long[] postIds = viewCountsByPostId.keySet().toArray(Long[]::new);
+        Long[] viewCounts = new Long[postIds.length];
+        for (int i = 0; i < postIds.length; i++) {
+            viewCounts[i] = viewCountsByPostId.get(postIds[i]);
+        }
+        // Rows are locked in post id order, so concurrent flushes from several instances cannot deadlock
+        String sql =
+                """
+                with counted as (
+                    insert into post_stats (post_id, view_count)
+                    select v.post_id, v.view_count
+                    from unnest(?::bigint[], ?::bigint[]) as v(post_id, view_count)
+                    join posts p on p.id = v.post_id
+                    order by v.post_id
+                    on conflict (post_id) do update set view_count = post_stats.view_count + excluded.view_count
+                    returning post_id
+                ), %s
+                select count(*) from counted
+                """
+                        .formatted(ContentVersions.bumpIfChanged(ContentVersions.VIEWS, "counted"));
+        jdbcClient.sql(sql).params(postIds, viewCounts).query(Long.class).single();
+    }
+
+    @Override
+    public ContentVersion findViewsVersion() {
+        return jdbcClient
+                .sql(ContentVersions.select(ContentVersions.VIEWS))
+                .query((rs, rowNum) ->
+                        new ContentVersion(rs.getTimestamp("last_modified").toLocalDateTime(), rs.getLong("version")))
+                .single();
+    }
+
+    @Override
+    public List<PopularPost> findMostViewedPosts(int limit) {
+        String sql =
+                """
+                select p.id, p.title, p.slug, s.view_count
+                from post_stats s
+                join posts p on p.id = s.post_id
+                order by s.view_count desc, s.post_id desc
+                limit ?
+                """;
+        return jdbcClient
+                .sql(sql)
+                .param(limit)
+                .query((rs, rowNum) -> new PopularPost(
+                        rs.getLong("id"), rs.getString("title"), rs.getString("slug"), rs.getLong("view_count")))
+                .list();
+    }
+}
@@ -0,0 +1,175 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import com.sivalabs.springblog.adapter.jdbc.JdbcPostRepository.PostSummaryRowMapper;
+import com.sivalabs.springblog.domain.data.RelatedPostRepository;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import java.sql.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+class JdbcRelatedPostRepository implements RelatedPostRepository {
+    /*
+     * Similarity is the weighted Jaccard index of the two posts' tags: the weight of the shared tags over the
+     * weight of all tags of either post. A tag weighs more the fewer posts use it (1 + ln(N / df), using the
+     * tags.posts_count counters), so sharing a niche tag counts for more than sharing a broad one. Posts in the
+     * same category get categoryBoost on top. The newest posts of the category are always candidates, so posts
+     * without tags still get related posts.
+     *
+     * Only the newest MAX_POSTS_PER_TAG posts of each shared tag are candidates, which bounds the work for tags
+     * used by a large share of all posts.
+     */
+    private static final int MAX_POSTS_PER_TAG = 1000;
+
+    private static final String RECOMPUTE =
+            """
+            with src as (
+                select p.id, p.category_id from posts p where p.id = any(:ids)
+            ),
+            tag_weights as (
+                select t.id as tag_id,
+                       1 + ln((coalesce((select sum(posts_count) from categories), 0) + 1.0) / (t.posts_count + 1.0))
+                           ::float8 as weight
+                from tags t
+            ),
+            src_tags as (
+                select s.id as src_id, pt.tag_id, tw.weight
+                from src s
+                join post_tags pt on pt.post_id = s.id
+                join tag_weights tw on tw.tag_id = pt.tag_id
+            ),
+            src_weights as (
+                select src_id, sum(weight) as weight from src_tags group by src_id
+            ),
+            shared as (
+                select st.src_id, c.post_id, sum(st.weight) as weight
+                from src_tags st
+                cross join lateral (
+                    select pt.post_id from post_tags pt
+                    where pt.tag_id = st.tag_id and pt.post_id <> st.src_id
+                    order by pt.post_id desc
+                    limit :maxPostsPerTag
+                ) c
+                group by st.src_id, c.post_id
+            ),
+            candidate_weights as (
+                select c.post_id, w.weight
+                from (select distinct post_id from shared) c
+                cross join lateral (
+                    select sum(tw.weight) as weight
+                    from post_tags pt
+                    join tag_weights tw on tw.tag_id = pt.tag_id
+                    where pt.post_id = c.post_id
+                ) w
+            ),
+            scored as (
+                select sh.src_id, sh.post_id,
+                       sh.weight / (sw.weight + cw.weight - sh.weight)
+                           + case when p.category_id = s.category_id then :categoryBoost::float8 else 0 end as score
+                from shared sh
+                join src_weights sw on sw.src_id = sh.src_id
+                join candidate_weights cw on cw.post_id = sh.post_id
+                join posts p on p.id = sh.post_id
+                join src s on s.id = sh.src_id
+                union all
+                select s.id, c.id, :categoryBoost::float8
+                from src s
+                cross join lateral (
+                    select p.id from posts p
+                    where p.category_id = s.category_id and p.id <> s.id
+                    order by p.created_date desc, p.id desc
+                    limit :limit
+                ) c
+            ),
+            ranked as (
+                select src_id, post_id,
+                       row_number() over (partition by src_id order by max(score) desc, post_id desc) as rank
+                from scored
+                group by src_id, post_id
+            )
+            insert into post_related (post_id, related_post_ids)
+            select s.id, coalesce(array_agg(r.post_id order by r.rank) filter (where r.post_id is not null), '{}')
+            from src s
+            left join ranked r on r.src_id = s.id and r.rank <= :limit
+            group by s.id
+            on conflict (post_id) do update set related_post_ids = excluded.related_post_ids
+            returning post_id, related_post_ids
+            """;
+
+    private final JdbcClient jdbcClient;
+
+    JdbcRelatedPostRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public List<PostSummary> findRelatedPosts(Long postId) {
+        String sql =
+                """
+            SELECT p.id, p.title, p.slug, p.short_description, p.status, p.created_date, p.comments_count,
+                   c.id as category_id, c.name as category_name, c.slug as category_slug,
+                   u.id as user_id, u.name as user_name
+            FROM post_related r
+            CROSS JOIN unnest(r.related_post_ids) WITH ORDINALITY AS related(post_id, position)
+            JOIN posts p ON p.id = related.post_id
+            JOIN categories c ON c.id = p.category_id
+            JOIN users u ON u.id = p.created_by
+            WHERE r.post_id = ?
+            ORDER BY related.position
+            """;
+        return jdbcClient
+                .sql(sql)
+                .param(postId)
+                .query(new PostSummaryRowMapper())
+                .list();
+    }
+
+    @Override
+    public Map<Long, List<Long>> recompute(Collection<Long> postIds, int limit, double categoryBoost) {
+        Map<Long, List<Long>> relatedByPostId = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return relatedByPostId;
+        }
+        jdbcClient
+                .sql(RECOMPUTE)
+                .param("ids", postIds.toArray(Long[]::new))
+                .param("limit", limit)
+                .param("categoryBoost", categoryBoost)
+                .param("maxPostsPerTag", MAX_POSTS_PER_TAG)
+                .query(rs -> {
+                    Array related = rs.getArray("related_post_ids");
+                    relatedByPostId.put(rs.getLong("post_id"), Arrays.asList((Long[]) related.getArray()));
+                });
+        return relatedByPostId;
+    }
+
+    @Override
+    public List<Long> findPostIdsRelatedTo(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "select post_id from post_related where related_post_ids && ?::bigint[]";
+        return jdbcClient
+                .sql(sql)
+                .param(postIds.toArray(Long[]::new))
+                .query(Long.class)
+                .list();
+    }
+
+    @Override
+    public List<Long> findPostIds(long afterId, int limit, boolean missingOnly) {
+        String sql = missingOnly
+                ? """
+                  select p.id from posts p
+                  where p.id > ? and not exists (select 1 from post_related r where r.post_id = p.id)
+                  order by p.id limit ?
+                  """
+                : "select id from posts where id > ? order by id limit ?";
+        return jdbcClient.sql(sql).params(afterId, limit).query(Long.class).list();
+    }
+}
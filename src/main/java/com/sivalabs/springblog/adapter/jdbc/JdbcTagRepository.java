@@ -5,10 +5,13 @@ import com.sivalabs.springblog.domain.models.Tag;
 import com.sivalabs.springblog.domain.services.StringUtils;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import org.springframework.jdbc.core.RowMapper;
@@ -67,13 +70,54 @@ public class JdbcTagRepository implements TagRepository {
 
     @Override
     public Tag getOrCreateTagByName(String name) {
-        String slug = StringUtils.toSlug(name);
-        Tag tag = findBySlug(slug).orElse(null);
-        if (tag == null) {
-            tag = new Tag(null, name, slug);
-            tag = create(tag);
+        return getOrCreateTagsByNames(List.of(name)).getFirst();
+    }
+
+    @Override
+    public List<Tag> getOrCreateTagsByNames(Collection<String> names) {
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        names.forEach(name -> namesBySlug.putIfAbsent(StringUtils.toSlug(name), name));
+        if (namesBySlug.isEmpty()) {
+            return List.of();
         }
-        return tag;
+        String sql =
+                """
+                with input (name, slug) as (select * from unnest(?::text[], ?::text[])),
+                inserted as (
+                    insert into tags (name, slug)
+                    select name, slug from input
+                    on conflict do nothing
+                    returning id, name, slug, posts_count
+                )
+                select id, name, slug, posts_count from inserted
+                union all
+                select t.id, t.name, t.slug, t.posts_count from tags t join input i on i.slug = t.slug
+                """;
+        Map<String, Tag> tagsBySlug = new HashMap<>();
+        jdbcClient
+                .sql(sql)
+                .param(namesBySlug.values().toArray(String[]::new))
+                .param(namesBySlug.keySet().toArray(String[]::new))
+                .query(new TagRowMapper())
+                .list()
+                .forEach(tag -> tagsBySlug.put(tag.getSlug(), tag));
+
+        // A tag committed concurrently after the statement snapshot was taken is neither inserted nor selected above
+        String[] missingSlugs = namesBySlug.keySet().stream()
+                .filter(slug -> !tagsBySlug.containsKey(slug))
+                .toArray(String[]::new);
+        if (missingSlugs.length > 0) {
+            jdbcClient
+                    .sql("select * from tags where slug = any(?::text[])")
+                    .param(missingSlugs)
+                    .query(new TagRowMapper())
+                    .list()
+                    .forEach(tag -> tagsBySlug.put(tag.getSlug(), tag));
+        }
+        return namesBySlug.keySet().stream()
+                .map(tagsBySlug::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
@@ -134,7 +178,9 @@ public class JdbcTagRepository implements TagRepository {
     static class TagRowMapper implements RowMapper<Tag> {
         @Override
         public Tag mapRow(ResultSet rs, int rowNum) throws SQLException {
-            return new Tag(rs.getLong("id"), rs.getString("name"), rs.getString("slug"));
+            var tag = new Tag(rs.getLong("id"), rs.getString("name"), rs.getString("slug"));
+            tag.setPostsCount(rs.getInt("posts_count"));
+            return tag;
         }
     }
 }
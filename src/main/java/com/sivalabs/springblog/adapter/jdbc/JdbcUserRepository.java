@@ -57,7 +57,7 @@ public class JdbcUserRepository implements UserRepository {
                     rs.getString("email"),
                     rs.getString("password"),
                     rs.getString("name"),
-                    Role.valueOf(rs.getString("role")));
+                    Role.fromName(rs.getString("role")));
         }
     }
 }
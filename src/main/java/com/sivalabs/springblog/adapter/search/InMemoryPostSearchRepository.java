@@ -0,0 +1,174 @@
+package com.sivalabs.springblog.adapter.search;
+
+import com.sivalabs.springblog.domain.data.PostRepository;
+import com.sivalabs.springblog.domain.data.PostSearchRepository;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import com.sivalabs.springblog.domain.events.PostEventBatcher;
+import com.sivalabs.springblog.domain.models.PostSearchDocument;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Search backend for deployments that cannot add the full-text search column and index to their
+ * database. The index is rebuilt from the posts table on startup and every
+ * {@code blog.search.rebuild-interval}, and kept up to date from {@link PostEvent}s in between. An instance
+ * only sees its own events, so the rebuild is also what picks up changes made on other instances.
+ * <p>
+ * The events of one transaction are collected and applied after it commits, so a bulk import
+ * re-reads the created posts with one query rather than one per post, and a rolled back change
+ * never reaches the index.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "blog.search", name = "backend", havingValue = "in-memory")
+public class InMemoryPostSearchRepository implements PostSearchRepository {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryPostSearchRepository.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final PostRepository postRepository;
+    private final PostEventBatcher changes = new PostEventBatcher("update the search index", this::apply);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held while changed posts are read and written to the index, so a slower update can't put back an older
+    // version of a post
+    private final Lock updateLock = new ReentrantLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private InvertedIndex index = new InvertedIndex();
+    // Posts changed while a rebuild reads the posts table, guarded by updateLock; null when no rebuild runs
+    private Set<Long> changedDuringRebuild;
+
+    InMemoryPostSearchRepository(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Override
+    public List<PostSearchHit> search(String query, SearchCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the index with one built from all posts in the database. Posts changed while the table is
+     * read are read again before the new index replaces the old one.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(
+            initialDelayString = "${blog.search.rebuild-interval:1h}",
+            fixedDelayString = "${blog.search.rebuild-interval:1h}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            startRecordingChanges();
+            InvertedIndex rebuilt = new InvertedIndex();
+            try {
+                long afterId = 0;
+                List<PostSearchDocument> batch;
+                do {
+                    batch = postRepository.findSearchDocuments(afterId, REBUILD_BATCH_SIZE);
+                    batch.forEach(rebuilt::put);
+                    if (!batch.isEmpty()) {
+                        afterId = batch.getLast().id();
+                    }
+                } while (batch.size() == REBUILD_BATCH_SIZE);
+            } catch (RuntimeException e) {
+                stopRecordingChanges();
+                throw e;
+            }
+
+            updateLock.lock();
+            try {
+                Set<Long> changed = stopRecordingChanges();
+                List<PostSearchDocument> documents = postRepository.findSearchDocumentsByIds(List.copyOf(changed));
+                changed.forEach(rebuilt::remove);
+                documents.forEach(rebuilt::put);
+                lock.writeLock().lock();
+                try {
+                    index = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                updateLock.unlock();
+            }
+            log.info(
+                    "Built search index with {} posts and {} terms (~{} KB) in {} ms",
+                    rebuilt.size(),
+                    rebuilt.termCount(),
+                    rebuilt.estimateMemoryBytes() / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener
+    void onPostEvent(PostEvent event) {
+        changes.add(event);
+    }
+
+    private void apply(List<PostEvent> events) {
+        // Latest change per post; a post created and then deleted in one transaction ends up DELETED
+        Map<Long, PostEvent.Type> changes = new LinkedHashMap<>();
+        events.forEach(event -> changes.put(event.postId(), event.type()));
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        changes.forEach((postId, type) -> (type == PostEvent.Type.DELETED ? deletedIds : changedIds).add(postId));
+
+        updateLock.lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(changes.keySet());
+            }
+            List<PostSearchDocument> documents = postRepository.findSearchDocumentsByIds(changedIds);
+            lock.writeLock().lock();
+            try {
+                deletedIds.forEach(index::remove);
+                documents.forEach(index::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void startRecordingChanges() {
+        updateLock.lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private Set<Long> stopRecordingChanges() {
+        updateLock.lock();
+        try {
+            Set<Long> changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+            return changed;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+}
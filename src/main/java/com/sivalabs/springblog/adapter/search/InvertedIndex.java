@@ -0,0 +1,254 @@
+package com.sivalabs.springblog.adapter.search;
+
+import com.sivalabs.springblog.domain.models.PostSearchDocument;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An inverted index over post title, short description and markdown.
+ * <p>
+ * Posts are numbered with dense int document ids in the order they are added, so every posting list is
+ * a pair of int arrays (document ids and weighted term frequencies) that is only ever appended to.
+ * Updating or removing a post marks its old document id as deleted; once deleted documents make up a
+ * quarter of the index the posting lists are rewritten without them.
+ * <p>
+ * A query matches posts containing all of its terms. Hits are scored by the sum of idf times the
+ * weighted frequency of each term, with title, description and body weighted like the A, B and C
+ * weights of Postgres' {@code ts_rank}.
+ * <p>
+ * Not thread-safe.
+ */
+final class InvertedIndex {
+    static final int TITLE_WEIGHT = 10;
+    static final int DESCRIPTION_WEIGHT = 4;
+    static final int CONTENT_WEIGHT = 2;
+
+    private static final int MIN_DELETED_TO_COMPACT = 64;
+    private static final Comparator<ScoredDoc> BY_RANK =
+            Comparator.comparingDouble(ScoredDoc::score).thenComparingLong(ScoredDoc::postId);
+
+    private TermDictionary terms = new TermDictionary();
+    private PostingList[] postings = new PostingList[1024];
+    private long[] postIds = new long[1024];
+    private BitSet deleted = new BitSet();
+    private final Map<Long, Integer> docIdsByPostId = new HashMap<>();
+    private int docCount;
+
+    /**
+     * Adds the post, replacing any previously indexed version of it.
+     */
+    void put(PostSearchDocument document) {
+        remove(document.id());
+        Map<String, int[]> frequencies = new HashMap<>();
+        SearchTokenizer.tokenize(document.title(), term -> addFrequency(frequencies, term, TITLE_WEIGHT));
+        SearchTokenizer.tokenize(
+                document.shortDescription(), term -> addFrequency(frequencies, term, DESCRIPTION_WEIGHT));
+        SearchTokenizer.tokenize(document.contentMarkdown(), term -> addFrequency(frequencies, term, CONTENT_WEIGHT));
+
+        int docId = docCount++;
+        if (docId == postIds.length) {
+            postIds = Arrays.copyOf(postIds, postIds.length * 2);
+        }
+        postIds[docId] = document.id();
+        docIdsByPostId.put(document.id(), docId);
+        frequencies.forEach((term, frequency) -> postingList(terms.add(term)).append(docId, frequency[0]));
+    }
+
+    boolean remove(Long postId) {
+        Integer docId = docIdsByPostId.remove(postId);
+        if (docId == null) {
+            return false;
+        }
+        deleted.set(docId);
+        int deletedCount = deleted.cardinality();
+        if (deletedCount >= MIN_DELETED_TO_COMPACT && deletedCount * 4 >= docCount) {
+            compact();
+        }
+        return true;
+    }
+
+    int size() {
+        return docIdsByPostId.size();
+    }
+
+    int termCount() {
+        return terms.size();
+    }
+
+    List<PostSearchHit> search(String query, SearchCursor after, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>();
+        SearchTokenizer.tokenize(query, queryTerms::add);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        PostingList[] lists = new PostingList[queryTerms.size()];
+        float[] idfs = new float[lists.length];
+        int i = 0;
+        for (String term : queryTerms) {
+            int termId = terms.find(term);
+            if (termId < 0 || postings[termId] == null || postings[termId].size == 0) {
+                return List.of();
+            }
+            lists[i++] = postings[termId];
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        for (int t = 0; t < lists.length; t++) {
+            idfs[t] = (float) Math.log(1.0 + (double) size() / lists[t].size);
+        }
+
+        PriorityQueue<ScoredDoc> top = new PriorityQueue<>(limit + 1, BY_RANK);
+        int[] positions = new int[lists.length];
+        PostingList shortest = lists[0];
+        candidates:
+        for (int p = 0; p < shortest.size; p++) {
+            int docId = shortest.docIds[p];
+            if (deleted.get(docId)) {
+                continue;
+            }
+            float score = idfs[0] * shortest.frequencies[p];
+            for (int t = 1; t < lists.length; t++) {
+                int position = lists[t].advance(positions[t], docId);
+                positions[t] = position;
+                if (position == lists[t].size) {
+                    break candidates;
+                }
+                if (lists[t].docIds[position] != docId) {
+                    continue candidates;
+                }
+                score += idfs[t] * lists[t].frequencies[position];
+            }
+            long postId = postIds[docId];
+            if (after != null && !isAfter(score, postId, after)) {
+                continue;
+            }
+            top.add(new ScoredDoc(score, postId));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<PostSearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ScoredDoc doc = top.poll();
+            hits.add(new PostSearchHit(doc.postId(), doc.score()));
+        }
+        return hits.reversed();
+    }
+
+    /**
+     * Approximate heap footprint of the index, including the per-post lookup map.
+     */
+    long estimateMemoryBytes() {
+        long bytes = terms.estimateMemoryBytes() + postings.length * 4L + postIds.length * 8L;
+        for (int termId = 0; termId < terms.size(); termId++) {
+            PostingList list = postings[termId];
+            if (list != null) {
+                bytes += 24L + 16L + list.docIds.length * 4L + 16L + list.frequencies.length * 4L;
+            }
+        }
+        // HashMap node, boxed key and value, and the table slot
+        bytes += docIdsByPostId.size() * 72L;
+        return bytes + deleted.size() / 8;
+    }
+
+    private static boolean isAfter(float score, long postId, SearchCursor cursor) {
+        return score < cursor.rank() || (score == cursor.rank() && postId < cursor.id());
+    }
+
+    private static void addFrequency(Map<String, int[]> frequencies, String term, int weight) {
+        frequencies.computeIfAbsent(term, key -> new int[1])[0] += weight;
+    }
+
+    private PostingList postingList(int termId) {
+        if (termId == postings.length) {
+            postings = Arrays.copyOf(postings, postings.length * 2);
+        }
+        PostingList list = postings[termId];
+        if (list == null) {
+            list = new PostingList();
+            postings[termId] = list;
+        }
+        return list;
+    }
+
+    private void compact() {
+        int[] newDocIds = new int[docCount];
+        long[] newPostIds = new long[Math.max(1024, Integer.highestOneBit(Math.max(1, size())) * 2)];
+        int live = 0;
+        for (int docId = 0; docId < docCount; docId++) {
+            if (!deleted.get(docId)) {
+                newDocIds[docId] = live;
+                newPostIds[live] = postIds[docId];
+                docIdsByPostId.put(postIds[docId], live);
+                live++;
+            }
+        }
+        TermDictionary newTerms = new TermDictionary();
+        PostingList[] newPostings = new PostingList[postings.length];
+        for (int termId = 0; termId < terms.size(); termId++) {
+            PostingList list = postings[termId];
+            PostingList compacted = new PostingList();
+            for (int p = 0; p < list.size; p++) {
+                if (!deleted.get(list.docIds[p])) {
+                    compacted.append(newDocIds[list.docIds[p]], list.frequencies[p]);
+                }
+            }
+            if (compacted.size > 0) {
+                newPostings[newTerms.add(terms.term(termId))] = compacted;
+            }
+        }
+        terms = newTerms;
+        postings = newPostings;
+        postIds = newPostIds;
+        deleted = new BitSet();
+        docCount = live;
+    }
+
+    private record ScoredDoc(float score, long postId) {}
+
+    static final class PostingList {
+        int[] docIds = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void append(int docId, int frequency) {
+            if (size == docIds.length) {
+                int capacity = size + (size >> 1);
+                docIds = Arrays.copyOf(docIds, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            docIds[size] = docId;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        /**
+         * Returns the first position at or after {@code from} whose document id is at least {@code docId},
+         * or {@code size} if there is none. Gallops ahead first, so skipping over long runs stays cheap.
+         */
+        int advance(int from, int docId) {
+            int bound = 1;
+            int low = from;
+            while (from + bound < size && docIds[from + bound] < docId) {
+                low = from + bound;
+                bound <<= 1;
+            }
+            int high = Math.min(from + bound, size - 1);
+            if (low >= size || docIds[high] < docId) {
+                return size;
+            }
+            int index = Arrays.binarySearch(docIds, low, high + 1, docId);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
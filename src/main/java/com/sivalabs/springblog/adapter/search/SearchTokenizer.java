@@ -0,0 +1,63 @@
+package com.sivalabs.springblog.adapter.search;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-cased terms on anything that is not a letter or digit, drops common English
+ * stop words and folds simple plurals ("threads" and "thread" are the same term), which is close
+ * enough to Postgres' english configuration for ranking blog posts.
+ */
+final class SearchTokenizer {
+    static final int MAX_TERM_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "if", "in", "into", "is", "it",
+            "its", "not", "of", "on", "or", "so", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "we", "will", "with", "you", "your");
+
+    private SearchTokenizer() {}
+
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean termChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                emit(text, start, i, terms);
+                start = -1;
+            }
+        }
+    }
+
+    private static void emit(String text, int start, int end, Consumer<String> terms) {
+        if (end - start < 2 || end - start > MAX_TERM_LENGTH) {
+            return;
+        }
+        String term = text.substring(start, end).toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(term)) {
+            terms.accept(stem(term));
+        }
+    }
+
+    static String stem(String term) {
+        int length = term.length();
+        if (length > 4 && term.endsWith("ies")) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (length > 3
+                && term.charAt(length - 1) == 's'
+                && !term.endsWith("ss")
+                && !term.endsWith("us")
+                && !term.endsWith("is")) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,121 @@
+package com.sivalabs.springblog.adapter.search;
+
+import java.util.Arrays;
+
+/**
+ * Maps terms to dense int ids. The characters of all terms are stored back to back in one char array
+ * and looked up through an open-addressing table of ids, so a term costs a few bytes of overhead
+ * instead of a String, a boxed Integer and a map entry.
+ */
+final class TermDictionary {
+    private static final int EMPTY = -1;
+
+    private char[] chars = new char[1024];
+    private int charCount;
+    private int[] offsets = new int[65];
+    private int[] hashes = new int[64];
+    private int[] slots;
+    private int size;
+
+    TermDictionary() {
+        slots = new int[128];
+        Arrays.fill(slots, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of the term, or -1 if it is not in the dictionary.
+     */
+    int find(String term) {
+        int hash = term.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id == EMPTY) {
+                return -1;
+            }
+            if (hashes[id] == hash && matches(id, term)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the term, adding it if needed. Ids are assigned in insertion order starting at 0.
+     */
+    int add(String term) {
+        int hash = term.hashCode();
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        for (int id = slots[slot]; id != EMPTY; slot = (slot + 1) & mask, id = slots[slot]) {
+            if (hashes[id] == hash && matches(id, term)) {
+                return id;
+            }
+        }
+        int id = size++;
+        ensureCapacity(term.length());
+        term.getChars(0, term.length(), chars, charCount);
+        offsets[id] = charCount;
+        charCount += term.length();
+        offsets[id + 1] = charCount;
+        hashes[id] = hash;
+        slots[slot] = id;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    String term(int id) {
+        return new String(chars, offsets[id], offsets[id + 1] - offsets[id]);
+    }
+
+    long estimateMemoryBytes() {
+        return 16L + chars.length * 2L + offsets.length * 4L + hashes.length * 4L + slots.length * 4L;
+    }
+
+    private boolean matches(int id, String term) {
+        int start = offsets[id];
+        int length = offsets[id + 1] - start;
+        if (length != term.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != term.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int termLength) {
+        if (charCount + termLength > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + termLength));
+        }
+        if (size > hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, hashes.length + 1);
+        }
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    // String.hashCode() clusters badly for short, similar terms; spread it before masking
+    private static int mix(int hash) {
+        return hash * 0x9E3779B9 ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,133 @@
+package com.sivalabs.springblog.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Lets at most as many callers hold a connection as the pool has connections. Further callers wait
+ * in line, first come first served, but no more than {@code maxQueued} of them and each for at most
+ * {@code maxWait}; everyone else is turned away at once with a {@link SQLTransientConnectionException}.
+ * <p>
+ * With virtual threads the number of request threads is no longer what limits concurrent database work,
+ * so without this a slow database would have every request queue up inside the pool for its full
+ * connection timeout.
+ */
+class AdmissionControlledDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final int maxQueued;
+    private final long maxWaitNanos;
+
+    AdmissionControlledDataSource(DataSource target, int maxConnections, int maxQueued, Duration maxWait) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int queuedCount() {
+        return queued.get();
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    long rejectedCount() {
+        return rejected.get();
+    }
+
+    private void admit() throws SQLException {
+        try {
+            // The timed variant honours the queue, unlike tryAcquire()
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Database busy: " + maxQueued + " callers are already waiting for a connection");
+            }
+            try {
+                if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    rejected.incrementAndGet();
+                    throw new SQLTransientConnectionException("Database busy: no connection became available within "
+                            + Duration.ofNanos(maxWaitNanos).toMillis() + " ms");
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                AdmissionControlledDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "close" -> {
+                            if (released.compareAndSet(false, true)) {
+                                try {
+                                    connection.close();
+                                } finally {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        }
+                        default -> {}
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
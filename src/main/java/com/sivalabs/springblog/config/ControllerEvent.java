@@ -0,0 +1,29 @@
+package com.sivalabs.springblog.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sivalabs.springblog.Controller")
+@Label("Controller Handling")
+@Description("A controller method handling a request, up to the view being rendered")
+@Category({"Spring Blog", "Web"})
+@StackTrace(false)
+final class ControllerEvent extends jdk.jfr.Event {
+    @Label("Handler")
+    String handler;
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,42 @@
+package com.sivalabs.springblog.config;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    /**
+     * Puts query tracking and admission control in front of the connection pool, the latter sized to
+     * the pool's maximum size.
+     */
+    @Bean
+    static BeanPostProcessor dataSourcePostProcessor(ObjectProvider<ApplicationProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                DataSource dataSource = pool;
+                ApplicationProperties.QueryTracking tracking =
+                        properties.getObject().queryTracking();
+                if (tracking.enabled()) {
+                    dataSource = new QueryTrackingDataSource(dataSource, tracking.slowQueryThreshold());
+                }
+                ApplicationProperties.DbAdmission admission =
+                        properties.getObject().dbAdmission();
+                if (admission.enabled()) {
+                    dataSource = new AdmissionControlledDataSource(
+                            dataSource, pool.getMaximumPoolSize(), admission.maxQueued(), admission.maxWait());
+                }
+                return dataSource;
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.sivalabs.springblog.config;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import java.io.IOException;
+import java.text.ParseException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * JFR events for the phases of a request, and the always-on recording they end up in. Repository
+ * and markdown events are emitted where those are already instrumented for metrics.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FlightRecorderConfig implements WebMvcConfigurer {
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "blog.flight-recorder",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    FlightRecordingEndpoint flightRecordingEndpoint(ApplicationProperties properties)
+            throws IOException, ParseException {
+        return new FlightRecordingEndpoint(properties);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestPhaseEventInterceptor());
+    }
+}
@@ -0,0 +1,92 @@
+package com.sivalabs.springblog.config;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Keeps a rolling flight recording while the application runs and dumps it on {@code GET /actuator/jfr}.
+ * The recording uses the JDK's {@code default} settings, which are meant for always-on use; the
+ * application's own events are enabled by default and only record when a recording is running.
+ */
+@Endpoint(id = "jfr")
+class FlightRecordingEndpoint implements SmartLifecycle {
+    private final Recording recording;
+
+    FlightRecordingEndpoint(ApplicationProperties properties) throws IOException, ParseException {
+        ApplicationProperties.FlightRecorder flightRecorder = properties.flightRecorder();
+        this.recording = new Recording(Configuration.getConfiguration("default"));
+        this.recording.setName("spring-blog");
+        this.recording.setToDisk(true);
+        this.recording.setMaxAge(flightRecorder.maxAge());
+        this.recording.setMaxSize(flightRecorder.maxSize().toBytes());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        Path file = Files.createTempFile("spring-blog-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new DumpResource(file));
+    }
+
+    @Override
+    public void start() {
+        recording.start();
+    }
+
+    @Override
+    public void stop() {
+        recording.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording.getState() == RecordingState.RUNNING;
+    }
+
+    @Override
+    public int getPhase() {
+        // Starts before and stops after the web server, so the recording covers every request
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * The dumped file, deleted once the response has been written.
+     */
+    private static final class DumpResource extends FileSystemResource {
+        DumpResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        @Override
+        public String getFilename() {
+            return "spring-blog.jfr";
+        }
+    }
+}
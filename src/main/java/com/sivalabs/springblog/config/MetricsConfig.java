@@ -0,0 +1,56 @@
+package com.sivalabs.springblog.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Application metrics on top of what Spring Boot instruments by itself (HTTP requests, the connection
+ * pool, JVM). Caches register their own statistics where they are built.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    MeterBinder databaseAdmissionMetrics(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(AdmissionControlledDataSource.class)) {
+            return registry -> {};
+        }
+        AdmissionControlledDataSource admission = dataSource.unwrap(AdmissionControlledDataSource.class);
+        return registry -> {
+            Gauge.builder("blog.db.admission.queued", admission, AdmissionControlledDataSource::queuedCount)
+                    .description("Callers waiting to be admitted to the database")
+                    .register(registry);
+            Gauge.builder("blog.db.admission.available", admission, AdmissionControlledDataSource::availablePermits)
+                    .description("Callers that can be admitted to the database without waiting")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "blog.db.admission.rejected", admission, AdmissionControlledDataSource::rejectedCount)
+                    .description("Callers turned away because the database was busy")
+                    .register(registry);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderMetricsInterceptor(meterRegistry));
+    }
+}
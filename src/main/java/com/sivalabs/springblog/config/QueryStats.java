@@ -0,0 +1,56 @@
+package com.sivalabs.springblog.config;
+
+import java.time.Duration;
+
+/**
+ * Statements executed and time spent executing them on the current thread while the stats are open.
+ * {@link QueryTrackingFilter} keeps one per HTTP request and leaves it in the {@link #ATTRIBUTE} request
+ * attribute; work handed off to other threads (queued comments, scheduled flushes) is not included.
+ */
+public final class QueryStats {
+    public static final String ATTRIBUTE = QueryStats.class.getName();
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats enclosing;
+    private int statements;
+    private long nanos;
+
+    private QueryStats(QueryStats enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    static QueryStats open() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    void close() {
+        if (enclosing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(enclosing);
+        }
+    }
+
+    static void record(long nanos) {
+        for (QueryStats stats = CURRENT.get(); stats != null; stats = stats.enclosing) {
+            stats.statements++;
+            stats.nanos += nanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements in " + time().toMillis() + " ms";
+    }
+}
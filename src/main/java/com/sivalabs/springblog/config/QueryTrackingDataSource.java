@@ -0,0 +1,116 @@
+package com.sivalabs.springblog.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement execution, adds it to the current {@link QueryStats} and logs the ones slower
+ * than the threshold. A batch counts as one execution.
+ * <p>
+ * Logged SQL never carries values: they are bound as parameters, and string literals written into
+ * the SQL text are masked as well.
+ */
+class QueryTrackingDataSource extends DelegatingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(QueryTrackingDataSource.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowQueryNanos;
+
+    QueryTrackingDataSource(DataSource target, Duration slowQueryThreshold) {
+        super(target);
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracking(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracking(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    static String redact(String sql) {
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return WHITESPACE.matcher(masked).replaceAll(" ").strip();
+    }
+
+    private Connection tracking(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(method, connection, args);
+            // createStatement, prepareStatement and prepareCall; the return type picks the interface
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return tracking(method.getReturnType(), statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Object tracking(Class<?> type, Statement statement, String preparedSql) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(method, statement, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(method, statement, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                QueryStats.record(nanos);
+                if (nanos > slowQueryNanos) {
+                    String sql = preparedSql != null
+                            ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String text ? text : "(batch)";
+                    log.warn(
+                            "Slow {} took {} ms: {}",
+                            method.getName().contains("Batch") ? "batch" : "statement",
+                            TimeUnit.NANOSECONDS.toMillis(nanos),
+                            redact(sql));
+                }
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                QueryTrackingDataSource.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return target.toString();
+                        }
+                        default -> {
+                            return handler.invoke(proxy, method, args);
+                        }
+                    }
+                }));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sivalabs.springblog.config;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the statements each request runs and the time they take, including those of the security
+ * filter chain. Recorded per handler mapping as {@code blog.http.queries} and {@code blog.http.query.time};
+ * requests running more statements than allowed are logged, as they usually point at an N+1 query.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class QueryTrackingFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryTrackingFilter.class);
+    static final String QUERIES = "blog.http.queries";
+    static final String QUERY_TIME = "blog.http.query.time";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean enabled;
+    private final int maxQueriesPerRequest;
+
+    QueryTrackingFilter(ObjectProvider<MeterRegistry> meterRegistry, ApplicationProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.queryTracking().enabled();
+        this.maxQueriesPerRequest = properties.queryTracking().maxQueriesPerRequest();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.open();
+        request.setAttribute(QueryStats.ATTRIBUTE, stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            stats.close();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        String uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern
+                : "UNKNOWN";
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            DistributionSummary.builder(QUERIES)
+                    .description("Statements run per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(stats.statements());
+            Timer.builder(QUERY_TIME)
+                    .description("Time spent running statements per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(stats.time());
+        }
+        if (stats.statements() > maxQueriesPerRequest) {
+            log.warn("{} {} ran {}", request.getMethod(), request.getRequestURI(), stats);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {} ran {}", request.getMethod(), request.getRequestURI(), stats);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sivalabs.springblog.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sivalabs.springblog.RepositoryCall")
+@Label("Repository Call")
+@Description("A repository method call and the statements it ran")
+@Category({"Spring Blog", "Database"})
+@StackTrace(false)
+final class RepositoryCallEvent extends jdk.jfr.Event {
+    @Label("SQL Id")
+    @Description("Repository class and method, which identify the SQL that ran")
+    String sqlId;
+
+    @Label("Rows")
+    @Description("Rows returned, -1 when the result is not a collection, page or optional")
+    int rows;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,124 @@
+package com.sivalabs.springblog.config;
+
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
+import com.sivalabs.springblog.domain.models.PagedResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Times every repository method and records how many rows it returned, tagged with the repository
+ * class and method name. Results that are not collections, maps, pages or optionals only get timed.
+ * Each call is also a {@link RepositoryCallEvent} for flight recordings.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+    static final String CALLS = "blog.repository.calls";
+    static final String ROWS = "blog.repository.rows";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Meters methodMeters = meters.computeIfAbsent(method, key -> Meters.of(meterRegistry.getObject(), invocation));
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            methodMeters.failures(meterRegistry.getObject()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commit(event, methodMeters, -1, e);
+            throw e;
+        }
+        methodMeters.calls().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        int rows = rowCount(result);
+        if (rows >= 0) {
+            methodMeters.rows().record(rows);
+        }
+        commit(event, methodMeters, rows, null);
+        return result;
+    }
+
+    private static void commit(RepositoryCallEvent event, Meters methodMeters, int rows, Throwable failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.sqlId = methodMeters.sqlId();
+            event.rows = rows;
+            event.exception = failure == null ? null : failure.getClass().getName();
+            event.commit();
+        }
+    }
+
+    static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof PagedResult<?> page) {
+            return page.data().size();
+        }
+        if (result instanceof CursorPagedResult<?> page) {
+            return page.data().size();
+        }
+        return -1;
+    }
+
+    private record Meters(String repository, String method, Timer calls, DistributionSummary rows) {
+        String sqlId() {
+            return repository + "." + method;
+        }
+
+        static Meters of(MeterRegistry registry, MethodInvocation invocation) {
+            String repository = AopUtils.getTargetClass(invocation.getThis()).getSimpleName();
+            String method = invocation.getMethod().getName();
+            return new Meters(
+                    repository,
+                    method,
+                    timer(registry, repository, method, "success"),
+                    DistributionSummary.builder(ROWS)
+                            .description("Rows returned by repository methods")
+                            .tag("repository", repository)
+                            .tag("method", method)
+                            .register(registry));
+        }
+
+        // Registered on first failure so that methods that never fail don't export an empty series
+        Timer failures(MeterRegistry registry) {
+            return timer(registry, repository, method, "error");
+        }
+
+        private static Timer timer(MeterRegistry registry, String repository, String method, String outcome) {
+            return Timer.builder(CALLS)
+                    .description("Repository method calls")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sivalabs.springblog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Adds {@link RepositoryMetricsInterceptor} to every {@link Repository @Repository} bean, the same way
+ * persistence exception translation is added to them.
+ */
+class RepositoryMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Repository.class, true),
+                new RepositoryMetricsInterceptor(meterRegistry));
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sivalabs.springblog.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Emits a {@link ControllerEvent} from {@code preHandle} to {@code postHandle} and a {@link ViewRenderEvent}
+ * from {@code postHandle} to {@code afterCompletion}, so a recording splits each request into the time
+ * spent in the controller and the time spent rendering its view.
+ */
+class RequestPhaseEventInterceptor implements HandlerInterceptor {
+    private static final String CONTROLLER_EVENT_ATTRIBUTE = RequestPhaseEventInterceptor.class.getName() + ".handle";
+    private static final String HANDLED_ATTRIBUTE = RequestPhaseEventInterceptor.class.getName() + ".handled";
+    private static final String VIEW_EVENT_ATTRIBUTE = RequestPhaseEventInterceptor.class.getName() + ".render";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        ControllerEvent event = new ControllerEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(CONTROLLER_EVENT_ATTRIBUTE, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(
+            HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (request.getAttribute(CONTROLLER_EVENT_ATTRIBUTE) instanceof ControllerEvent controllerEvent) {
+            controllerEvent.end();
+            request.setAttribute(HANDLED_ATTRIBUTE, Boolean.TRUE);
+        }
+        if (modelAndView == null) {
+            return;
+        }
+        String viewName = modelAndView.getViewName();
+        if (viewName == null || viewName.startsWith("redirect:") || viewName.startsWith("forward:")) {
+            return;
+        }
+        ViewRenderEvent event = new ViewRenderEvent();
+        if (event.isEnabled()) {
+            event.view = viewName;
+            event.begin();
+            request.setAttribute(VIEW_EVENT_ATTRIBUTE, event);
+        }
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        String exception = ex == null ? null : ex.getClass().getName();
+        if (request.getAttribute(VIEW_EVENT_ATTRIBUTE) instanceof ViewRenderEvent event) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = request.getRequestURI();
+                event.exception = exception;
+                event.commit();
+            }
+        }
+        if (request.getAttribute(CONTROLLER_EVENT_ATTRIBUTE) instanceof ControllerEvent event) {
+            // postHandle is skipped when the handler throws
+            if (request.getAttribute(HANDLED_ATTRIBUTE) == null) {
+                event.end();
+            }
+            if (event.shouldCommit()) {
+                HandlerMethod handlerMethod = (HandlerMethod) handler;
+                event.handler = handlerMethod.getBeanType().getSimpleName() + "."
+                        + handlerMethod.getMethod().getName();
+                event.method = request.getMethod();
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.exception = exception;
+                event.commit();
+            }
+        }
+    }
+}
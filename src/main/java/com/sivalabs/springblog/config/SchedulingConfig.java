@@ -0,0 +1,25 @@
+package com.sivalabs.springblog.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * With virtual threads enabled, Spring Boot's default scheduler runs every fixed-delay task on its one
+     * scheduler thread, so an hours-long rebuild of the related posts would hold up the view count flush and the
+     * trending snapshot. This scheduler runs up to {@code spring.task.scheduling.pool.size} tasks at a time,
+     * still on virtual threads.
+     */
+    @Bean
+    ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        ThreadPoolTaskScheduler scheduler = builder.build();
+        scheduler.setVirtualThreads(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sivalabs.springblog.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sivalabs.springblog.ViewRender")
+@Label("View Rendering")
+@Description("A Thymeleaf template rendered into the response")
+@Category({"Spring Blog", "Web"})
+@StackTrace(false)
+final class ViewRenderEvent extends jdk.jfr.Event {
+    @Label("View")
+    String view;
+
+    @Label("Path")
+    String path;
+
+    @Label("Exception")
+    String exception;
+}
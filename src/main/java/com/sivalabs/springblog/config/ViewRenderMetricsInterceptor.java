@@ -0,0 +1,54 @@
+package com.sivalabs.springblog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Times view rendering per view name: the view renders between {@code postHandle} and
+ * {@code afterCompletion}. Redirects and handlers that write the response themselves are not timed.
+ */
+class ViewRenderMetricsInterceptor implements HandlerInterceptor {
+    static final String RENDER = "blog.view.render";
+    private static final String VIEW_NAME_ATTRIBUTE = ViewRenderMetricsInterceptor.class.getName() + ".view";
+    private static final String START_ATTRIBUTE = ViewRenderMetricsInterceptor.class.getName() + ".start";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    ViewRenderMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(
+            HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null) {
+            return;
+        }
+        String viewName = modelAndView.getViewName();
+        if (viewName == null || viewName.startsWith("redirect:") || viewName.startsWith("forward:")) {
+            return;
+        }
+        request.setAttribute(VIEW_NAME_ATTRIBUTE, viewName);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        Timer.builder(RENDER)
+                .description("Time to render a view")
+                .tag("view", (String) request.getAttribute(VIEW_NAME_ATTRIBUTE))
+                .tag("outcome", ex == null ? "success" : "error")
+                .register(meterRegistry.getObject())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,11 +1,16 @@
 package com.sivalabs.springblog.config;
 
+import static org.springframework.security.config.Customizer.withDefaults;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -22,7 +27,6 @@ public class WebSecurityConfig {
         "/images/**",
         "/webjars/**",
         "/favicon.ico",
-        "/actuator/**",
         "/",
         "/error",
         "/login",
@@ -38,7 +42,26 @@ public class WebSecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Management endpoints are called by tools such as a Prometheus scraper, which cannot go through the login
+     * form, so they authenticate every request with HTTP Basic and never create a session.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/actuator/**");
+        http.authorizeHttpRequests(c -> c.requestMatchers("/actuator/health/**", "/actuator/info")
+                .permitAll()
+                .anyRequest()
+                .hasRole("ADMIN"));
+        http.httpBasic(withDefaults());
+        http.sessionManagement(c -> c.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        http.csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests(c -> c.requestMatchers(PUBLIC_RESOURCES)
                 .permitAll()
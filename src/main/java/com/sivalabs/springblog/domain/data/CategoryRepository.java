@@ -1,6 +1,7 @@
 package com.sivalabs.springblog.domain.data;
 
 import com.sivalabs.springblog.domain.models.Category;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,8 @@ public interface CategoryRepository {
 
     Category getOrCreateCategoryByName(String name);
 
+    List<Category> getOrCreateCategoriesByNames(Collection<String> names);
+
     void update(Category category);
 
     void deleteById(Long id);
@@ -1,19 +1,52 @@
 package com.sivalabs.springblog.domain.data;
 
 import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.CommentActivity;
+import com.sivalabs.springblog.domain.models.CommentCursor;
+import com.sivalabs.springblog.domain.models.CommentFilter;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CommentRepository {
 
-    List<Comment> findAll();
-
     Optional<Comment> findById(Long id);
 
-    List<Comment> findByPostId(Long postId);
+    /**
+     * Comments of a post in the order they were written, starting after the given cursor.
+     */
+    CursorPagedResult<Comment> findByPostId(Long postId, CommentCursor after, int pageSize);
+
+    /**
+     * Comments matching the filter, newest first.
+     */
+    CursorPagedResult<Comment> findComments(
+            CommentFilter filter, CommentCursor after, CommentCursor before, int pageSize);
+
+    /**
+     * Passes every comment matching the filter to the action, newest first, without holding them all in memory.
+     * Must run in a transaction, otherwise the Postgres driver reads the whole result before returning any row.
+     */
+    void streamComments(CommentFilter filter, Consumer<Comment> action);
+
+    Map<Long, Long> findPostIdsByCommentIds(List<Long> ids);
+
+    /**
+     * Number of comments per post and hour for comments created at or after {@code since}.
+     */
+    List<CommentActivity> findCommentActivity(LocalDateTime since);
 
     Comment create(Comment comment);
 
+    /**
+     * Inserts the comments with one statement, skipping those whose post no longer exists and those whose
+     * client id is stored already. Returns the post id of each created comment by comment id.
+     */
+    Map<Long, Long> createAll(List<Comment> comments);
+
     void deleteById(Long id);
 
     void deleteCommentsByIds(List<Long> ids);
@@ -0,0 +1,17 @@
+package com.sivalabs.springblog.domain.data;
+
+import com.sivalabs.springblog.domain.models.Counter;
+import java.util.List;
+
+public interface CounterRepository {
+
+    /**
+     * Returns the ids of the rows whose counter differs from the number of rows it counts.
+     */
+    List<Long> findDriftedIds(Counter counter);
+
+    /**
+     * Locks the given rows and recounts their counter, returning the number of rows that were corrected.
+     */
+    int recount(Counter counter, List<Long> ids);
+}
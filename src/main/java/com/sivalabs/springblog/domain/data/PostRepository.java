@@ -1,27 +1,79 @@
 package com.sivalabs.springblog.domain.data;
 
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
 import com.sivalabs.springblog.domain.models.PagedResult;
 import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostCursor;
+import com.sivalabs.springblog.domain.models.PostSearchDocument;
+import com.sivalabs.springblog.domain.models.PostSummary;
 import java.util.List;
 import java.util.Optional;
 
 public interface PostRepository {
 
-    PagedResult<Post> findAllPosts(int pageNo, int pageSize);
+    PagedResult<PostSummary> findAllPosts(int pageNo, int pageSize);
 
-    PagedResult<Post> findPostsByCategorySlug(String categorySlug, int pageNo, int pageSize);
+    PagedResult<PostSummary> findAllPosts(int pageNo, int pageSize, long totalElements);
 
-    PagedResult<Post> findPostsByTagSlug(String tagSlug, int pageNo, int pageSize);
+    PagedResult<PostSummary> findPostsByCategorySlug(String categorySlug, int pageNo, int pageSize);
+
+    PagedResult<PostSummary> findPostsByCategorySlug(String categorySlug, int pageNo, int pageSize, long totalElements);
+
+    PagedResult<PostSummary> findPostsByTagSlug(String tagSlug, int pageNo, int pageSize);
+
+    PagedResult<PostSummary> findPostsByTagSlug(String tagSlug, int pageNo, int pageSize, long totalElements);
+
+    CursorPagedResult<PostSummary> findAllPosts(PostCursor after, PostCursor before, int pageSize);
+
+    CursorPagedResult<PostSummary> findPostsByCategorySlug(
+            String categorySlug, PostCursor after, PostCursor before, int pageSize);
+
+    CursorPagedResult<PostSummary> findPostsByTagSlug(
+            String tagSlug, PostCursor after, PostCursor before, int pageSize);
 
     Optional<Post> findBySlug(String slug);
 
+    Optional<Long> findIdBySlug(String slug);
+
     Optional<Post> findById(Long id);
 
+    List<PostSummary> findPostSummariesByIds(List<Long> ids);
+
     Long findPostsCount();
 
+    /** The number of posts in the category, or empty if there is no category with that slug. */
+    Optional<Long> countPostsByCategorySlug(String categorySlug);
+
+    /** The number of posts with the tag, or empty if there is no tag with that slug. */
+    Optional<Long> countPostsByTagSlug(String tagSlug);
+
+    long estimatePostsCount();
+
     Long create(Post post);
 
     void update(Post post);
 
     void deletePostsByIds(List<Long> ids);
+
+    /**
+     * Inserts all posts and their tag associations with a constant number of statements.
+     * Posts whose title or slug already exists, in the database or earlier in the list, are skipped; returns the
+     * inserted posts with their ids set.
+     */
+    List<Post> createAll(List<Post> posts);
+
+    /**
+     * The latest change to any post or comment, with the total number of comments on all posts as the count.
+     */
+    ContentVersion findPostsActivity();
+
+    Optional<ContentVersion> findPostVersionBySlug(String slug);
+
+    List<PostSearchDocument> findSearchDocumentsByIds(List<Long> ids);
+
+    /**
+     * Returns up to {@code limit} search documents with an id greater than {@code afterId}, ordered by id.
+     */
+    List<PostSearchDocument> findSearchDocuments(long afterId, int limit);
 }
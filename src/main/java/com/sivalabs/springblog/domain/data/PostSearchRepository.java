@@ -0,0 +1,14 @@
+package com.sivalabs.springblog.domain.data;
+
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.List;
+
+public interface PostSearchRepository {
+
+    /**
+     * Returns up to {@code limit} posts matching the query, ordered by rank descending and then id descending,
+     * starting after the given cursor (or from the top if it is null).
+     */
+    List<PostSearchHit> search(String query, SearchCursor after, int limit);
+}
@@ -0,0 +1,22 @@
+package com.sivalabs.springblog.domain.data;
+
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.PopularPost;
+import java.util.List;
+import java.util.Map;
+
+public interface PostStatsRepository {
+
+    /**
+     * Adds the given number of views to each post. Posts that no longer exist are ignored.
+     */
+    void addViewCounts(Map<Long, Long> viewCountsByPostId);
+
+    List<PopularPost> findMostViewedPosts(int limit);
+
+    /**
+     * Changes whenever views are added, on any instance, which changes view counts and possibly the most
+     * viewed posts.
+     */
+    ContentVersion findViewsVersion();
+}
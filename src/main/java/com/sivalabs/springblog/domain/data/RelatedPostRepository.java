@@ -0,0 +1,30 @@
+package com.sivalabs.springblog.domain.data;
+
+import com.sivalabs.springblog.domain.models.PostSummary;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface RelatedPostRepository {
+
+    /**
+     * Returns the stored related posts of the post, most similar first.
+     */
+    List<PostSummary> findRelatedPosts(Long postId);
+
+    /**
+     * Recomputes and stores the related posts of the given posts. Returns the new related post ids by post id.
+     */
+    Map<Long, List<Long>> recompute(Collection<Long> postIds, int limit, double categoryBoost);
+
+    /**
+     * Returns the ids of the posts whose stored related posts include any of the given posts.
+     */
+    List<Long> findPostIdsRelatedTo(Collection<Long> postIds);
+
+    /**
+     * Returns up to {@code limit} ids of posts greater than {@code afterId}, ordered by id. With
+     * {@code missingOnly}, only posts whose related posts have not been computed yet.
+     */
+    List<Long> findPostIds(long afterId, int limit, boolean missingOnly);
+}
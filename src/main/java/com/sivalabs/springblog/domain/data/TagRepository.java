@@ -1,6 +1,7 @@
 package com.sivalabs.springblog.domain.data;
 
 import com.sivalabs.springblog.domain.models.Tag;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,6 +21,8 @@ public interface TagRepository {
 
     Tag getOrCreateTagByName(String name);
 
+    List<Tag> getOrCreateTagsByNames(Collection<String> names);
+
     void update(Tag tag);
 
     void deleteById(Long id);
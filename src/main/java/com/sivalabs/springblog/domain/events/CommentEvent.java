@@ -0,0 +1,20 @@
+package com.sivalabs.springblog.domain.events;
+
+/**
+ * Published by {@code PostService} whenever a comment is added to or removed from a post.
+ */
+public record CommentEvent(Type type, Long commentId, Long postId) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+
+    public static CommentEvent created(Long commentId, Long postId) {
+        return new CommentEvent(Type.CREATED, commentId, postId);
+    }
+
+    public static CommentEvent deleted(Long commentId, Long postId) {
+        return new CommentEvent(Type.DELETED, commentId, postId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.sivalabs.springblog.domain.events;
+
+import com.sivalabs.springblog.domain.models.PostSummary;
+
+/**
+ * Published by {@code PostService} whenever a post is created, updated or deleted.
+ * {@code before} is null for created posts and {@code after} is null for deleted posts.
+ */
+public record PostEvent(Type type, Long postId, PostSummary before, PostSummary after) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static PostEvent created(PostSummary post) {
+        return new PostEvent(Type.CREATED, post.getId(), null, post);
+    }
+
+    public static PostEvent updated(PostSummary before, PostSummary after) {
+        return new PostEvent(Type.UPDATED, after.getId(), before, after);
+    }
+
+    public static PostEvent deleted(PostSummary post) {
+        return new PostEvent(Type.DELETED, post.getId(), post, null);
+    }
+}
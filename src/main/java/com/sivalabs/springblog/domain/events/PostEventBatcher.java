@@ -0,0 +1,71 @@
+package com.sivalabs.springblog.domain.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the post events published during a transaction and hands them to a consumer in one batch once the
+ * transaction has committed, so a listener does its work once per transaction rather than once per post.
+ * Events published outside a transaction are handed over right away, and those of a rolled back transaction are
+ * dropped.
+ */
+public class PostEventBatcher {
+    private static final Logger log = LoggerFactory.getLogger(PostEventBatcher.class);
+
+    private final String action;
+    private final Consumer<List<PostEvent>> consumer;
+
+    /**
+     * @param action what the consumer does, such as "update the search index", for the log message if it fails
+     */
+    public PostEventBatcher(String action, Consumer<List<PostEvent>> consumer) {
+        this.action = action;
+        this.consumer = consumer;
+    }
+
+    public void add(PostEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            handOver(List.of(event));
+            return;
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        batch.events.add(event);
+    }
+
+    private void handOver(List<PostEvent> events) {
+        try {
+            consumer.accept(events);
+        } catch (RuntimeException e) {
+            // The change is committed; failing the request would not undo it. Consumers catch up on their own.
+            log.warn(
+                    "Could not {} after changes to posts {}",
+                    action,
+                    events.stream().map(PostEvent::postId).distinct().toList(),
+                    e);
+        }
+    }
+
+    private class Batch implements TransactionSynchronization {
+        private final List<PostEvent> events = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            handOver(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(PostEventBatcher.this);
+        }
+    }
+}
@@ -4,6 +4,7 @@ public class Category {
     private Long id;
     private String name;
     private String slug;
+    private int postsCount;
 
     public Category() {}
 
@@ -40,4 +41,12 @@ public class Category {
     public void setSlug(String slug) {
         this.slug = slug;
     }
+
+    public int getPostsCount() {
+        return postsCount;
+    }
+
+    public void setPostsCount(int postsCount) {
+        this.postsCount = postsCount;
+    }
 }
@@ -1,6 +1,7 @@
 package com.sivalabs.springblog.domain.models;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class Comment {
     private Long id;
@@ -8,6 +9,8 @@ public class Comment {
     private Long postId;
     private User createdBy;
     private LocalDateTime createdDate;
+    // Set when the comment is submitted; writing a comment whose client id is stored already does nothing
+    private UUID clientId;
 
     public Comment() {}
 
@@ -62,4 +65,12 @@ public class Comment {
     public void setCreatedDate(LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
+
+    public UUID getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(UUID clientId) {
+        this.clientId = clientId;
+    }
 }
@@ -0,0 +1,8 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * The number of comments added to a post within the hour starting at {@code hour}.
+ */
+public record CommentActivity(Long postId, LocalDateTime hour, long count) {}
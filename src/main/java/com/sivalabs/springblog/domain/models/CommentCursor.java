@@ -0,0 +1,24 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position of a comment in the {@code (created_date, id)} ordering used for keyset pagination.
+ * Encoded the same way as {@link PostCursor}.
+ */
+public record CommentCursor(LocalDateTime createdDate, Long id) {
+
+    public static CommentCursor of(Comment comment) {
+        PostCursor cursor = PostCursor.of(comment.getCreatedDate(), comment.getId());
+        return new CommentCursor(cursor.createdDate(), cursor.id());
+    }
+
+    public String encode() {
+        return new PostCursor(createdDate, id).encode();
+    }
+
+    public static CommentCursor decode(String value) {
+        PostCursor cursor = PostCursor.decode(value);
+        return cursor == null ? null : new CommentCursor(cursor.createdDate(), cursor.id());
+    }
+}
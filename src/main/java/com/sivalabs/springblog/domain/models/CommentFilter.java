@@ -0,0 +1,18 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.time.LocalDate;
+
+/**
+ * Narrows down the comments listed and exported in the admin pages. Every criterion is optional;
+ * {@code from} and {@code to} are inclusive days.
+ */
+public record CommentFilter(Long postId, String authorEmail, LocalDate from, LocalDate to) {
+
+    public CommentFilter {
+        authorEmail = authorEmail == null || authorEmail.isBlank() ? null : authorEmail.strip();
+    }
+
+    public static CommentFilter none() {
+        return new CommentFilter(null, null, null, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap change indicator for a set of rows: the latest create/update time and the number of rows.
+ * Any insert, update or delete changes at least one of the two. Versions derived from content alone have
+ * no modification time and change the count only.
+ */
+public record ContentVersion(LocalDateTime lastModified, long count) {}
@@ -0,0 +1,10 @@
+package com.sivalabs.springblog.domain.models;
+
+/**
+ * The denormalized counter columns that are maintained along with the rows they count.
+ */
+public enum Counter {
+    POST_COMMENTS,
+    TAG_POSTS,
+    CATEGORY_POSTS
+}
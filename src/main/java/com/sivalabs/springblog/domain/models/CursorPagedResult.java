@@ -0,0 +1,21 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPagedResult<T>(
+        List<T> data, String previousCursor, String nextCursor, boolean hasPrevious, boolean hasNext) {
+
+    public static <T> CursorPagedResult<T> empty() {
+        return new CursorPagedResult<>(List.of(), null, null, false, false);
+    }
+
+    public <R> CursorPagedResult<R> map(Function<T, R> converter) {
+        return new CursorPagedResult<>(
+                this.data.stream().map(converter).toList(),
+                this.previousCursor,
+                this.nextCursor,
+                this.hasPrevious,
+                this.hasNext);
+    }
+}
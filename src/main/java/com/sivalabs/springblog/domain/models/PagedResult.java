@@ -1,5 +1,7 @@
 package com.sivalabs.springblog.domain.models;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -28,8 +30,13 @@ public record PagedResult<T>(
     }
 
     public <R> PagedResult<R> map(Function<T, R> converter) {
+        // Every listing page is mapped, so this skips the stream pipeline and copies into a presized list
+        List<R> mapped = new ArrayList<>(this.data.size());
+        for (T item : this.data) {
+            mapped.add(converter.apply(item));
+        }
         return new PagedResult<>(
-                this.data.stream().map(converter).toList(),
+                Collections.unmodifiableList(mapped),
                 this.totalElements,
                 this.pageNumber,
                 this.totalPages,
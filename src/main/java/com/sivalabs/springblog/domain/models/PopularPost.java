@@ -0,0 +1,3 @@
+package com.sivalabs.springblog.domain.models;
+
+public record PopularPost(Long id, String title, String slug, long viewCount) {}
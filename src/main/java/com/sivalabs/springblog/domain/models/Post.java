@@ -15,6 +15,8 @@ public class Post {
     private PostStatus status;
     private User createdBy;
     private LocalDateTime createdDate;
+    private int commentsCount;
+    private long viewCount;
 
     public Post() {}
 
@@ -134,4 +136,20 @@ public class Post {
     public void setCreatedDate(LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
+
+    public int getCommentsCount() {
+        return commentsCount;
+    }
+
+    public void setCommentsCount(int commentsCount) {
+        this.commentsCount = commentsCount;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
 }
@@ -0,0 +1,45 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position of a post in the {@code (created_date, id)} ordering used for keyset pagination.
+ */
+public record PostCursor(LocalDateTime createdDate, Long id) {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public static PostCursor of(LocalDateTime createdDate, Long id) {
+        return new PostCursor(createdDate.truncatedTo(ChronoUnit.MICROS), id);
+    }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(EPOCH, createdDate);
+        String value = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Malformed or stale cursors fall back to the first page instead of failing the request
+    public static PostCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 0) {
+                return null;
+            }
+            long micros = Long.parseLong(decoded.substring(0, separator));
+            long id = Long.parseLong(decoded.substring(separator + 1));
+            LocalDateTime createdDate = LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+            return new PostCursor(createdDate, id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
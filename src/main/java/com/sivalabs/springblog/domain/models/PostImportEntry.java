@@ -0,0 +1,25 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A post to be imported. The markdown is read lazily by the import pipeline so that sources can be
+ * read in parallel and only one batch of documents is held in memory at a time.
+ * {@code createdDate} may be null, in which case the import time is used.
+ */
+public record PostImportEntry(
+        String title,
+        String slug,
+        String shortDescription,
+        String category,
+        Set<String> tags,
+        LocalDateTime createdDate,
+        MarkdownSource markdown) {
+
+    @FunctionalInterface
+    public interface MarkdownSource {
+        String read() throws IOException;
+    }
+}
@@ -0,0 +1,8 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a bulk import: {@code skipped} posts already existed, {@code failed} posts could not be read.
+ */
+public record PostImportResult(long total, long imported, long skipped, long failed, Duration elapsed) {}
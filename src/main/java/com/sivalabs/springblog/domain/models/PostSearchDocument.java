@@ -0,0 +1,6 @@
+package com.sivalabs.springblog.domain.models;
+
+/**
+ * The searchable text of a post.
+ */
+public record PostSearchDocument(Long id, String title, String shortDescription, String contentMarkdown) {}
@@ -0,0 +1,3 @@
+package com.sivalabs.springblog.domain.models;
+
+public record PostSearchHit(Long postId, float rank) {}
@@ -2,5 +2,20 @@ package com.sivalabs.springblog.domain.models;
 
 public enum PostStatus {
     DRAFT,
-    PUBLISHED
+    PUBLISHED;
+
+    private static final PostStatus[] VALUES = values();
+
+    /**
+     * Same as {@link #valueOf(String)}, but compares the name with each constant's instead of hashing it
+     * into a lookup table, which is cheaper for a couple of constants and runs for every mapped post row.
+     */
+    public static PostStatus fromName(String name) {
+        for (PostStatus status : VALUES) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        return valueOf(name);
+    }
 }
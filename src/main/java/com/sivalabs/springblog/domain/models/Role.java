@@ -2,5 +2,19 @@ package com.sivalabs.springblog.domain.models;
 
 public enum Role {
     ROLE_ADMIN,
-    ROLE_USER,
+    ROLE_USER;
+
+    private static final Role[] VALUES = values();
+
+    /**
+     * Same as {@link #valueOf(String)}, without hashing the name, like {@link PostStatus#fromName(String)}.
+     */
+    public static Role fromName(String name) {
+        for (Role role : VALUES) {
+            if (role.name().equals(name)) {
+                return role;
+            }
+        }
+        return valueOf(name);
+    }
 }
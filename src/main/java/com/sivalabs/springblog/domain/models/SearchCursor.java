@@ -0,0 +1,41 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked search result: the rank and id of the last hit on the previous page.
+ * Encoded as an opaque URL-safe token; the rank is carried as its exact float bits.
+ */
+public record SearchCursor(float rank, Long id) {
+
+    public static SearchCursor of(PostSearchHit hit) {
+        return new SearchCursor(hit.rank(), hit.postId());
+    }
+
+    public String encode() {
+        String raw = Integer.toHexString(Float.floatToIntBits(rank)) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing or malformed token, which means "start from the first page".
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                return null;
+            }
+            float rank = Float.intBitsToFloat(Integer.parseUnsignedInt(raw.substring(0, separator), 16));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new SearchCursor(rank, id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ public class Tag {
     private Long id;
     private String name;
     private String slug;
+    private int postsCount;
 
     public Tag() {}
 
@@ -40,4 +41,12 @@ public class Tag {
     public void setSlug(String slug) {
         this.slug = slug;
     }
+
+    public int getPostsCount() {
+        return postsCount;
+    }
+
+    public void setPostsCount(int postsCount) {
+        this.postsCount = postsCount;
+    }
 }
@@ -0,0 +1,3 @@
+package com.sivalabs.springblog.domain.models;
+
+public record TrendingPost(PostSummary post, double score) {}
@@ -0,0 +1,38 @@
+package com.sivalabs.springblog.domain.models;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The highest ranked posts, best first, as published at {@code publishedAt}. Scores are those at publishing; a
+ * snapshot stays current until the listed posts change. Immutable, so it can be shared between requests.
+ */
+public record TrendingSnapshot(List<TrendingPost> posts, Instant publishedAt) {
+
+    public TrendingSnapshot {
+        posts = List.copyOf(posts);
+    }
+
+    public static TrendingSnapshot empty() {
+        return new TrendingSnapshot(List.of(), Instant.EPOCH);
+    }
+
+    /**
+     * Derived from the posts shown, in order, for the validators of pages that show trending posts. It has no
+     * modification time, so instances that rank the same posts produce the same validators.
+     */
+    public ContentVersion version() {
+        long hash = 1;
+        for (TrendingPost post : posts) {
+            hash = 31 * hash + post.post().getId();
+            hash = 31 * hash + Objects.hashCode(post.post().getSlug());
+            hash = 31 * hash + Objects.hashCode(post.post().getTitle());
+        }
+        return new ContentVersion(null, hash);
+    }
+
+    public List<TrendingPost> top(int limit) {
+        return posts.size() <= limit ? posts : posts.subList(0, limit);
+    }
+}
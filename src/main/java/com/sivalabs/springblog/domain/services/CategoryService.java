@@ -2,6 +2,7 @@ package com.sivalabs.springblog.domain.services;
 
 import com.sivalabs.springblog.domain.data.CategoryRepository;
 import com.sivalabs.springblog.domain.models.Category;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,18 +10,31 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final TaxonomyCache taxonomyCache;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, TaxonomyCache taxonomyCache) {
         this.categoryRepository = categoryRepository;
+        this.taxonomyCache = taxonomyCache;
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional so that cache hits don't check out a pooled connection
     public List<Category> findAllCategories() {
-        return categoryRepository.findAll();
+        return taxonomyCache.getCategories(categoryRepository::findAll);
     }
 
     @Transactional
     public Category getOrCreateCategoryByName(String name) {
-        return categoryRepository.getOrCreateCategoryByName(name);
+        return getOrCreateCategoriesByNames(List.of(name)).getFirst();
+    }
+
+    @Transactional
+    public List<Category> getOrCreateCategoriesByNames(Collection<String> names) {
+        return taxonomyCache.resolveCategories(names, categoryRepository::getOrCreateCategoriesByNames);
+    }
+
+    @Transactional
+    public void deleteCategory(Long id) {
+        categoryRepository.deleteById(id);
+        taxonomyCache.categoryDeleted(id);
     }
 }
@@ -0,0 +1,337 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind queue for new comments. Requests only enqueue their comment; a single writer thread
+ * drains the queue and inserts whatever has accumulated with one statement per batch, so a burst of
+ * comments holds one connection instead of one per request.
+ * <ul>
+ *     <li>When the queue stays full for the offer timeout, the request writes its comment itself.
+ *     That slows the producers down to what the database can take.</li>
+ *     <li>A batch that cannot be written is retried one comment at a time. Comments the database rejects,
+ *     e.g. because their author was deleted, are moved to the dead-letter file; when the database cannot be
+ *     reached the remaining comments are appended to the spill file, which is replayed on startup and every
+ *     retry interval until it has been written.</li>
+ *     <li>Every comment gets a client id when it is submitted, so writing it again after a failure that
+ *     happened once it was committed does not create a duplicate.</li>
+ *     <li>Queued comments are written on shutdown, after the web server has stopped taking requests.
+ *     Comments still queued when the process is killed are lost.</li>
+ * </ul>
+ */
+@Component
+public class CommentWriteQueue implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteQueue.class);
+    private static final long POLL_INTERVAL_MILLIS = 200;
+
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.CommentQueue properties;
+    private final BlockingQueue<Comment> queue;
+    // Held while the spill file is appended to or replayed, so two replays never write the same comments and a
+    // rewrite after a partial replay never drops comments spilled meanwhile
+    private final Lock spillLock = new ReentrantLock();
+    private volatile boolean running;
+    private Thread writer;
+    private long nextReplayNanos;
+
+    CommentWriteQueue(
+            PostService postService,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.properties = properties.commentQueue();
+        this.queue = new ArrayBlockingQueue<>(this.properties.capacity());
+        Gauge.builder("blog.comments.queue.size", queue, BlockingQueue::size)
+                .description("Comments waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void submit(Comment comment) {
+        if (comment.getClientId() == null) {
+            comment.setClientId(UUID.randomUUID());
+        }
+        if (running) {
+            try {
+                if (queue.offer(comment, properties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                log.debug("Comment queue is full, writing comment on post {} directly", comment.getPostId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        postService.createComment(comment);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.enabled();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        nextReplayNanos = System.nanoTime();
+        writer = new Thread(this::drain, "comment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Requests that checked "running" just before it was cleared may still have added comments
+        flushQueue();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server, so comments submitted by requests still in flight are written
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Comment> batch = new ArrayList<>(properties.batchSize());
+        while (running) {
+            try {
+                Comment first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, properties.batchSize() - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                if (System.nanoTime() - nextReplayNanos >= 0) {
+                    nextReplayNanos =
+                            System.nanoTime() + properties.retryInterval().toNanos();
+                    replaySpilled();
+                }
+            } catch (RuntimeException e) {
+                log.error("Comment writer failed", e);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flushQueue();
+    }
+
+    private void flushQueue() {
+        List<Comment> batch = new ArrayList<>(properties.batchSize());
+        while (queue.drainTo(batch, properties.batchSize()) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Comment> batch) {
+        try {
+            postService.createComments(batch);
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} comments, writing them one by one", batch.size(), e);
+            List<Comment> remaining = writeOneByOne(batch);
+            if (!remaining.isEmpty()) {
+                log.warn("Keeping {} comments in {}", remaining.size(), properties.spillFile());
+                spill(remaining);
+            }
+        }
+    }
+
+    /**
+     * Writes the comments of a failed batch one at a time. Comments the database rejects are moved to the
+     * dead-letter file. Stops at the first other failure and returns the comments from there on.
+     */
+    private List<Comment> writeOneByOne(List<Comment> comments) {
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            try {
+                postService.createComments(List.of(comment));
+            } catch (DataIntegrityViolationException e) {
+                log.error(
+                        "Comment {} on post {} was rejected, moving it to {}",
+                        comment.getClientId(),
+                        comment.getPostId(),
+                        properties.deadLetterFile(),
+                        e);
+                append(properties.deadLetterFile(), List.of(comment));
+            } catch (RuntimeException e) {
+                log.warn("Could not write comment {}", comment.getClientId(), e);
+                return comments.subList(i, comments.size());
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Appends the comments to the spill file and forces them to disk.
+     */
+    void spill(List<Comment> comments) {
+        spillLock.lock();
+        try {
+            append(properties.spillFile(), comments);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    private void append(Path file, List<Comment> comments) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            StringBuilder lines = new StringBuilder();
+            for (Comment comment : comments) {
+                lines.append(objectMapper.writeValueAsString(PendingComment.of(comment)))
+                        .append('\n');
+            }
+            try (FileChannel channel = FileChannel.open(
+                    file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            log.error("Could not save {} comments to {}, they are lost", comments.size(), file, e);
+        }
+    }
+
+    /**
+     * Writes the comments of the spill file in batches, falling back to one by one for a batch that fails.
+     * Whatever cannot be written because the database is unavailable stays in the file.
+     */
+    void replaySpilled() {
+        spillLock.lock();
+        try {
+            replaySpillFile();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    private void replaySpillFile() {
+        Path spillFile = properties.spillFile();
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+        List<Comment> comments;
+        try {
+            comments = Files.readAllLines(spillFile, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .map(this::readPendingComment)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (IOException e) {
+            log.error("Could not read spilled comments from {}", spillFile, e);
+            return;
+        }
+        log.info("Writing {} spilled comments from {}", comments.size(), spillFile);
+        for (int from = 0; from < comments.size(); from += properties.batchSize()) {
+            List<Comment> batch = comments.subList(from, Math.min(from + properties.batchSize(), comments.size()));
+            try {
+                postService.createComments(batch);
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} spilled comments, writing them one by one", batch.size(), e);
+                List<Comment> remaining = writeOneByOne(batch);
+                if (!remaining.isEmpty()) {
+                    log.warn("Could not write spilled comments, retrying in {}", properties.retryInterval());
+                    List<Comment> unwritten = new ArrayList<>(remaining);
+                    unwritten.addAll(comments.subList(from + batch.size(), comments.size()));
+                    rewriteSpillFile(unwritten);
+                    return;
+                }
+            }
+        }
+        try {
+            Files.delete(spillFile);
+        } catch (IOException e) {
+            log.error("Could not delete {}, its comments will be skipped on the next replay", spillFile, e);
+        }
+    }
+
+    private void rewriteSpillFile(List<Comment> remaining) {
+        Path spillFile = properties.spillFile();
+        Path temp = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(temp);
+            List<String> lines = new ArrayList<>(remaining.size());
+            for (Comment comment : remaining) {
+                lines.add(objectMapper.writeValueAsString(PendingComment.of(comment)));
+            }
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error(
+                    "Could not rewrite {}, already written comments will be skipped on the next replay", spillFile, e);
+        }
+    }
+
+    // A line cut short by a crash while spilling is skipped rather than blocking the rest of the file
+    private Comment readPendingComment(String line) {
+        try {
+            return objectMapper.readValue(line, PendingComment.class).toComment();
+        } catch (IOException e) {
+            log.warn("Skipping unreadable spilled comment: {}", line, e);
+            return null;
+        }
+    }
+
+    record PendingComment(String content, Long postId, Long userId, LocalDateTime createdDate, UUID clientId) {
+        static PendingComment of(Comment comment) {
+            return new PendingComment(
+                    comment.getContent(),
+                    comment.getPostId(),
+                    comment.getCreatedBy().getId(),
+                    comment.getCreatedDate(),
+                    comment.getClientId());
+        }
+
+        // Lines spilled before comments had client ids get a new one
+        Comment toComment() {
+            Comment comment = new Comment(null, content, postId, new User(userId), createdDate);
+            comment.setClientId(clientId != null ? clientId : UUID.randomUUID());
+            return comment;
+        }
+    }
+}
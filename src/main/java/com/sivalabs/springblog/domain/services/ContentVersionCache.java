@@ -0,0 +1,86 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.events.CommentEvent;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the content versions read by the page validators for a short time, so answering a conditional GET
+ * does not query the database every time. Entries are dropped once a change to posts or comments commits on
+ * this instance, and the views version once this instance flushes view counts. Changes made by other instances
+ * are seen within {@code blog.content-versions.ttl}.
+ */
+@Component
+public class ContentVersionCache {
+    static final String POSTS = "posts";
+    static final String VIEWS = "views";
+    private static final String POST_PREFIX = "post:";
+    private static final int MAX_CACHED_VERSIONS = 10_000;
+
+    private final Cache<String, Optional<ContentVersion>> versions;
+    private final AtomicLong generation = new AtomicLong();
+
+    ContentVersionCache(ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_VERSIONS)
+                .expireAfterWrite(properties.contentVersions().ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "content-versions");
+    }
+
+    ContentVersion get(String key, Supplier<ContentVersion> loader) {
+        return getOrLoad(key, () -> Optional.of(loader.get())).orElseThrow();
+    }
+
+    Optional<ContentVersion> getPostVersion(String slug, Supplier<Optional<ContentVersion>> loader) {
+        return getOrLoad(POST_PREFIX + slug, loader);
+    }
+
+    void invalidate(String key) {
+        generation.incrementAndGet();
+        versions.invalidate(key);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        versions.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    void onPostEvent(PostEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener
+    void onCommentEvent(CommentEvent event) {
+        clear();
+    }
+
+    // A version loaded while a change committed may predate it, so it is only kept if nothing was dropped meanwhile
+    private Optional<ContentVersion> getOrLoad(String key, Supplier<Optional<ContentVersion>> loader) {
+        Optional<ContentVersion> cached = versions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generationBeforeLoad = generation.get();
+        Optional<ContentVersion> loaded = loader.get();
+        if (generation.get() == generationBeforeLoad) {
+            versions.put(key, loaded);
+            if (generation.get() != generationBeforeLoad) {
+                versions.invalidate(key);
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,32 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.domain.models.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+class CounterReconciler {
+    private static final Logger log = LoggerFactory.getLogger(CounterReconciler.class);
+
+    private final CounterService counterService;
+
+    CounterReconciler(CounterService counterService) {
+        this.counterService = counterService;
+    }
+
+    // Each counter is reconciled in its own transaction, so the rows locked for one are released before the next
+    @Scheduled(
+            initialDelayString = "${blog.counters.reconcile-interval:1h}",
+            fixedDelayString = "${blog.counters.reconcile-interval:1h}")
+    void reconcileAll() {
+        for (Counter counter : Counter.values()) {
+            try {
+                counterService.reconcile(counter);
+            } catch (RuntimeException e) {
+                log.error("Could not reconcile {} counters", counter, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.domain.data.CounterRepository;
+import com.sivalabs.springblog.domain.models.Counter;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Corrects the denormalized counters. They are maintained by the statements that change the counted
+ * rows, so any drift found here points at a write path that bypassed them, such as manual SQL.
+ */
+@Service
+public class CounterService {
+    private static final Logger log = LoggerFactory.getLogger(CounterService.class);
+
+    private final CounterRepository counterRepository;
+
+    CounterService(CounterRepository counterRepository) {
+        this.counterRepository = counterRepository;
+    }
+
+    /**
+     * Returns the number of counters that were corrected.
+     */
+    @Transactional
+    public int reconcile(Counter counter) {
+        List<Long> driftedIds = counterRepository.findDriftedIds(counter);
+        if (driftedIds.isEmpty()) {
+            return 0;
+        }
+        int corrected = counterRepository.recount(counter, driftedIds);
+        if (corrected > 0) {
+            log.warn("Corrected {} {} counters", corrected, counter);
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sivalabs.springblog.domain.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sivalabs.springblog.MarkdownRender")
+@Label("Markdown Rendering")
+@Description("Markdown that was not cached rendered to HTML")
+@Category({"Spring Blog", "Content"})
+@StackTrace(false)
+final class MarkdownRenderEvent extends jdk.jfr.Event {
+    @Label("Markdown Characters")
+    int markdownLength;
+
+    @Label("HTML Characters")
+    int htmlLength;
+}
@@ -0,0 +1,101 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sivalabs.springblog.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import org.commonmark.Extension;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Converts post markdown to HTML.
+ * <p>
+ * The commonmark extensions are taken from every {@link Extension} bean in the context, so enabling
+ * e.g. GFM tables only needs a dependency and a bean definition. Rendered HTML is cached by the
+ * SHA-256 of the markdown, which makes re-saving an unchanged post (or re-importing the same article)
+ * free; the cache is bounded by the size of the cached HTML.
+ */
+@Service
+public class MarkdownRenderer {
+    private final Parser parser;
+    private final HtmlRenderer renderer;
+    private final Cache<String, String> cache;
+    private final Timer renderTimer;
+
+    @Autowired
+    MarkdownRenderer(
+            ObjectProvider<Extension> extensions, ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this(
+                extensions.orderedStream().toList(),
+                properties.markdownCache().maxSize().toBytes(),
+                meterRegistry);
+    }
+
+    MarkdownRenderer(List<Extension> extensions, long maxCacheBytes, MeterRegistry meterRegistry) {
+        this.parser = Parser.builder().extensions(extensions).build();
+        this.renderer = HtmlRenderer.builder().extensions(extensions).build();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxCacheBytes)
+                .weigher((String key, String html) -> key.length() * 2 + html.length() * 2)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "markdown");
+        this.renderTimer = Timer.builder("blog.markdown.render")
+                .description("Time to render markdown that was not cached")
+                .register(meterRegistry);
+    }
+
+    public String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        return cache.get(contentHash(markdown), key -> renderUncached(markdown));
+    }
+
+    String renderUncached(String markdown) {
+        MarkdownRenderEvent event = new MarkdownRenderEvent();
+        event.begin();
+        String html = renderTimer.record(() -> renderer.render(parse(markdown)));
+        event.end();
+        if (event.shouldCommit()) {
+            event.markdownLength = markdown.length();
+            event.htmlLength = html.length();
+            event.commit();
+        }
+        return html;
+    }
+
+    Node parse(String markdown) {
+        return parser.parse(markdown);
+    }
+
+    String renderHtml(Node document) {
+        return renderer.render(document);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    static String contentHash(String markdown) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(markdown.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
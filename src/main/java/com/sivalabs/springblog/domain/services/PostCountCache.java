@@ -0,0 +1,125 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.data.PostRepository;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.Tag;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the total number of posts per listing (all posts, per category and per tag) in memory so that
+ * serving a page needs only the page query. Totals are adjusted in place once post changes are committed.
+ * <p>
+ * Only this instance's changes are seen, so every total is reloaded {@code blog.post-counts.ttl} after it was
+ * loaded, however often it was adjusted since. Slugs that don't name a category or tag are never cached.
+ */
+@Component
+public class PostCountCache {
+    private static final String ALL_POSTS = "all";
+
+    private final PostRepository postRepository;
+    private final ApplicationProperties.PostCounts properties;
+    private final Cache<String, Long> counts;
+    private final AtomicLong version = new AtomicLong();
+
+    PostCountCache(PostRepository postRepository, ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.properties = properties.postCounts();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(this.properties.maxEntries())
+                .expireAfter(Expiry.creating((String key, Long count) -> this.properties.ttl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "post-counts");
+    }
+
+    public long countAllPosts() {
+        return getOrLoad(ALL_POSTS, () -> Optional.of(loadAllPostsCount()));
+    }
+
+    public long countPostsByCategorySlug(String categorySlug) {
+        return getOrLoad(categoryKey(categorySlug), () -> postRepository.countPostsByCategorySlug(categorySlug));
+    }
+
+    public long countPostsByTagSlug(String tagSlug) {
+        return getOrLoad(tagKey(tagSlug), () -> postRepository.countPostsByTagSlug(tagSlug));
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    void onPostEvent(PostEvent event) {
+        version.incrementAndGet();
+        if (event.before() != null) {
+            keysOf(event.before()).forEach(key -> counts.asMap().computeIfPresent(key, (k, count) -> count - 1));
+        }
+        if (event.after() != null) {
+            keysOf(event.after()).forEach(key -> counts.asMap().computeIfPresent(key, (k, count) -> count + 1));
+        }
+    }
+
+    private long getOrLoad(String key, Supplier<Optional<Long>> loader) {
+        Long count = counts.getIfPresent(key);
+        if (count != null) {
+            return count;
+        }
+        // Only keep the loaded value if no post changed while it was being counted,
+        // otherwise a stale total would stick until it expires.
+        long versionBeforeLoad = version.get();
+        Optional<Long> loaded = loader.get();
+        if (loaded.isPresent() && version.get() == versionBeforeLoad) {
+            counts.asMap().putIfAbsent(key, loaded.get());
+            if (version.get() != versionBeforeLoad) {
+                counts.invalidate(key);
+            }
+        }
+        return loaded.orElse(0L);
+    }
+
+    private long loadAllPostsCount() {
+        if (properties.estimatesEnabled()) {
+            long estimate = postRepository.estimatePostsCount();
+            if (estimate >= properties.estimateThreshold()) {
+                return estimate;
+            }
+        }
+        return postRepository.findPostsCount();
+    }
+
+    private static List<String> keysOf(PostSummary post) {
+        List<String> keys = new ArrayList<>();
+        keys.add(ALL_POSTS);
+        if (post.getCategory() != null) {
+            keys.add(categoryKey(post.getCategory().getSlug()));
+        }
+        if (post.getTags() != null) {
+            for (Tag tag : post.getTags()) {
+                keys.add(tagKey(tag.getSlug()));
+            }
+        }
+        return keys;
+    }
+
+    private static String categoryKey(String slug) {
+        return "category:" + slug;
+    }
+
+    private static String tagKey(String slug) {
+        return "tag:" + slug;
+    }
+}
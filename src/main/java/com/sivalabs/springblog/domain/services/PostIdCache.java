@@ -0,0 +1,63 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Post ids by slug, so writes that only need the id of a post (such as adding a comment) do not load it.
+ * An entry is dropped once a change to its post is committed.
+ */
+@Component
+public class PostIdCache {
+    private static final int MAX_CACHED_SLUGS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final Cache<String, Long> idsBySlug = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_SLUGS)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+    private final AtomicLong version = new AtomicLong();
+
+    PostIdCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, idsBySlug, "post-ids");
+    }
+
+    Optional<Long> getIdBySlug(String slug, Function<String, Optional<Long>> loader) {
+        Long id = idsBySlug.getIfPresent(slug);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        long versionBeforeLoad = version.get();
+        Optional<Long> loaded = loader.apply(slug);
+        if (loaded.isPresent() && version.get() == versionBeforeLoad) {
+            idsBySlug.put(slug, loaded.get());
+            if (version.get() != versionBeforeLoad) {
+                idsBySlug.invalidate(slug);
+            }
+        }
+        return loaded;
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        idsBySlug.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    void onPostEvent(PostEvent event) {
+        if (event.before() != null) {
+            version.incrementAndGet();
+            idsBySlug.invalidate(event.before().getSlug());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.domain.models.PostImportResult;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of a running (or the last finished) bulk import.
+ */
+public class PostImportProgress {
+    private final long total;
+    private final long startedAt = System.nanoTime();
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long finishedAt = -1;
+
+    PostImportProgress(long total) {
+        this.total = total;
+    }
+
+    void rendered() {
+        rendered.incrementAndGet();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+    }
+
+    void persisted(int importedCount, int skippedCount) {
+        imported.addAndGet(importedCount);
+        skipped.addAndGet(skippedCount);
+    }
+
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getRendered() {
+        return rendered.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public boolean isFinished() {
+        return finishedAt >= 0;
+    }
+
+    public Duration getElapsed() {
+        long end = finishedAt >= 0 ? finishedAt : System.nanoTime();
+        return Duration.ofNanos(end - startedAt);
+    }
+
+    public double getPostsPerSecond() {
+        double seconds = getElapsed().toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : (getImported() + getSkipped()) / seconds;
+    }
+
+    PostImportResult toResult() {
+        return new PostImportResult(total, getImported(), getSkipped(), getFailed(), getElapsed());
+    }
+
+    @Override
+    public String toString() {
+        return "%d/%d posts processed (%d imported, %d skipped, %d failed) in %d ms, %.1f posts/s"
+                .formatted(
+                        getImported() + getSkipped() + getFailed(),
+                        total,
+                        getImported(),
+                        getSkipped(),
+                        getFailed(),
+                        getElapsed().toMillis(),
+                        getPostsPerSecond());
+    }
+}
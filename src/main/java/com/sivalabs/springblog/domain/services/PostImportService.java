@@ -0,0 +1,214 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.models.Category;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostImportEntry;
+import com.sivalabs.springblog.domain.models.PostImportResult;
+import com.sivalabs.springblog.domain.models.PostStatus;
+import com.sivalabs.springblog.domain.models.Tag;
+import com.sivalabs.springblog.domain.models.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports large numbers of posts:
+ * <ol>
+ *     <li>all tag and category names are resolved up front with one bulk call each,</li>
+ *     <li>markdown is read and rendered on a bounded pool, one batch ahead of the batch being written,</li>
+ *     <li>each batch is written in its own transaction with a constant number of statements.</li>
+ * </ol>
+ * Posts that already exist (same title or slug) are skipped, so an interrupted import can simply be re-run.
+ * A post whose markdown cannot be read is counted as failed and does not abort the import.
+ * <p>
+ * The progress of the running (or last) import is published as the {@code blog.post.import.posts} gauges,
+ * tagged by state, and the duration of each import as the {@code blog.post.import} timer.
+ */
+@Service
+public class PostImportService {
+    private static final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    private final PostService postService;
+    private final TagService tagService;
+    private final CategoryService categoryService;
+    private final MarkdownRenderer markdownRenderer;
+    private final int parallelism;
+    private final int batchSize;
+    private final Timer importTimer;
+    private volatile PostImportProgress progress;
+
+    PostImportService(
+            PostService postService,
+            TagService tagService,
+            CategoryService categoryService,
+            MarkdownRenderer markdownRenderer,
+            ApplicationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.postService = postService;
+        this.tagService = tagService;
+        this.categoryService = categoryService;
+        this.markdownRenderer = markdownRenderer;
+        int configured = properties.postImport().parallelism();
+        this.parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.batchSize = properties.postImport().batchSize();
+        this.importTimer = Timer.builder("blog.post.import")
+                .description("Time to run a bulk post import")
+                .register(meterRegistry);
+        registerProgressGauge(meterRegistry, "total", PostImportProgress::getTotal);
+        registerProgressGauge(meterRegistry, "rendered", PostImportProgress::getRendered);
+        registerProgressGauge(meterRegistry, "imported", PostImportProgress::getImported);
+        registerProgressGauge(meterRegistry, "skipped", PostImportProgress::getSkipped);
+        registerProgressGauge(meterRegistry, "failed", PostImportProgress::getFailed);
+    }
+
+    private void registerProgressGauge(
+            MeterRegistry meterRegistry, String state, ToLongFunction<PostImportProgress> count) {
+        Gauge.builder("blog.post.import.posts", this, service -> {
+                    PostImportProgress current = service.getProgress();
+                    return current == null ? 0 : count.applyAsLong(current);
+                })
+                .description("Posts of the running or last bulk import")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the progress of the running import, or of the last one if none is running.
+     */
+    public PostImportProgress getProgress() {
+        return progress;
+    }
+
+    public PostImportResult importPosts(List<PostImportEntry> entries, User author) {
+        return importTimer.record(() -> runImport(entries, author));
+    }
+
+    private PostImportResult runImport(List<PostImportEntry> entries, User author) {
+        PostImportProgress progress = new PostImportProgress(entries.size());
+        this.progress = progress;
+        log.info("Importing {} posts in batches of {} using {} threads", entries.size(), batchSize, parallelism);
+
+        Map<String, Tag> tagsBySlug = tagService
+                .getOrCreateTagsByNames(entries.stream()
+                        .flatMap(entry -> entry.tags().stream())
+                        .filter(PostImportService::hasText)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Tag::getSlug, Function.identity()));
+        Map<String, Category> categoriesBySlug = categoryService
+                .getOrCreateCategoriesByNames(entries.stream()
+                        .map(PostImportEntry::category)
+                        .filter(PostImportService::hasText)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Category::getSlug, Function.identity()));
+
+        ExecutorService executor = newRenderExecutor();
+        try {
+            List<Future<Post>> pending = List.of();
+            for (int from = 0; from < entries.size() || !pending.isEmpty(); from += batchSize) {
+                List<Future<Post>> current = pending;
+                pending = new ArrayList<>();
+                for (PostImportEntry entry :
+                        entries.subList(Math.min(from, entries.size()), Math.min(from + batchSize, entries.size()))) {
+                    pending.add(executor.submit(() -> {
+                        Post post = toPost(entry, author, tagsBySlug, categoriesBySlug);
+                        progress.rendered();
+                        return post;
+                    }));
+                }
+                persist(current, progress);
+            }
+        } finally {
+            executor.shutdownNow();
+            progress.finish();
+        }
+        log.info("Import finished: {}", progress);
+        return progress.toResult();
+    }
+
+    private void persist(List<Future<Post>> batch, PostImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Post> posts = new ArrayList<>(batch.size());
+        for (Future<Post> future : batch) {
+            try {
+                posts.add(future.get());
+            } catch (ExecutionException e) {
+                progress.failed();
+                log.warn("Skipping post: {}", e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Post import interrupted", e);
+            }
+        }
+        List<Post> created = postService.createPosts(posts);
+        progress.persisted(created.size(), posts.size() - created.size());
+        log.info("Import progress: {}", progress);
+    }
+
+    private Post toPost(
+            PostImportEntry entry, User author, Map<String, Tag> tagsBySlug, Map<String, Category> categoriesBySlug)
+            throws Exception {
+        String markdown = entry.markdown().read();
+        // Imported HTML goes straight to the database, so caching it would only evict hot entries
+        String html = markdownRenderer.renderUncached(markdown);
+        Set<Tag> tags = entry.tags().stream()
+                .filter(PostImportService::hasText)
+                .map(name -> tagsBySlug.get(StringUtils.toSlug(name)))
+                .collect(Collectors.toSet());
+        Category category = categoriesBySlug.get(StringUtils.toSlug(entry.category()));
+        if (category == null) {
+            throw new IllegalArgumentException("Post '" + entry.slug() + "' has no category");
+        }
+        return new Post(
+                null,
+                entry.title(),
+                entry.slug(),
+                entry.shortDescription(),
+                markdown,
+                html,
+                category,
+                tags,
+                PostStatus.PUBLISHED,
+                author,
+                entry.createdDate());
+    }
+
+    private static boolean hasText(String name) {
+        return name != null && !name.isBlank();
+    }
+
+    // Bounded queue for two batches (the one being rendered and the one ahead); beyond that the caller renders
+    private ExecutorService newRenderExecutor() {
+        var executor = new ThreadPoolExecutor(
+                parallelism,
+                parallelism,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * batchSize),
+                new CustomizableThreadFactory("post-import-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.prestartAllCoreThreads();
+        return executor;
+    }
+}
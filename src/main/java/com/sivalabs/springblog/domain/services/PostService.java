@@ -3,14 +3,25 @@ package com.sivalabs.springblog.domain.services;
 import com.sivalabs.springblog.domain.data.CommentRepository;
 import com.sivalabs.springblog.domain.data.PostRepository;
 import com.sivalabs.springblog.domain.data.TagRepository;
+import com.sivalabs.springblog.domain.events.CommentEvent;
+import com.sivalabs.springblog.domain.events.PostEvent;
 import com.sivalabs.springblog.domain.exceptions.ResourceNotFoundException;
 import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.CommentCursor;
+import com.sivalabs.springblog.domain.models.CommentFilter;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
 import com.sivalabs.springblog.domain.models.PagedResult;
 import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostCursor;
+import com.sivalabs.springblog.domain.models.PostSummary;
 import com.sivalabs.springblog.domain.models.Tag;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,39 +30,94 @@ public class PostService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final TagRepository tagRepository;
+    private final PostCountCache postCountCache;
+    private final PostIdCache postIdCache;
+    private final ContentVersionCache contentVersionCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PostService(
-            PostRepository postRepository, CommentRepository commentRepository, TagRepository tagRepository) {
+            PostRepository postRepository,
+            CommentRepository commentRepository,
+            TagRepository tagRepository,
+            PostCountCache postCountCache,
+            PostIdCache postIdCache,
+            ContentVersionCache contentVersionCache,
+            ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.tagRepository = tagRepository;
+        this.postCountCache = postCountCache;
+        this.postIdCache = postIdCache;
+        this.contentVersionCache = contentVersionCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
-    public PagedResult<Post> getPosts(int pageNo, int pageSize) {
-        PagedResult<Post> pagedResult = postRepository.findAllPosts(pageNo, pageSize);
+    public PagedResult<PostSummary> getPosts(int pageNo, int pageSize) {
+        long totalElements = postCountCache.countAllPosts();
+        PagedResult<PostSummary> pagedResult = postRepository.findAllPosts(pageNo, pageSize, totalElements);
         return loadPostTags(pagedResult);
     }
 
     @Transactional(readOnly = true)
-    public PagedResult<Post> getPostsByCategorySlug(String categorySlug, int pageNo, int pageSize) {
-        PagedResult<Post> pagedResult = postRepository.findPostsByCategorySlug(categorySlug, pageNo, pageSize);
+    public PagedResult<PostSummary> getPostsByCategorySlug(String categorySlug, int pageNo, int pageSize) {
+        long totalElements = postCountCache.countPostsByCategorySlug(categorySlug);
+        PagedResult<PostSummary> pagedResult =
+                postRepository.findPostsByCategorySlug(categorySlug, pageNo, pageSize, totalElements);
         return loadPostTags(pagedResult);
     }
 
     @Transactional(readOnly = true)
-    public PagedResult<Post> getPostsByTagSlug(String tagSlug, int pageNo, int pageSize) {
-        PagedResult<Post> pagedResult = postRepository.findPostsByTagSlug(tagSlug, pageNo, pageSize);
+    public PagedResult<PostSummary> getPostsByTagSlug(String tagSlug, int pageNo, int pageSize) {
+        long totalElements = postCountCache.countPostsByTagSlug(tagSlug);
+        PagedResult<PostSummary> pagedResult =
+                postRepository.findPostsByTagSlug(tagSlug, pageNo, pageSize, totalElements);
         return loadPostTags(pagedResult);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPagedResult<PostSummary> getPosts(PostCursor after, PostCursor before, int pageSize) {
+        CursorPagedResult<PostSummary> result = postRepository.findAllPosts(after, before, pageSize);
+        return loadPostTags(result);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPagedResult<PostSummary> getPostsByCategorySlug(
+            String categorySlug, PostCursor after, PostCursor before, int pageSize) {
+        CursorPagedResult<PostSummary> result =
+                postRepository.findPostsByCategorySlug(categorySlug, after, before, pageSize);
+        return loadPostTags(result);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPagedResult<PostSummary> getPostsByTagSlug(
+            String tagSlug, PostCursor after, PostCursor before, int pageSize) {
+        CursorPagedResult<PostSummary> result = postRepository.findPostsByTagSlug(tagSlug, after, before, pageSize);
+        return loadPostTags(result);
+    }
+
+    // Not transactional so that cache hits don't check out a pooled connection
+    public ContentVersion getPostsVersion() {
+        return contentVersionCache.get(ContentVersionCache.POSTS, () -> {
+            // Listings show comment counts, so comments are part of the version. Adding a post and any change to
+            // comments move the latest change forward, so summing the post count and comments version still
+            // catches every delete.
+            ContentVersion activity = postRepository.findPostsActivity();
+            return new ContentVersion(activity.lastModified(), postCountCache.countAllPosts() + activity.count());
+        });
+    }
+
+    public Optional<ContentVersion> getPostVersion(String slug) {
+        return contentVersionCache.getPostVersion(slug, () -> postRepository.findPostVersionBySlug(slug));
+    }
+
     @Transactional(readOnly = true)
     public Long getPostsCount() {
         return postRepository.findPostsCount();
     }
 
-    private PagedResult<Post> loadPostTags(PagedResult<Post> pagedResult) {
-        List<Long> postIds = pagedResult.data().stream().map(Post::getId).toList();
+    private PagedResult<PostSummary> loadPostTags(PagedResult<PostSummary> pagedResult) {
+        List<Long> postIds = pagedResult.data().stream().map(PostSummary::getId).toList();
         Map<Long, Set<Tag>> tagsByPostIds = this.getTagsByPostIds(postIds);
         return pagedResult.map(post -> {
             post.setTags(tagsByPostIds.getOrDefault(post.getId(), Set.of()));
@@ -59,6 +125,22 @@ public class PostService {
         });
     }
 
+    private CursorPagedResult<PostSummary> loadPostTags(CursorPagedResult<PostSummary> result) {
+        List<Long> postIds = result.data().stream().map(PostSummary::getId).toList();
+        Map<Long, Set<Tag>> tagsByPostIds = this.getTagsByPostIds(postIds);
+        return result.map(post -> {
+            post.setTags(tagsByPostIds.getOrDefault(post.getId(), Set.of()));
+            return post;
+        });
+    }
+
+    // Not transactional: a cache hit should not take a connection from the pool
+    public Long getPostIdBySlug(String slug) {
+        return postIdCache
+                .getIdBySlug(slug, postRepository::findIdBySlug)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with slug: " + slug));
+    }
+
     @Transactional(readOnly = true)
     public Post getPostBySlug(String slug) {
         var post = postRepository
@@ -86,41 +168,97 @@ public class PostService {
         return tagRepository.findTagsByPostIds(postIds);
     }
 
+    /**
+     * Returns the summaries of the given posts with their tags, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummary> getPostSummariesByIds(List<Long> ids) {
+        List<PostSummary> posts = postRepository.findPostSummariesByIds(ids);
+        Map<Long, Set<Tag>> tagsByPostIds = this.getTagsByPostIds(ids);
+        posts.forEach(post -> post.setTags(tagsByPostIds.getOrDefault(post.getId(), Set.of())));
+        return posts;
+    }
+
     @Transactional
     public void createPost(Post post) {
         postRepository.create(post);
+        getPostSummariesByIds(List.of(post.getId()))
+                .forEach(created -> eventPublisher.publishEvent(PostEvent.created(created)));
+    }
+
+    /**
+     * Creates the given posts in one transaction using batched statements, skipping posts whose
+     * title or slug already exists. Returns the posts that were created.
+     */
+    @Transactional
+    public List<Post> createPosts(List<Post> posts) {
+        List<Post> created = postRepository.createAll(posts);
+        if (!created.isEmpty()) {
+            getPostSummariesByIds(created.stream().map(Post::getId).toList())
+                    .forEach(summary -> eventPublisher.publishEvent(PostEvent.created(summary)));
+        }
+        return created;
     }
 
     @Transactional
     public void updatePost(Post post) {
+        List<PostSummary> before = getPostSummariesByIds(List.of(post.getId()));
         postRepository.update(post);
+        List<PostSummary> after = getPostSummariesByIds(List.of(post.getId()));
+        if (!before.isEmpty() && !after.isEmpty()) {
+            eventPublisher.publishEvent(PostEvent.updated(before.getFirst(), after.getFirst()));
+        }
     }
 
     @Transactional
     public void deletePostsByIds(List<Long> ids) {
         if (ids != null && !ids.isEmpty()) {
+            List<PostSummary> deleted = getPostSummariesByIds(ids);
             commentRepository.deleteCommentsByPostIds(ids);
             postRepository.deletePostsByIds(ids);
+            deleted.forEach(post -> eventPublisher.publishEvent(PostEvent.deleted(post)));
         }
     }
 
     @Transactional(readOnly = true)
-    public List<Comment> findAllComments() {
-        return commentRepository.findAll();
+    public CursorPagedResult<Comment> findComments(
+            CommentFilter filter, CommentCursor after, CommentCursor before, int pageSize) {
+        return commentRepository.findComments(filter, after, before, pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<Comment> findCommentsByPostId(Long postId) {
-        return commentRepository.findByPostId(postId);
+    public CursorPagedResult<Comment> findCommentsByPostId(Long postId, CommentCursor after, int pageSize) {
+        return commentRepository.findByPostId(postId, after, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportComments(CommentFilter filter, Consumer<Comment> action) {
+        commentRepository.streamComments(filter, action);
     }
 
     @Transactional
     public void deleteCommentsByIds(List<Long> commentIds) {
+        Map<Long, Long> postIdsByCommentIds = commentRepository.findPostIdsByCommentIds(commentIds);
         commentRepository.deleteCommentsByIds(commentIds);
+        postIdsByCommentIds.forEach(
+                (commentId, postId) -> eventPublisher.publishEvent(CommentEvent.deleted(commentId, postId)));
+    }
+
+    /**
+     * Creates the comments in one statement. Comments on posts that were deleted in the meantime are dropped.
+     */
+    @Transactional
+    public int createComments(List<Comment> comments) {
+        Map<Long, Long> postIdsByCommentIds = commentRepository.createAll(comments);
+        postIdsByCommentIds.forEach(
+                (commentId, postId) -> eventPublisher.publishEvent(CommentEvent.created(commentId, postId)));
+        return postIdsByCommentIds.size();
     }
 
     @Transactional
     public Comment createComment(Comment comment) {
-        return commentRepository.create(comment);
+        Comment created = commentRepository.create(comment);
+        eventPublisher.publishEvent(CommentEvent.created(created.getId(), created.getPostId()));
+        return created;
     }
 }
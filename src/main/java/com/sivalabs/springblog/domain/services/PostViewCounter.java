@@ -0,0 +1,161 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.data.PostStatsRepository;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.PopularPost;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts post views in memory and adds them to {@code post_stats} with one statement per flush interval,
+ * so a page view never writes to the database.
+ * <ul>
+ *     <li>Views from crawlers, link previews and command line clients are not counted.</li>
+ *     <li>Counts that cannot be written are kept for the next flush.</li>
+ *     <li>Counts are flushed on shutdown, after the web server has stopped taking requests.
+ *     Counts not yet flushed when the process is killed are lost.</li>
+ * </ul>
+ */
+@Component
+public class PostViewCounter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PostViewCounter.class);
+    private static final Pattern BOT_USER_AGENT = Pattern.compile(
+            "bot|crawl|spider|slurp|archiver|facebookexternalhit|embedly|preview|monitor|headless"
+                    + "|curl|wget|httpclient|python-requests|go-http-client|okhttp|^java/",
+            Pattern.CASE_INSENSITIVE);
+
+    private final PostStatsRepository postStatsRepository;
+    private final TrendingRanker trendingRanker;
+    private final ContentVersionCache contentVersionCache;
+    private final ApplicationProperties.PostViews properties;
+    private final ViewCountAccumulator accumulator;
+    private final Lock flushLock = new ReentrantLock();
+    private volatile boolean running;
+    private volatile PopularPosts popularPosts;
+
+    PostViewCounter(
+            PostStatsRepository postStatsRepository,
+            TrendingRanker trendingRanker,
+            ContentVersionCache contentVersionCache,
+            ApplicationProperties properties) {
+        this.postStatsRepository = postStatsRepository;
+        this.trendingRanker = trendingRanker;
+        this.contentVersionCache = contentVersionCache;
+        this.properties = properties.postViews();
+        this.accumulator = new ViewCountAccumulator(
+                Math.min(64, Runtime.getRuntime().availableProcessors() * 2), this.properties.maxPendingPosts());
+    }
+
+    public void recordView(Long postId, String userAgent) {
+        if (running && postId != null && !isBot(userAgent)) {
+            accumulator.increment(postId);
+        }
+    }
+
+    /**
+     * Returns the most viewed posts as of the last flush of any instance, reloading them when the views version
+     * has moved on.
+     */
+    public List<PopularPost> getPopularPosts() {
+        ContentVersion version = getVersion();
+        PopularPosts cached = popularPosts;
+        if (cached == null || !cached.version().equals(version)) {
+            cached = new PopularPosts(version, postStatsRepository.findMostViewedPosts(properties.popularPostsCount()));
+            popularPosts = cached;
+        }
+        return cached.posts();
+    }
+
+    /**
+     * Changes whenever a flush of any instance writes views, which changes view counts and possibly the most
+     * viewed posts. Pages that show either must include it in their validators.
+     */
+    public ContentVersion getVersion() {
+        return contentVersionCache.get(ContentVersionCache.VIEWS, postStatsRepository::findViewsVersion);
+    }
+
+    static boolean isBot(String userAgent) {
+        return userAgent == null
+                || userAgent.isBlank()
+                || BOT_USER_AGENT.matcher(userAgent).find();
+    }
+
+    @Scheduled(
+            initialDelayString = "${blog.post-views.flush-interval:10s}",
+            fixedDelayString = "${blog.post-views.flush-interval:10s}")
+    void scheduledFlush() {
+        if (running) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the views recorded since the last flush.
+     */
+    void flush() {
+        // A lock rather than synchronized, so a virtual thread waiting on the database does not pin its carrier
+        flushLock.lock();
+        try {
+            long dropped = accumulator.drainDropped();
+            if (dropped > 0) {
+                log.warn(
+                        "Dropped {} post views, more than {} posts were viewed since the last flush",
+                        dropped,
+                        properties.maxPendingPosts());
+            }
+            Map<Long, Long> counts = accumulator.drain();
+            if (counts.isEmpty()) {
+                return;
+            }
+            try {
+                postStatsRepository.addViewCounts(counts);
+            } catch (RuntimeException e) {
+                log.warn("Could not write view counts of {} posts, retrying with the next flush", counts.size(), e);
+                accumulator.addAll(counts);
+                return;
+            }
+            contentVersionCache.invalidate(ContentVersionCache.VIEWS);
+            trendingRanker.recordViews(counts);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.enabled();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server, so views of requests still in flight are flushed
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record PopularPosts(ContentVersion version, List<PopularPost> posts) {}
+}
@@ -0,0 +1,200 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.data.RelatedPostRepository;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import com.sivalabs.springblog.domain.events.PostEventBatcher;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.Tag;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serves the related posts of each post from the {@code post_related} table and keeps it up to date.
+ * <p>
+ * Once a transaction that creates or deletes posts, or changes their tags or category, has committed, the
+ * related posts of those posts are recomputed, followed by their neighbours: the posts that listed a changed
+ * post and the posts a changed post now lists. Posts further away may miss a better match until the periodic
+ * rebuild, which also catches up with tag weights that shift as tags are used.
+ * <p>
+ * Refreshes run in the background, one at a time, so the request that made the change neither waits for them
+ * nor holds a second connection. Changes committed while a refresh runs are refreshed together by the next one.
+ */
+@Service
+public class RelatedPostService {
+    private static final Logger log = LoggerFactory.getLogger(RelatedPostService.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final RelatedPostRepository relatedPostRepository;
+    private final ApplicationProperties.RelatedPosts properties;
+    private final TransactionTemplate refreshTransaction;
+    private final Executor refreshExecutor;
+    private final PostEventBatcher changes =
+            new PostEventBatcher("schedule a refresh of related posts", this::refreshLater);
+    private final Queue<PostEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    RelatedPostService(
+            RelatedPostRepository relatedPostRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor refreshExecutor,
+            ApplicationProperties properties) {
+        this.relatedPostRepository = relatedPostRepository;
+        this.properties = properties.relatedPosts();
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostSummary> getRelatedPosts(Long postId) {
+        return relatedPostRepository.findRelatedPosts(postId);
+    }
+
+    /**
+     * Computes the related posts of the posts that have none yet, such as those created before this
+     * feature or while a refresh failed.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void computeMissing() {
+        int count = recomputeAll(true);
+        if (count > 0) {
+            log.info("Computed related posts of {} posts", count);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${blog.related-posts.rebuild-interval:24h}",
+            fixedDelayString = "${blog.related-posts.rebuild-interval:24h}")
+    void rebuild() {
+        long start = System.nanoTime();
+        int count = recomputeAll(false);
+        log.info("Rebuilt related posts of {} posts in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    void onPostEvent(PostEvent event) {
+        if (affectsRelatedPosts(event)) {
+            changes.add(event);
+        }
+    }
+
+    private static boolean affectsRelatedPosts(PostEvent event) {
+        if (event.type() != PostEvent.Type.UPDATED) {
+            return true;
+        }
+        return !Objects.equals(
+                        event.before().getCategory().getId(),
+                        event.after().getCategory().getId())
+                || !tagIds(event.before()).equals(tagIds(event.after()));
+    }
+
+    private static Set<Long> tagIds(PostSummary post) {
+        return post.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+
+    private void refreshLater(List<PostEvent> events) {
+        pendingEvents.addAll(events);
+        startRefreshIfIdle();
+    }
+
+    private void startRefreshIfIdle() {
+        if (pendingEvents.isEmpty() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::refreshPending);
+        } catch (TaskRejectedException e) {
+            // Shutting down; the pending changes are caught up by computeMissing or the rebuild after a restart
+            refreshing.set(false);
+            log.warn("Could not start a refresh of related posts after changes to {} posts", pendingEvents.size(), e);
+        }
+    }
+
+    private void refreshPending() {
+        try {
+            List<PostEvent> events = new ArrayList<>();
+            for (PostEvent event; (event = pendingEvents.poll()) != null; ) {
+                events.add(event);
+            }
+            try {
+                refreshTransaction.executeWithoutResult(status -> refresh(events));
+            } catch (RuntimeException e) {
+                // The next rebuild catches up
+                log.warn("Could not refresh related posts after changes to {} posts", events.size(), e);
+            }
+        } finally {
+            refreshing.set(false);
+        }
+        // Changes committed while this refresh ran
+        startRefreshIfIdle();
+    }
+
+    private void refresh(List<PostEvent> events) {
+        Set<Long> changedIds = new LinkedHashSet<>();
+        Set<Long> deletedIds = new LinkedHashSet<>();
+        for (PostEvent event : events) {
+            if (event.type() == PostEvent.Type.DELETED) {
+                deletedIds.add(event.postId());
+                changedIds.remove(event.postId());
+            } else {
+                changedIds.add(event.postId());
+            }
+        }
+        Set<Long> neighbourIds = new LinkedHashSet<>();
+        Set<Long> allChanged = new LinkedHashSet<>(changedIds);
+        allChanged.addAll(deletedIds);
+        neighbourIds.addAll(relatedPostRepository.findPostIdsRelatedTo(allChanged));
+        recompute(changedIds).values().forEach(neighbourIds::addAll);
+        neighbourIds.removeAll(allChanged);
+        recompute(neighbourIds);
+    }
+
+    private Map<Long, List<Long>> recompute(Set<Long> postIds) {
+        List<Long> ids = new ArrayList<>(postIds);
+        Map<Long, List<Long>> related = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            related.putAll(relatedPostRepository.recompute(
+                    ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())),
+                    properties.size(),
+                    properties.categoryBoost()));
+        }
+        return related;
+    }
+
+    private int recomputeAll(boolean missingOnly) {
+        int count = 0;
+        long afterId = 0;
+        List<Long> batch;
+        do {
+            batch = relatedPostRepository.findPostIds(afterId, BATCH_SIZE, missingOnly);
+            relatedPostRepository.recompute(batch, properties.size(), properties.categoryBoost());
+            count += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return count;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.domain.data.PostSearchRepository;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class SearchService {
+    private final PostSearchRepository postSearchRepository;
+    private final PostService postService;
+
+    SearchService(PostSearchRepository postSearchRepository, PostService postService) {
+        this.postSearchRepository = postSearchRepository;
+        this.postService = postService;
+    }
+
+    /**
+     * Returns one page of posts matching the query, best match first. Only "next" cursors are
+     * produced: a ranked result has no stable notion of the page before it.
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResult<PostSummary> searchPosts(String query, SearchCursor after, int pageSize) {
+        if (query == null || query.isBlank()) {
+            return CursorPagedResult.empty();
+        }
+        List<PostSearchHit> hits = postSearchRepository.search(query.strip(), after, pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        if (hasNext) {
+            hits = hits.subList(0, pageSize);
+        }
+        Map<Long, PostSummary> postsById =
+                postService
+                        .getPostSummariesByIds(
+                                hits.stream().map(PostSearchHit::postId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        List<PostSummary> posts = hits.stream()
+                .map(hit -> postsById.get(hit.postId()))
+                .filter(Objects::nonNull)
+                .toList();
+        String nextCursor = hasNext ? SearchCursor.of(hits.getLast()).encode() : null;
+        return new CursorPagedResult<>(posts, null, nextCursor, false, hasNext);
+    }
+}
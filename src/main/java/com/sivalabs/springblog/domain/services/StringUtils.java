@@ -4,21 +4,54 @@ import java.text.Normalizer;
 
 public class StringUtils {
 
+    /**
+     * Turns a title or name into a URL slug: accents are removed (e.g., "café" -> "cafe"), everything but
+     * ASCII letters, digits and whitespace is dropped, and runs of whitespace become single hyphens.
+     * <p>
+     * Slugs are computed for every category and tag name on imports and cache refreshes, so this is a
+     * single pass over the input instead of a chain of regular expressions, and ASCII input skips the
+     * Unicode normalization.
+     */
     public static String toSlug(String input) {
         if (input == null || input.isEmpty()) {
             return "";
         }
 
-        // Normalize to remove accents (e.g., "café" -> "cafe")
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
-        String withoutAccents = normalized.replaceAll("\\p{M}", "");
+        // Decompose accented characters so that their base letter survives and the marks are dropped below
+        String text = isAscii(input) ? input : Normalizer.normalize(input, Normalizer.Form.NFD);
 
-        // Remove non-alphanumeric characters (except spaces)
-        String alphanumeric = withoutAccents.replaceAll("[^a-zA-Z0-9\\s]", "");
+        StringBuilder slug = new StringBuilder(text.length());
+        boolean pendingHyphen = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isAsciiLetterOrDigit(c)) {
+                if (pendingHyphen && !slug.isEmpty()) {
+                    slug.append('-');
+                }
+                pendingHyphen = false;
+                slug.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            } else if (isWhitespace(c)) {
+                pendingHyphen = true;
+            }
+        }
+        return slug.toString();
+    }
+
+    private static boolean isAscii(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        // Replace spaces with hyphens and convert to lowercase
-        String slug = alphanumeric.trim().replaceAll("\\s+", "-").toLowerCase();
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
 
-        return slug;
+    // The characters the \s regex class matches
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
     }
 }
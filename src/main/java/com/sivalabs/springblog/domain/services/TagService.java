@@ -2,6 +2,7 @@ package com.sivalabs.springblog.domain.services;
 
 import com.sivalabs.springblog.domain.data.TagRepository;
 import com.sivalabs.springblog.domain.models.Tag;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,18 +10,35 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class TagService {
     private final TagRepository tagRepository;
+    private final TaxonomyCache taxonomyCache;
 
-    public TagService(TagRepository tagRepository) {
+    public TagService(TagRepository tagRepository, TaxonomyCache taxonomyCache) {
         this.tagRepository = tagRepository;
+        this.taxonomyCache = taxonomyCache;
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional so that cache hits don't check out a pooled connection
     public List<Tag> findAllTags() {
-        return tagRepository.findAll();
+        return taxonomyCache.getTags(tagRepository::findAll);
     }
 
     @Transactional
     public Tag getOrCreateTagByName(String name) {
-        return tagRepository.getOrCreateTagByName(name);
+        return getOrCreateTagsByNames(List.of(name)).getFirst();
+    }
+
+    /**
+     * Returns the tags with the given names, creating the missing ones. Names that map to the same slug
+     * resolve to a single tag.
+     */
+    @Transactional
+    public List<Tag> getOrCreateTagsByNames(Collection<String> names) {
+        return taxonomyCache.resolveTags(names, tagRepository::getOrCreateTagsByNames);
+    }
+
+    @Transactional
+    public void deleteTag(Long id) {
+        tagRepository.deleteById(id);
+        taxonomyCache.tagDeleted(id);
     }
 }
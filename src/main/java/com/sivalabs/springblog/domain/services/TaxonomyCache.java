@@ -0,0 +1,173 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.models.Category;
+import com.sivalabs.springblog.domain.models.Tag;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache for the full category and tag lists rendered in the blog sidebar,
+ * and for the slug to category/tag mappings used when resolving names on post writes.
+ */
+@Component
+public class TaxonomyCache {
+    private static final String ALL = "all";
+    private static final int MAX_CACHED_SLUGS = 10_000;
+
+    private final Cache<String, List<Category>> categories;
+    private final Cache<String, List<Tag>> tags;
+    private final Cache<String, Category> categoriesBySlug;
+    private final Cache<String, Tag> tagsBySlug;
+
+    TaxonomyCache(ApplicationProperties properties, MeterRegistry meterRegistry) {
+        var ttl = properties.taxonomyCache().ttl();
+        this.categories =
+                Caffeine.newBuilder().expireAfterWrite(ttl).recordStats().build();
+        this.tags = Caffeine.newBuilder().expireAfterWrite(ttl).recordStats().build();
+        this.categoriesBySlug = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_SLUGS)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.tagsBySlug = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_SLUGS)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, categories, "categories");
+        CaffeineCacheMetrics.monitor(meterRegistry, tags, "tags");
+        CaffeineCacheMetrics.monitor(meterRegistry, categoriesBySlug, "categories-by-slug");
+        CaffeineCacheMetrics.monitor(meterRegistry, tagsBySlug, "tags-by-slug");
+    }
+
+    public List<Category> getCategories(Supplier<List<Category>> loader) {
+        return categories.get(ALL, key -> List.copyOf(loader.get()));
+    }
+
+    public List<Tag> getTags(Supplier<List<Tag>> loader) {
+        return tags.get(ALL, key -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Resolves category names from the slug cache, passing only the unknown names to the loader.
+     * Returns one category per distinct slug, in the order the names were given.
+     */
+    public List<Category> resolveCategories(
+            Collection<String> names, Function<Collection<String>, List<Category>> loader) {
+        return resolve(names, categoriesBySlug, Category::getSlug, loader, this::categoriesResolved);
+    }
+
+    public List<Tag> resolveTags(Collection<String> names, Function<Collection<String>, List<Tag>> loader) {
+        return resolve(names, tagsBySlug, Tag::getSlug, loader, this::tagsResolved);
+    }
+
+    /**
+     * Drops a deleted category from the cached list and the slug cache once the deletion has committed, so
+     * resolving its name creates it again instead of handing out the deleted id.
+     */
+    public void categoryDeleted(Long id) {
+        afterCommit(() -> {
+            categories.invalidateAll();
+            categoriesBySlug.asMap().values().removeIf(category -> id.equals(category.getId()));
+        });
+    }
+
+    /**
+     * Drops a deleted tag from the cached list and the slug cache once the deletion has committed.
+     */
+    public void tagDeleted(Long id) {
+        afterCommit(() -> {
+            tags.invalidateAll();
+            tagsBySlug.asMap().values().removeIf(tag -> id.equals(tag.getId()));
+        });
+    }
+
+    public void clear() {
+        categories.invalidateAll();
+        tags.invalidateAll();
+        categoriesBySlug.invalidateAll();
+        tagsBySlug.invalidateAll();
+    }
+
+    private void categoriesResolved(List<Category> resolved) {
+        List<Category> cached = categories.getIfPresent(ALL);
+        if (cached == null) {
+            return;
+        }
+        Set<Long> cachedIds = cached.stream().map(Category::getId).collect(Collectors.toSet());
+        if (resolved.stream().anyMatch(c -> !cachedIds.contains(c.getId()))) {
+            afterCommit(categories::invalidateAll);
+        }
+    }
+
+    private void tagsResolved(List<Tag> resolved) {
+        List<Tag> cached = tags.getIfPresent(ALL);
+        if (cached == null) {
+            return;
+        }
+        Set<Long> cachedIds = cached.stream().map(Tag::getId).collect(Collectors.toSet());
+        if (resolved.stream().anyMatch(t -> !cachedIds.contains(t.getId()))) {
+            afterCommit(tags::invalidateAll);
+        }
+    }
+
+    private static <T> List<T> resolve(
+            Collection<String> names,
+            Cache<String, T> bySlug,
+            Function<T, String> slugOf,
+            Function<Collection<String>, List<T>> loader,
+            Consumer<List<T>> onLoaded) {
+        Map<String, T> resolved = new LinkedHashMap<>();
+        List<String> unresolvedNames = new ArrayList<>();
+        for (String name : names) {
+            String slug = StringUtils.toSlug(name);
+            if (resolved.containsKey(slug)) {
+                continue;
+            }
+            T cached = bySlug.getIfPresent(slug);
+            resolved.put(slug, cached);
+            if (cached == null) {
+                unresolvedNames.add(name);
+            }
+        }
+        if (!unresolvedNames.isEmpty()) {
+            List<T> loaded = loader.apply(unresolvedNames);
+            loaded.forEach(item -> resolved.put(slugOf.apply(item), item));
+            // Rows created by a transaction that rolls back must never be handed out from the cache
+            afterCommit(() -> loaded.forEach(item -> bySlug.put(slugOf.apply(item), item)));
+            onLoaded.accept(loaded);
+        }
+        return resolved.values().stream().filter(Objects::nonNull).toList();
+    }
+
+    // Invalidating before commit would let a concurrent reader cache the old list again for a full TTL
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,259 @@
+package com.sivalabs.springblog.domain.services;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.data.CommentRepository;
+import com.sivalabs.springblog.domain.events.CommentEvent;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import com.sivalabs.springblog.domain.models.CommentActivity;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.TrendingPost;
+import com.sivalabs.springblog.domain.models.TrendingSnapshot;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Ranks posts by recent activity: every view adds 1 to the score of its post and every comment adds the
+ * comment weight, and scores halve every half-life.
+ * <p>
+ * Scores are stored relative to a landmark time: an event at time t adds {@code weight * 2^((t - landmark) /
+ * halfLife)}. Decaying all scores by the same factor does not change their order, so nothing is recomputed as
+ * time passes and each event only moves its own post in the sorted ranking. When stored scores get large the
+ * landmark is moved forward, which rescales all scores once and drops those that have decayed to nothing.
+ * <p>
+ * The top posts are published as an immutable {@link TrendingSnapshot} every publish interval, if the posts
+ * it lists or their titles changed, so requests read the ranking without locking. Scores live in memory only; on startup they are
+ * seeded from recent comments.
+ */
+@Component
+public class TrendingRanker {
+    private static final Logger log = LoggerFactory.getLogger(TrendingRanker.class);
+    private static final double MAX_EXPONENT = 60;
+    private static final double MIN_SCORE = 0.01;
+    private static final int SEEDED_HALF_LIVES = 8;
+    private static final Comparator<Entry> BY_RANK = Comparator.comparingDouble(Entry::score)
+            .thenComparingLong(Entry::postId)
+            .reversed();
+
+    private final PostService postService;
+    private final CommentRepository commentRepository;
+    private final ApplicationProperties.Trending properties;
+    private final double halfLifeSeconds;
+    private final Lock publishLock = new ReentrantLock();
+
+    // Guarded by this
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(BY_RANK);
+    private Instant landmark = Instant.now();
+    private boolean changed;
+
+    private volatile TrendingSnapshot snapshot = TrendingSnapshot.empty();
+
+    TrendingRanker(PostService postService, CommentRepository commentRepository, ApplicationProperties properties) {
+        this.postService = postService;
+        this.commentRepository = commentRepository;
+        this.properties = properties.trending();
+        this.halfLifeSeconds = this.properties.halfLife().toMillis() / 1000.0;
+    }
+
+    public TrendingSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void recordViews(Map<Long, Long> viewCountsByPostId) {
+        Instant now = Instant.now();
+        synchronized (this) {
+            viewCountsByPostId.forEach((postId, count) -> add(postId, count, now));
+        }
+    }
+
+    @TransactionalEventListener
+    void onCommentEvent(CommentEvent event) {
+        if (event.type() == CommentEvent.Type.CREATED) {
+            synchronized (this) {
+                add(event.postId(), properties.commentWeight(), Instant.now());
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    void onPostEvent(PostEvent event) {
+        synchronized (this) {
+            if (event.type() == PostEvent.Type.DELETED) {
+                Entry removed = entries.remove(event.postId());
+                if (removed != null) {
+                    ranking.remove(removed);
+                }
+            }
+            // Published summaries may show an old title or category
+            changed = true;
+        }
+    }
+
+    /**
+     * Seeds the scores from the comments of the last few half-lives and publishes the first snapshot.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void seed() {
+        Instant now = Instant.now();
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime since =
+                LocalDateTime.ofInstant(now.minus(properties.halfLife().multipliedBy(SEEDED_HALF_LIVES)), zone);
+        List<CommentActivity> activity = commentRepository.findCommentActivity(since);
+        synchronized (this) {
+            for (CommentActivity hour : activity) {
+                Instant at = hour.hour().plusMinutes(30).atZone(zone).toInstant();
+                add(hour.postId(), hour.count() * properties.commentWeight(), at.isAfter(now) ? now : at);
+            }
+        }
+        log.info("Seeded trending scores of {} posts from recent comments", activity.size());
+        publish();
+    }
+
+    /**
+     * Publishes the current top posts, unless the posts shown, in order, are the same as last time.
+     */
+    @Scheduled(
+            initialDelayString = "${blog.trending.publish-interval:5s}",
+            fixedDelayString = "${blog.trending.publish-interval:5s}")
+    void publish() {
+        publishLock.lock();
+        try {
+            Instant now = Instant.now();
+            List<Entry> top;
+            double decay;
+            synchronized (this) {
+                if (!changed) {
+                    return;
+                }
+                changed = false;
+                top = new ArrayList<>(properties.size());
+                Iterator<Entry> iterator = ranking.iterator();
+                while (top.size() < properties.size() && iterator.hasNext()) {
+                    top.add(iterator.next());
+                }
+                decay = Math.pow(2, -secondsBetween(landmark, now) / halfLifeSeconds);
+            }
+            try {
+                Map<Long, PostSummary> postsById =
+                        postService
+                                .getPostSummariesByIds(
+                                        top.stream().map(Entry::postId).toList())
+                                .stream()
+                                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+                List<TrendingPost> posts = new ArrayList<>(top.size());
+                for (Entry entry : top) {
+                    PostSummary post = postsById.get(entry.postId());
+                    if (post != null) {
+                        posts.add(new TrendingPost(post, entry.score() * decay));
+                    }
+                }
+                // Views keep moving the scores, but pages only change when the listed posts do
+                if (!showsSamePosts(snapshot.posts(), posts)) {
+                    snapshot = new TrendingSnapshot(posts, now);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not publish trending posts, retrying with the next publish", e);
+                synchronized (this) {
+                    changed = true;
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private static boolean showsSamePosts(List<TrendingPost> published, List<TrendingPost> posts) {
+        if (published.size() != posts.size()) {
+            return false;
+        }
+        for (int i = 0; i < posts.size(); i++) {
+            PostSummary before = published.get(i).post();
+            PostSummary after = posts.get(i).post();
+            if (!before.getId().equals(after.getId())
+                    || !Objects.equals(before.getTitle(), after.getTitle())
+                    || !Objects.equals(before.getSlug(), after.getSlug())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops all scores, for tests.
+     */
+    synchronized void clear() {
+        entries.clear();
+        ranking.clear();
+        landmark = Instant.now();
+        changed = true;
+    }
+
+    // Must hold the lock on this
+    void add(Long postId, double weight, Instant at) {
+        double exponent = secondsBetween(landmark, at) / halfLifeSeconds;
+        if (exponent > MAX_EXPONENT) {
+            rebase(at);
+            exponent = 0;
+        }
+        double value = weight * Math.pow(2, exponent);
+        Entry old = entries.get(postId);
+        if (old != null) {
+            ranking.remove(old);
+        } else if (entries.size() >= properties.maxTrackedPosts()) {
+            Entry lowest = ranking.last();
+            if (lowest.score() >= value) {
+                return;
+            }
+            ranking.pollLast();
+            entries.remove(lowest.postId());
+        }
+        Entry updated = new Entry(postId, (old == null ? 0 : old.score()) + value);
+        entries.put(postId, updated);
+        ranking.add(updated);
+        changed = true;
+    }
+
+    private void rebase(Instant newLandmark) {
+        double factor = Math.pow(2, -secondsBetween(landmark, newLandmark) / halfLifeSeconds);
+        List<Entry> rescaled = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            double score = entry.score() * factor;
+            if (score >= MIN_SCORE) {
+                rescaled.add(new Entry(entry.postId(), score));
+            }
+        }
+        entries.clear();
+        ranking.clear();
+        rescaled.forEach(entry -> entries.put(entry.postId(), entry));
+        ranking.addAll(rescaled);
+        log.debug("Rebased trending scores, keeping {} posts", rescaled.size());
+        landmark = newLandmark;
+    }
+
+    private static double secondsBetween(Instant from, Instant to) {
+        return Duration.between(from, to).toMillis() / 1000.0;
+    }
+
+    private record Entry(Long postId, double score) {}
+}
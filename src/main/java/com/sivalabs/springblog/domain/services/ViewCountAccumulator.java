@@ -0,0 +1,174 @@
+package com.sivalabs.springblog.domain.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts views per post between flushes.
+ * <p>
+ * Posts are spread over stripes by post id, so views of different posts rarely wait on each other. Each stripe
+ * is an open-addressing map from post id to count held in two {@code long[]}s, so recording a view allocates
+ * nothing. The stripe doesn't depend on the recording thread, as with virtual threads every request has a new
+ * one, and a post is only ever held by one stripe.
+ * <p>
+ * At most {@code maxPosts} posts are held over all stripes. Views of further posts are dropped until the next
+ * drain and only counted, which bounds memory when the counts cannot be written for a while.
+ */
+final class ViewCountAccumulator {
+    private final Stripe[] stripes;
+    // The stripe comes from the high bits of the hash, as the map in each stripe probes from the low bits
+    private final int stripeShift;
+    private final int maxPosts;
+    private final AtomicInteger postCount = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    ViewCountAccumulator(int stripeCount, int maxPosts) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new Stripe[count];
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxPosts = maxPosts;
+    }
+
+    void increment(long postId) {
+        add(postId, 1);
+    }
+
+    /**
+     * Adds counts that were drained but could not be written.
+     */
+    void addAll(Map<Long, Long> viewCountsByPostId) {
+        viewCountsByPostId.forEach(this::add);
+    }
+
+    /**
+     * Removes and returns the counts recorded so far, summed over all stripes.
+     */
+    Map<Long, Long> drain() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            LongLongMap drained;
+            synchronized (stripe) {
+                drained = stripe.counts;
+                if (drained.size == 0) {
+                    continue;
+                }
+                stripe.counts = new LongLongMap();
+                postCount.addAndGet(-drained.size);
+            }
+            drained.forEach((postId, count) -> counts.merge(postId, count, Long::sum));
+        }
+        return counts;
+    }
+
+    /**
+     * Returns and resets the number of views dropped because {@code maxPosts} posts were held already.
+     */
+    long drainDropped() {
+        return dropped.sumThenReset();
+    }
+
+    private void add(long postId, long count) {
+        // Shifting as a long, so a single stripe (a shift by 32) gets index 0
+        Stripe stripe = stripes[(int) (Integer.toUnsignedLong(mix(postId)) >>> stripeShift)];
+        synchronized (stripe) {
+            if (stripe.counts.addIfPresent(postId, count)) {
+                return;
+            }
+            if (postCount.incrementAndGet() <= maxPosts) {
+                stripe.counts.put(postId, count);
+                return;
+            }
+        }
+        postCount.decrementAndGet();
+        dropped.add(count);
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Stripe {
+        private LongLongMap counts = new LongLongMap();
+    }
+
+    /**
+     * Linear probing map with 0 marking empty slots; post ids start at 1.
+     */
+    static final class LongLongMap {
+        private long[] keys = new long[16];
+        private long[] values = new long[16];
+        private int size;
+
+        /**
+         * Adds {@code delta} to the value of {@code key}. Returns false, leaving the map unchanged, when the key
+         * is not present.
+         */
+        boolean addIfPresent(long key, long delta) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] += delta;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds a key that is not present yet.
+         */
+        void put(long key, long value) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(LongLongConsumer action) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    action.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0) {
+                    int i = mix(oldKeys[j]) & mask;
+                    while (keys[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+}
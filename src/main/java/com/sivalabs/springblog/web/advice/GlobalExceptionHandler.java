@@ -2,10 +2,14 @@ package com.sivalabs.springblog.web.advice;
 
 import com.sivalabs.springblog.domain.exceptions.ResourceNotFoundException;
 import java.time.Instant;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.ModelAndView;
 
 @ControllerAdvice
@@ -27,6 +31,16 @@ class GlobalExceptionHandler {
         return new ModelAndView("error/404", model.asMap());
     }
 
+    // No connection could be had in time; the database is overloaded or down
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    ModelAndView handleUnavailable(Exception e, Model model) {
+        model.addAttribute("error", "Service Unavailable");
+        model.addAttribute("message", e.getMessage());
+        model.addAttribute("timestamp", Instant.now());
+        return new ModelAndView("error/503", model.asMap());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     ModelAndView handle(AccessDeniedException e, Model model) {
         model.addAttribute("error", "Access Denied");
@@ -0,0 +1,88 @@
+package com.sivalabs.springblog.web.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.events.CommentEvent;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Rendered HTML of post details pages as served to anonymous readers, keyed by post slug.
+ * Eviction is bounded by the total number of cached bytes; pages are dropped after commit
+ * whenever the post or one of its comments changes.
+ */
+@Component
+public class PostPageCache {
+    /** Request attribute through which the post details handler tells the cache which post a page shows. */
+    public static final String POST_ID_ATTRIBUTE = PostPageCache.class.getName() + ".postId";
+
+    private final Cache<String, CachedPage> pages;
+    private final long maxEntrySize;
+    private final AtomicLong version = new AtomicLong();
+
+    PostPageCache(ApplicationProperties properties, MeterRegistry meterRegistry) {
+        var props = properties.postPageCache();
+        this.maxEntrySize = props.maxEntrySize().toBytes();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(props.maxMemory().toBytes())
+                .weigher((String slug, CachedPage page) -> page.weight(slug))
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "post-pages");
+    }
+
+    CachedPage get(String slug) {
+        return pages.getIfPresent(slug);
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * Stores a page rendered while the cache was at {@code renderVersion}. The page is discarded if
+     * an invalidation happened in the meantime, since it may have been rendered from stale data.
+     */
+    void put(String slug, CachedPage page, long renderVersion) {
+        if (page.body().length > maxEntrySize || version.get() != renderVersion) {
+            return;
+        }
+        pages.put(slug, page);
+        if (version.get() != renderVersion) {
+            pages.invalidate(slug);
+        }
+    }
+
+    public void invalidatePost(Long postId) {
+        version.incrementAndGet();
+        pages.asMap().values().removeIf(page -> page.postId().equals(postId));
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    void onPostEvent(PostEvent event) {
+        invalidatePost(event.postId());
+    }
+
+    @TransactionalEventListener
+    void onCommentEvent(CommentEvent event) {
+        invalidatePost(event.postId());
+    }
+
+    record CachedPage(Long postId, String contentType, Map<String, String> headers, long lastModified, byte[] body) {
+        int weight(String slug) {
+            return body.length + slug.length() * 2 + headers.size() * 64;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.sivalabs.springblog.web.cache;
+
+import com.sivalabs.springblog.ApplicationProperties;
+import com.sivalabs.springblog.domain.services.PostViewCounter;
+import com.sivalabs.springblog.web.cache.PostPageCache.CachedPage;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves {@code GET /posts/{slug}} from {@link PostPageCache} for anonymous readers.
+ * Registered with the default (lowest) order so it runs after the Spring Security filter chain
+ * has established who the user is; signed-in users always get a freshly rendered page.
+ * The validators of the cached response are replayed, so cache hits still answer conditional requests with 304.
+ */
+@Component
+class PostPageCacheFilter extends OncePerRequestFilter {
+    private static final String POSTS_PREFIX = "/posts/";
+    private static final List<String> REPLAYED_HEADERS =
+            List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+
+    private final PostPageCache cache;
+    private final PostViewCounter postViewCounter;
+    private final boolean enabled;
+
+    PostPageCacheFilter(PostPageCache cache, PostViewCounter postViewCounter, ApplicationProperties properties) {
+        this.cache = cache;
+        this.postViewCounter = postViewCounter;
+        this.enabled = properties.postPageCache().enabled();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"GET".equals(request.getMethod())
+                || request.getQueryString() != null
+                || slugOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isAnonymous()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String slug = slugOf(request);
+        CachedPage page = cache.get(slug);
+        if (page != null) {
+            // Cache hits never reach the controller, so their views are counted here
+            postViewCounter.recordView(page.postId(), request.getHeader(HttpHeaders.USER_AGENT));
+            page.headers().forEach(response::setHeader);
+            String etag = page.headers().get(HttpHeaders.ETAG);
+            if (etag != null && new ServletWebRequest(request, response).checkNotModified(etag, page.lastModified())) {
+                return;
+            }
+            response.setContentType(page.contentType());
+            response.setContentLength(page.body().length);
+            response.getOutputStream().write(page.body());
+            return;
+        }
+        long renderVersion = cache.version();
+        var wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            Object postId = request.getAttribute(PostPageCache.POST_ID_ATTRIBUTE);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && postId instanceof Long id) {
+                cache.put(slug, capture(id, wrapper), renderVersion);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static CachedPage capture(Long postId, ContentCachingResponseWrapper response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        var validators = new HttpHeaders();
+        validators.setAll(headers);
+        long lastModified = validators.getLastModified();
+        return new CachedPage(
+                postId, response.getContentType(), headers, lastModified, response.getContentAsByteArray());
+    }
+
+    private static String slugOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(POSTS_PREFIX)) {
+            return null;
+        }
+        String slug = path.substring(POSTS_PREFIX.length());
+        return slug.isEmpty() || slug.indexOf('/') >= 0 ? null : slug;
+    }
+
+    private static boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated();
+    }
+}
@@ -3,41 +3,56 @@ package com.sivalabs.springblog.web.controllers;
 import com.sivalabs.springblog.ApplicationProperties;
 import com.sivalabs.springblog.domain.models.*;
 import com.sivalabs.springblog.domain.services.CategoryService;
+import com.sivalabs.springblog.domain.services.MarkdownRenderer;
 import com.sivalabs.springblog.domain.services.PostService;
 import com.sivalabs.springblog.domain.services.TagService;
 import com.sivalabs.springblog.web.forms.CreatePostForm;
 import com.sivalabs.springblog.web.forms.EditPostForm;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
     private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+    private static final String CSV_HEADER = "id,post_id,author_name,author_email,created_date,content";
     private final PostService postService;
     private final CategoryService categoryService;
     private final ApplicationProperties properties;
     private final TagService tagService;
+    private final MarkdownRenderer markdownRenderer;
 
     public AdminController(
             PostService postService,
             CategoryService categoryService,
             ApplicationProperties properties,
-            TagService tagService) {
+            TagService tagService,
+            MarkdownRenderer markdownRenderer) {
         this.postService = postService;
         this.categoryService = categoryService;
         this.properties = properties;
         this.tagService = tagService;
+        this.markdownRenderer = markdownRenderer;
     }
 
     @GetMapping
@@ -48,19 +63,53 @@ public class AdminController {
     @GetMapping("/posts")
     public String getAllPosts(@RequestParam(name = "page", defaultValue = "1") int pageNo, Model model) {
         log.info("Fetching all posts for admin view, page: {}", pageNo);
-        PagedResult<Post> pagedResult = postService.getPosts(pageNo, properties.pageSize());
+        PagedResult<PostSummary> pagedResult = postService.getPosts(pageNo, properties.pageSize());
         model.addAttribute("pagedResult", pagedResult);
         return "admin/posts";
     }
 
     @GetMapping("/comments")
-    public String getAllComments(Model model) {
-        log.info("Fetching all comments for admin view");
-        List<Comment> comments = postService.findAllComments();
+    public String getAllComments(
+            @RequestParam(name = "postId", required = false) Long postId,
+            @RequestParam(name = "author", required = false) String author,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model) {
+        var filter = new CommentFilter(postId, author, from, to);
+        log.info("Fetching comments for admin view, filter: {}, after: {}, before: {}", filter, after, before);
+        CursorPagedResult<Comment> comments = postService.findComments(
+                filter, CommentCursor.decode(after), CommentCursor.decode(before), properties.commentsPageSize());
+        model.addAttribute("filter", filter);
         model.addAttribute("comments", comments);
+        model.addAttribute("baseUrl", withFilter("/admin/comments", filter));
+        model.addAttribute("exportUrl", withFilter("/admin/comments/export.csv", filter));
         return "admin/comments";
     }
 
+    @GetMapping("/comments/export.csv")
+    public void exportComments(
+            @RequestParam(name = "postId", required = false) Long postId,
+            @RequestParam(name = "author", required = false) String author,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response)
+            throws IOException {
+        var filter = new CommentFilter(postId, author, from, to);
+        log.info("Exporting comments, filter: {}", filter);
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("comments.csv").build().toString());
+        PrintWriter writer = response.getWriter();
+        writer.write(CSV_HEADER + "\r\n");
+        postService.exportComments(filter, comment -> writer.write(toCsvRow(comment)));
+        writer.flush();
+    }
+
     @GetMapping("/categories")
     public String getAllCategories(Model model) {
         log.info("Fetching all categories for admin view");
@@ -123,11 +172,12 @@ public class AdminController {
 
         User user = new User(UserContextUtils.getCurrentUserIdOrThrow());
         Post post = form.toPost(user);
+        post.setContentHtml(markdownRenderer.render(post.getContentMarkdown()));
         List<String> tagNames = Arrays.stream(form.getTags().split(","))
                 .map(String::trim)
                 .filter(tag -> !tag.isBlank())
                 .toList();
-        Set<Tag> tags = tagNames.stream().map(tagService::getOrCreateTagByName).collect(Collectors.toSet());
+        Set<Tag> tags = new HashSet<>(tagService.getOrCreateTagsByNames(tagNames));
         post.setTags(tags);
 
         postService.createPost(post);
@@ -163,15 +213,49 @@ public class AdminController {
         }
 
         Post post = form.toPost();
+        post.setContentHtml(markdownRenderer.render(post.getContentMarkdown()));
         List<String> tagNames = Arrays.stream(form.getTags().split(","))
                 .map(String::trim)
                 .filter(tag -> !tag.isBlank())
                 .toList();
-        Set<Tag> tags = tagNames.stream().map(tagService::getOrCreateTagByName).collect(Collectors.toSet());
+        Set<Tag> tags = new HashSet<>(tagService.getOrCreateTagsByNames(tagNames));
         post.setTags(tags);
 
         postService.updatePost(post);
         redirectAttributes.addFlashAttribute("message", "Post updated successfully");
         return "redirect:/admin/posts";
     }
+
+    private static String withFilter(String path, CommentFilter filter) {
+        return UriComponentsBuilder.fromPath(path)
+                .queryParamIfPresent("postId", Optional.ofNullable(filter.postId()))
+                .queryParamIfPresent("author", Optional.ofNullable(filter.authorEmail()))
+                .queryParamIfPresent("from", Optional.ofNullable(filter.from()))
+                .queryParamIfPresent("to", Optional.ofNullable(filter.to()))
+                .encode()
+                .toUriString();
+    }
+
+    private static String toCsvRow(Comment comment) {
+        return String.join(
+                        ",",
+                        String.valueOf(comment.getId()),
+                        String.valueOf(comment.getPostId()),
+                        csvField(comment.getCreatedBy().getName()),
+                        csvField(comment.getCreatedBy().getEmail()),
+                        DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(comment.getCreatedDate()),
+                        csvField(comment.getContent()))
+                + "\r\n";
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralized so spreadsheets do not evaluate it
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
 }
@@ -0,0 +1,64 @@
+package com.sivalabs.springblog.web.controllers;
+
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.StringJoiner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Computes ETag and Last-Modified validators for public pages from {@link ContentVersion}s and
+ * answers conditional requests with 304 before any page data is loaded.
+ * <p>
+ * Only anonymous requests are validated. Signed-in users get pages with per-session content
+ * (CSRF tokens, comment form), so they keep Spring Security's no-store headers.
+ * <p>
+ * Validators depend only on the content versions and the build, so every instance running the same build
+ * answers a conditional request the same way. The build time is part of both validators so that a deployment
+ * with changed templates never answers 304 for HTML rendered by the previous version.
+ */
+@Component
+class ConditionalGetSupport {
+    private final Instant builtAt;
+
+    ConditionalGetSupport(ObjectProvider<BuildProperties> buildProperties) {
+        // Without build-info.properties, e.g. when run from an IDE, templates are assumed unchanged
+        BuildProperties build = buildProperties.getIfAvailable();
+        Instant time = build == null ? null : build.getTime();
+        this.builtAt = time == null ? Instant.EPOCH : time.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    boolean isNotModified(ServletWebRequest webRequest, ContentVersion... versions) {
+        if (!UserContextUtils.isAnonymous()) {
+            return false;
+        }
+        Instant lastModified = builtAt;
+        StringJoiner etag = new StringJoiner("-", "\"", "\"").add(Long.toHexString(builtAt.getEpochSecond()));
+        for (ContentVersion version : versions) {
+            Instant modified = version.lastModified() == null
+                    ? Instant.EPOCH
+                    : version.lastModified().atZone(ZoneId.systemDefault()).toInstant();
+            etag.add(Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, modified)))
+                    .add(Long.toHexString(version.count()));
+            if (modified.isAfter(lastModified)) {
+                lastModified = modified;
+            }
+        }
+        HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            response.setHeader(
+                    HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePublic().getHeaderValue());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        }
+        // Last-Modified cannot see deletes; clients that also send If-None-Match are validated by the ETag
+        return webRequest.checkNotModified(etag.toString(), lastModified.toEpochMilli());
+    }
+}
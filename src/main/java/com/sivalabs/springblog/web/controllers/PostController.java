@@ -3,100 +3,265 @@ package com.sivalabs.springblog.web.controllers;
 import com.sivalabs.springblog.ApplicationProperties;
 import com.sivalabs.springblog.domain.models.Category;
 import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.CommentCursor;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
 import com.sivalabs.springblog.domain.models.PagedResult;
 import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostCursor;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.SearchCursor;
 import com.sivalabs.springblog.domain.models.Tag;
+import com.sivalabs.springblog.domain.models.TrendingPost;
 import com.sivalabs.springblog.domain.models.User;
 import com.sivalabs.springblog.domain.services.CategoryService;
+import com.sivalabs.springblog.domain.services.CommentWriteQueue;
 import com.sivalabs.springblog.domain.services.PostService;
+import com.sivalabs.springblog.domain.services.PostViewCounter;
+import com.sivalabs.springblog.domain.services.RelatedPostService;
+import com.sivalabs.springblog.domain.services.SearchService;
 import com.sivalabs.springblog.domain.services.TagService;
+import com.sivalabs.springblog.domain.services.TrendingRanker;
+import com.sivalabs.springblog.web.cache.PostPageCache;
 import com.sivalabs.springblog.web.forms.CommentForm;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @Controller
 @RequestMapping("/posts")
 class PostController {
     private static final Logger log = LoggerFactory.getLogger(PostController.class);
+    private static final int SIDEBAR_TRENDING_POSTS = 5;
     private final PostService postService;
     private final CategoryService categoryService;
     private final TagService tagService;
+    private final SearchService searchService;
+    private final CommentWriteQueue commentWriteQueue;
+    private final PostViewCounter postViewCounter;
+    private final TrendingRanker trendingRanker;
+    private final RelatedPostService relatedPostService;
+    private final ConditionalGetSupport conditionalGetSupport;
     private final ApplicationProperties properties;
 
     PostController(
             PostService postService,
             CategoryService categoryService,
             TagService tagService,
+            SearchService searchService,
+            CommentWriteQueue commentWriteQueue,
+            PostViewCounter postViewCounter,
+            TrendingRanker trendingRanker,
+            RelatedPostService relatedPostService,
+            ConditionalGetSupport conditionalGetSupport,
             ApplicationProperties properties) {
         this.postService = postService;
         this.categoryService = categoryService;
         this.tagService = tagService;
+        this.searchService = searchService;
+        this.commentWriteQueue = commentWriteQueue;
+        this.postViewCounter = postViewCounter;
+        this.trendingRanker = trendingRanker;
+        this.relatedPostService = relatedPostService;
+        this.conditionalGetSupport = conditionalGetSupport;
         this.properties = properties;
     }
 
     @GetMapping
-    String getPosts(@RequestParam(name = "page", defaultValue = "1") int pageNo, Model model) {
+    String getPosts(
+            @RequestParam(name = "page", defaultValue = "1") int pageNo,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model,
+            ServletWebRequest webRequest) {
+        // Every listing also renders the sidebar, so any post change invalidates all of them
+        if (isPageNotModified(webRequest)) {
+            return null;
+        }
+        addSidebarAttributes(model);
+        model.addAttribute("baseUrl", "/posts");
+        if (isCursorRequest(after, before)) {
+            log.info("Fetching posts after: {}, before: {}", after, before);
+            CursorPagedResult<PostSummary> cursorResult =
+                    postService.getPosts(PostCursor.decode(after), PostCursor.decode(before), properties.pageSize());
+            model.addAttribute("cursorResult", cursorResult);
+            return "blog/posts";
+        }
         log.info("Fetching posts for page: {}", pageNo);
-        PagedResult<Post> pagedResult = postService.getPosts(pageNo, properties.pageSize());
+        PagedResult<PostSummary> pagedResult = postService.getPosts(pageNo, properties.pageSize());
         model.addAttribute("pagedResult", pagedResult);
         return "blog/posts";
     }
 
     @GetMapping("/category/{slug}")
     String getPostsByCategory(
-            @PathVariable String slug, @RequestParam(name = "page", defaultValue = "1") int pageNo, Model model) {
+            @PathVariable String slug,
+            @RequestParam(name = "page", defaultValue = "1") int pageNo,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model,
+            ServletWebRequest webRequest) {
+        if (isPageNotModified(webRequest)) {
+            return null;
+        }
+        addSidebarAttributes(model);
+        model.addAttribute("categorySlug", slug);
+        model.addAttribute("baseUrl", "/posts/category/" + slug);
+        if (isCursorRequest(after, before)) {
+            log.info("Fetching posts for category slug: {} after: {}, before: {}", slug, after, before);
+            CursorPagedResult<PostSummary> cursorResult = postService.getPostsByCategorySlug(
+                    slug, PostCursor.decode(after), PostCursor.decode(before), properties.pageSize());
+            model.addAttribute("cursorResult", cursorResult);
+            return "blog/posts";
+        }
         log.info("Fetching posts for category slug: {} and page: {}", slug, pageNo);
-        PagedResult<Post> pagedResult = postService.getPostsByCategorySlug(slug, pageNo, properties.pageSize());
+        PagedResult<PostSummary> pagedResult = postService.getPostsByCategorySlug(slug, pageNo, properties.pageSize());
         model.addAttribute("pagedResult", pagedResult);
-        model.addAttribute("categorySlug", slug);
         return "blog/posts";
     }
 
     @GetMapping("/tag/{slug}")
     String getPostsByTag(
-            @PathVariable String slug, @RequestParam(name = "page", defaultValue = "1") int pageNo, Model model) {
+            @PathVariable String slug,
+            @RequestParam(name = "page", defaultValue = "1") int pageNo,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model,
+            ServletWebRequest webRequest) {
+        if (isPageNotModified(webRequest)) {
+            return null;
+        }
+        addSidebarAttributes(model);
+        model.addAttribute("tagSlug", slug);
+        model.addAttribute("baseUrl", "/posts/tag/" + slug);
+        if (isCursorRequest(after, before)) {
+            log.info("Fetching posts for tag slug: {} after: {}, before: {}", slug, after, before);
+            CursorPagedResult<PostSummary> cursorResult = postService.getPostsByTagSlug(
+                    slug, PostCursor.decode(after), PostCursor.decode(before), properties.pageSize());
+            model.addAttribute("cursorResult", cursorResult);
+            return "blog/posts";
+        }
         log.info("Fetching posts for tag slug: {} and page: {}", slug, pageNo);
-        PagedResult<Post> pagedResult = postService.getPostsByTagSlug(slug, pageNo, properties.pageSize());
+        PagedResult<PostSummary> pagedResult = postService.getPostsByTagSlug(slug, pageNo, properties.pageSize());
         model.addAttribute("pagedResult", pagedResult);
-        model.addAttribute("tagSlug", slug);
         return "blog/posts";
     }
 
+    @GetMapping("/popular")
+    String getPopularPosts(Model model) {
+        List<PostSummary> posts = trendingRanker.getSnapshot().posts().stream()
+                .map(TrendingPost::post)
+                .toList();
+        addSidebarAttributes(model);
+        model.addAttribute("baseUrl", "/posts/popular");
+        model.addAttribute("cursorResult", new CursorPagedResult<>(posts, null, null, false, false));
+        return "blog/posts";
+    }
+
+    @GetMapping("/search")
+    String searchPosts(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(name = "after", required = false) String after,
+            Model model,
+            ServletWebRequest webRequest) {
+        if (isPageNotModified(webRequest)) {
+            return null;
+        }
+        log.info("Searching posts for: '{}' after: {}", query, after);
+        CursorPagedResult<PostSummary> searchResult =
+                searchService.searchPosts(query, SearchCursor.decode(after), properties.pageSize());
+        model.addAttribute("query", query);
+        model.addAttribute("searchResult", searchResult);
+        addSidebarAttributes(model);
+        return "blog/search";
+    }
+
     @GetMapping("/{slug}")
-    String getPostDetails(@PathVariable String slug, Model model) {
+    String getPostDetails(
+            @PathVariable String slug, Model model, HttpServletRequest request, ServletWebRequest webRequest) {
+        Optional<ContentVersion> postVersion = postService.getPostVersion(slug);
+        if (postVersion.isPresent() && isPageNotModified(webRequest, postVersion.get())) {
+            postViewCounter.recordView(postService.getPostIdBySlug(slug), request.getHeader(HttpHeaders.USER_AGENT));
+            return null;
+        }
         log.info("Fetching post details for slug: {}", slug);
         Post post = postService.getPostBySlug(slug);
-        List<Comment> comments = postService.findCommentsByPostId(post.getId());
+        postViewCounter.recordView(post.getId(), request.getHeader(HttpHeaders.USER_AGENT));
+        request.setAttribute(PostPageCache.POST_ID_ATTRIBUTE, post.getId());
+        CursorPagedResult<Comment> comments =
+                postService.findCommentsByPostId(post.getId(), null, properties.commentsPageSize());
         model.addAttribute("post", post);
         model.addAttribute("comments", comments);
+        model.addAttribute("relatedPosts", relatedPostService.getRelatedPosts(post.getId()));
         model.addAttribute("tagSlug", null);
         model.addAttribute("commentForm", new CommentForm());
+        addSidebarAttributes(model);
         return "blog/post-details";
     }
 
-    @ModelAttribute("categories")
-    List<Category> allCategories() {
-        return categoryService.findAllCategories();
-    }
-
-    @ModelAttribute("tags")
-    List<Tag> allTags() {
-        return tagService.findAllTags();
+    @GetMapping("/{slug}/comments")
+    String getComments(
+            @PathVariable String slug,
+            @RequestParam(name = "after", required = false) String after,
+            Model model,
+            ServletWebRequest webRequest) {
+        Optional<ContentVersion> postVersion = postService.getPostVersion(slug);
+        if (postVersion.isPresent()
+                && conditionalGetSupport.isNotModified(webRequest, postService.getPostsVersion(), postVersion.get())) {
+            return null;
+        }
+        log.info("Fetching comments for post slug: {} after: {}", slug, after);
+        Post post = postService.getPostBySlug(slug);
+        CursorPagedResult<Comment> comments = postService.findCommentsByPostId(
+                post.getId(), CommentCursor.decode(after), properties.commentsPageSize());
+        model.addAttribute("post", post);
+        model.addAttribute("comments", comments);
+        return "blog/post-details :: comment-page";
     }
 
     @PostMapping("/{slug}/comments")
     String addComment(@PathVariable String slug, @Valid CommentForm commentForm, Model model) {
         log.info("Adding comment to post with slug: {}", slug);
-        Post post = postService.getPostBySlug(slug);
-        commentForm.setPostId(post.getId());
+        commentForm.setPostId(postService.getPostIdBySlug(slug));
         User user = new User(UserContextUtils.getCurrentUserIdOrThrow());
         Comment comment = commentForm.toComment(user);
-        postService.createComment(comment);
+        commentWriteQueue.submit(comment);
         return "redirect:/posts/" + slug;
     }
+
+    /**
+     * Validates a page that renders the sidebar. Besides posts, the sidebar shows the most viewed and trending
+     * posts, and post details show view counts, so a flush of view counts or a newly published trending
+     * snapshot changes these pages too.
+     */
+    private boolean isPageNotModified(ServletWebRequest webRequest, ContentVersion... pageVersions) {
+        List<ContentVersion> versions = new ArrayList<>(List.of(pageVersions));
+        versions.add(postService.getPostsVersion());
+        versions.add(postViewCounter.getVersion());
+        versions.add(trendingRanker.getSnapshot().version());
+        return conditionalGetSupport.isNotModified(webRequest, versions.toArray(ContentVersion[]::new));
+    }
+
+    // Only views that render the sidebar need categories and tags, so this is not a @ModelAttribute method
+    private void addSidebarAttributes(Model model) {
+        List<Category> categories = categoryService.findAllCategories();
+        List<Tag> tags = tagService.findAllTags();
+        model.addAttribute("categories", categories);
+        model.addAttribute("tags", tags);
+        model.addAttribute("popularPosts", postViewCounter.getPopularPosts());
+        model.addAttribute("trendingPosts", trendingRanker.getSnapshot().top(SIDEBAR_TRENDING_POSTS));
+    }
+
+    private static boolean isCursorRequest(String after, String before) {
+        return after != null || before != null;
+    }
 }
@@ -2,6 +2,7 @@ package com.sivalabs.springblog.web.controllers;
 
 import com.sivalabs.springblog.domain.models.SecurityUser;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 class UserContextUtils {
@@ -12,4 +13,11 @@ class UserContextUtils {
         }
         throw new AccessDeniedException("Access denied");
     }
+
+    public static boolean isAnonymous() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated();
+    }
 }
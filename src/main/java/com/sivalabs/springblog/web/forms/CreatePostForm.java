@@ -4,7 +4,6 @@ import com.sivalabs.springblog.domain.models.Category;
 import com.sivalabs.springblog.domain.models.Post;
 import com.sivalabs.springblog.domain.models.PostStatus;
 import com.sivalabs.springblog.domain.models.User;
-import com.sivalabs.springblog.domain.services.MarkdownUtils;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -89,7 +88,6 @@ public class CreatePostForm {
         post.setSlug(this.slug);
         post.setShortDescription(this.shortDescription);
         post.setContentMarkdown(this.contentMarkdown);
-        post.setContentHtml(MarkdownUtils.toHTML(this.contentMarkdown));
         post.setCategory(new Category(this.categoryId));
         post.setStatus(this.status);
         post.setCreatedBy(user);
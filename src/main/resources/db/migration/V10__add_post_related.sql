@@ -0,0 +1,10 @@
+-- Precomputed related posts of each post, most similar first
+CREATE TABLE post_related
+(
+    post_id          bigint PRIMARY KEY REFERENCES posts (id) ON DELETE CASCADE,
+    related_post_ids bigint[] NOT NULL
+);
+
+-- Finds the posts whose lists mention a changed post. Without fastupdate, entries go straight into the index
+-- instead of a pending list that every lookup would have to scan until the next vacuum.
+CREATE INDEX idx_post_related_related_post_ids ON post_related USING gin (related_post_ids) WITH (fastupdate = off);
@@ -0,0 +1,10 @@
+-- Change counters read by the page validators. The statements that change the counted rows bump the counter
+-- in the same transaction, so validating a page reads one row instead of aggregating a whole table.
+CREATE TABLE content_versions
+(
+    name          VARCHAR(50) PRIMARY KEY,
+    version       BIGINT      NOT NULL DEFAULT 0,
+    last_modified TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO content_versions (name) VALUES ('comments');
@@ -0,0 +1,3 @@
+-- Id given to a comment when it is submitted, so that writing it again after a failure is a no-op
+ALTER TABLE comments ADD COLUMN client_id UUID;
+CREATE UNIQUE INDEX idx_comments_client_id ON comments (client_id);
@@ -0,0 +1,2 @@
+-- Lets max(coalesce(updated_date, created_date)) be answered from the index when validating cached pages
+CREATE INDEX idx_posts_last_modified ON posts ((coalesce(updated_date, created_date)));
@@ -0,0 +1,14 @@
+-- Tags and categories are looked up and upserted by slug. Names that slugify to the same value could be added
+-- twice before, so those rows are merged into the oldest one first.
+UPDATE post_tags pt SET tag_id = k.keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY slug) AS keep_id FROM tags) k
+WHERE pt.tag_id = k.id AND k.id <> k.keep_id;
+DELETE FROM tags a USING tags b WHERE a.slug = b.slug AND a.id > b.id;
+
+UPDATE posts p SET category_id = k.keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY slug) AS keep_id FROM categories) k
+WHERE p.category_id = k.id AND k.id <> k.keep_id;
+DELETE FROM categories a USING categories b WHERE a.slug = b.slug AND a.id > b.id;
+
+ALTER TABLE tags ADD CONSTRAINT tags_slug_key UNIQUE (slug);
+ALTER TABLE categories ADD CONSTRAINT categories_slug_key UNIQUE (slug);
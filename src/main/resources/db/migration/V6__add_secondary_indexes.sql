@@ -0,0 +1,17 @@
+-- Post listings are read newest first, optionally within one category; id breaks ties for keyset pagination
+CREATE INDEX idx_posts_created_date ON posts (created_date DESC, id DESC);
+CREATE INDEX idx_posts_category_created_date ON posts (category_id, created_date DESC, id DESC);
+
+-- post_tags had no key, so nothing prevented attaching the same tag twice
+DELETE FROM post_tags a USING post_tags b
+WHERE a.post_id = b.post_id AND a.tag_id = b.tag_id AND a.ctid > b.ctid;
+ALTER TABLE post_tags ADD CONSTRAINT post_tags_pkey PRIMARY KEY (post_id, tag_id);
+-- The primary key serves lookups by post; tag listings and counts go from the tag to its posts
+CREATE INDEX idx_post_tags_tag_id ON post_tags (tag_id, post_id);
+
+-- Comments are read per post in creation order, and newest first across all posts in the admin pages
+CREATE INDEX idx_comments_post_id_created_date ON comments (post_id, created_date);
+CREATE INDEX idx_comments_created_date ON comments (created_date DESC, id DESC);
+
+-- Users sign in with a case-insensitive email
+CREATE INDEX idx_users_lower_email ON users (lower(email));
@@ -0,0 +1,6 @@
+-- Comments of a post are paged in (created_date, id) order, so id has to be part of the index
+DROP INDEX idx_comments_post_id_created_date;
+CREATE INDEX idx_comments_post_id_created_date ON comments (post_id, created_date, id);
+
+-- The admin comments page can be narrowed down to one author, newest first
+CREATE INDEX idx_comments_created_by_created_date ON comments (created_by, created_date DESC, id DESC);
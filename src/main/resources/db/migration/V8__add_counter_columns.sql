@@ -0,0 +1,16 @@
+-- Denormalized counts, kept up to date by the statements that insert and delete comments and post tags
+ALTER TABLE posts ADD COLUMN comments_count int NOT NULL DEFAULT 0;
+ALTER TABLE tags ADD COLUMN posts_count int NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN posts_count int NOT NULL DEFAULT 0;
+
+UPDATE posts p SET comments_count = c.count
+FROM (SELECT post_id, count(*) AS count FROM comments GROUP BY post_id) c
+WHERE c.post_id = p.id;
+
+UPDATE tags t SET posts_count = pt.count
+FROM (SELECT tag_id, count(*) AS count FROM post_tags GROUP BY tag_id) pt
+WHERE pt.tag_id = t.id;
+
+UPDATE categories c SET posts_count = p.count
+FROM (SELECT category_id, count(*) AS count FROM posts GROUP BY category_id) p
+WHERE p.category_id = c.id;
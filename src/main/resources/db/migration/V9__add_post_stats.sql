@@ -0,0 +1,8 @@
+-- Per-post view counts, written in batches by the view counter rather than on every page view
+CREATE TABLE post_stats
+(
+    post_id    bigint PRIMARY KEY REFERENCES posts (id) ON DELETE CASCADE,
+    view_count bigint NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_post_stats_view_count ON post_stats (view_count DESC, post_id DESC);
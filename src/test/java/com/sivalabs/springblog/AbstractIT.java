@@ -1,10 +1,48 @@
 package com.sivalabs.springblog;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
+import com.sivalabs.springblog.config.QueryStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT)
+@AutoConfigureMockMvc
 @Import(TestcontainersConfig.class)
-public abstract class AbstractIT {}
+public abstract class AbstractIT {
+    @Autowired
+    protected MockMvc mockMvc;
+
+    /**
+     * Performs {@code GET url} and asserts that handling it ran at most {@code maxQueries} statements.
+     */
+    protected MvcResult assertQueryCount(String url, int maxQueries) throws Exception {
+        return assertQueryCount(get(url), maxQueries);
+    }
+
+    /**
+     * Performs the request and asserts that handling it, including the security filter chain and any
+     * transaction callbacks, succeeded and ran at most {@code maxQueries} statements.
+     */
+    protected MvcResult assertQueryCount(RequestBuilder request, int maxQueries) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        QueryStats stats = (QueryStats) result.getRequest().getAttribute(QueryStats.ATTRIBUTE);
+        String description =
+                result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        assertThat(result.getResponse().getStatus())
+                .as("status of %s", description)
+                .isLessThan(400);
+        assertThat(stats).as("query stats of %s", description).isNotNull();
+        assertThat(stats.statements())
+                .as("statements run by %s (%s)", description, stats)
+                .isLessThanOrEqualTo(maxQueries);
+        return result;
+    }
+}
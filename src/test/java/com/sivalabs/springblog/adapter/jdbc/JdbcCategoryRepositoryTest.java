@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.sivalabs.springblog.TestcontainersConfig;
 import com.sivalabs.springblog.domain.models.Category;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -89,4 +90,13 @@ class JdbcCategoryRepositoryTest {
         var category = categoryRepository.findBySlug("non-existent-slug");
         assertThat(category).isEmpty();
     }
+
+    @Test
+    void shouldGetOrCreateCategoriesByNames() {
+        List<Category> categories = categoryRepository.getOrCreateCategoriesByNames(List.of("Rust", "Elixir"));
+
+        assertThat(categories).extracting(Category::getSlug).containsExactly("rust", "elixir");
+        assertThat(categories.get(0).getId()).isEqualTo(9L);
+        assertThat(categoryRepository.findBySlug("elixir")).isPresent();
+    }
 }
@@ -4,9 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.sivalabs.springblog.TestcontainersConfig;
 import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.CommentCursor;
+import com.sivalabs.springblog.domain.models.CommentFilter;
+import com.sivalabs.springblog.domain.models.Counter;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
 import com.sivalabs.springblog.domain.models.User;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,11 +31,14 @@ class JdbcCommentRepositoryTest {
     @Autowired
     private JdbcClient jdbcClient;
 
+    @Autowired
+    private DataSource dataSource;
+
     private JdbcCommentRepository commentRepository;
 
     @BeforeEach
     void setUp() {
-        commentRepository = new JdbcCommentRepository(jdbcClient);
+        commentRepository = new JdbcCommentRepository(jdbcClient, dataSource);
     }
 
     @Test
@@ -40,6 +52,86 @@ class JdbcCommentRepositoryTest {
         assertThat(savedComment.getCreatedDate()).isNotNull();
     }
 
+    @Test
+    void shouldMaintainPostCommentsCount() {
+        Comment comment =
+                commentRepository.create(new Comment(null, "Counted Comment", 2L, new User(1L), LocalDateTime.now()));
+        commentRepository.createAll(List.of(
+                new Comment(null, "Counted 1", 2L, new User(1L), null),
+                new Comment(null, "Counted 2", 2L, new User(2L), null),
+                new Comment(null, "Counted 3", 3L, new User(2L), null)));
+        assertThat(commentsCount(2L)).isEqualTo(3);
+        assertThat(commentsCount(3L)).isEqualTo(1);
+
+        commentRepository.deleteById(comment.getId());
+        commentRepository.deleteCommentsByIds(List.of(1L, 2L));
+        assertThat(commentsCount(1L)).isZero();
+        assertThat(commentsCount(2L)).isEqualTo(2);
+
+        commentRepository.deleteCommentsByPostIds(List.of(2L, 3L));
+        assertThat(new JdbcCounterRepository(jdbcClient).findDriftedIds(Counter.POST_COMMENTS))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldCreateCommentsSkippingMissingPosts() {
+        Map<Long, Long> created = commentRepository.createAll(List.of(
+                new Comment(null, "Bulk 1", 2L, new User(1L), LocalDateTime.of(2030, 1, 1, 10, 0)),
+                new Comment(null, "Bulk 2", 999L, new User(1L), LocalDateTime.now()),
+                new Comment(null, "Bulk 3", 3L, new User(2L), null)));
+
+        assertThat(created.values()).containsExactlyInAnyOrder(2L, 3L);
+        Comment first = commentRepository.findByPostId(2L, null, 10).data().getFirst();
+        assertThat(first.getContent()).isEqualTo("Bulk 1");
+        assertThat(first.getCreatedDate()).isEqualTo(LocalDateTime.of(2030, 1, 1, 10, 0));
+        assertThat(commentRepository
+                        .findByPostId(3L, null, 10)
+                        .data()
+                        .getFirst()
+                        .getCreatedDate())
+                .isNotNull();
+    }
+
+    @Test
+    void shouldCreateCommentsOnlyOncePerClientId() {
+        Comment comment = new Comment(null, "Written twice", 2L, new User(1L), null);
+        comment.setClientId(UUID.randomUUID());
+        assertThat(commentRepository.createAll(List.of(comment))).hasSize(1);
+
+        Comment other = new Comment(null, "Other", 2L, new User(1L), null);
+        other.setClientId(UUID.randomUUID());
+        assertThat(commentRepository.createAll(List.of(comment, other)).values())
+                .containsExactly(2L);
+        assertThat(commentRepository.findByPostId(2L, null, 10).data())
+                .extracting(Comment::getContent)
+                .containsOnlyOnce("Written twice");
+        assertThat(commentsCount(2L)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBumpCommentsVersionWhenCommentsChange() {
+        long initial = commentsVersion();
+        commentRepository.createAll(List.of(new Comment(null, "Bulk", 999L, new User(1L), null)));
+        assertThat(commentsVersion()).isEqualTo(initial);
+
+        Comment comment =
+                commentRepository.create(new Comment(null, "Versioned", 2L, new User(1L), LocalDateTime.now()));
+        assertThat(commentsVersion()).isEqualTo(initial + 1);
+        commentRepository.deleteCommentsByIds(List.of(comment.getId()));
+        assertThat(commentsVersion()).isEqualTo(initial + 2);
+        commentRepository.deleteCommentsByPostIds(List.of(2L));
+        assertThat(commentsVersion()).isEqualTo(initial + 2);
+        commentRepository.deleteCommentsByPostIds(List.of(1L));
+        assertThat(commentsVersion()).isEqualTo(initial + 3);
+    }
+
+    @Test
+    void shouldFindPostIdsByCommentIds() {
+        assertThat(commentRepository.findPostIdsByCommentIds(List.of(1L, 2L, 999L)))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(1L, 1L, 2L, 1L));
+        assertThat(commentRepository.findPostIdsByCommentIds(List.of())).isEmpty();
+    }
+
     @Test
     void shouldFindCommentById() {
         var comment = commentRepository.findById(1L);
@@ -55,11 +147,84 @@ class JdbcCommentRepositoryTest {
 
     @Test
     void shouldFindCommentsByPostId() {
-        List<Comment> comments = commentRepository.findByPostId(1L);
+        List<Comment> comments = commentRepository.findByPostId(1L, null, 10).data();
         assertThat(comments).isNotEmpty();
         assertThat(comments.get(0).getPostId()).isEqualTo(1L);
     }
 
+    @Test
+    void shouldPageThroughCommentsOfPostInCreationOrder() {
+        LocalDateTime createdDate = LocalDateTime.of(2030, 1, 1, 10, 0);
+        for (int i = 1; i <= 5; i++) {
+            // Equal timestamps make the id the only tie breaker
+            commentRepository.create(new Comment(null, "Reply " + i, 3L, new User(2L), createdDate));
+        }
+
+        List<String> contents = new ArrayList<>();
+        CommentCursor cursor = null;
+        CursorPagedResult<Comment> page;
+        do {
+            page = commentRepository.findByPostId(3L, cursor, 2);
+            assertThat(page.data()).hasSizeLessThanOrEqualTo(2);
+            page.data().forEach(comment -> contents.add(comment.getContent()));
+            cursor = CommentCursor.decode(page.nextCursor());
+        } while (page.hasNext());
+
+        assertThat(contents).containsExactly("Reply 1", "Reply 2", "Reply 3", "Reply 4", "Reply 5");
+    }
+
+    @Test
+    void shouldFilterCommentsByPostAuthorAndDate() {
+        commentRepository.create(new Comment(null, "Old", 2L, new User(2L), LocalDateTime.of(2020, 5, 1, 23, 59)));
+        commentRepository.create(new Comment(null, "New", 2L, new User(2L), LocalDateTime.of(2020, 5, 2, 0, 0)));
+
+        var byAuthor = new CommentFilter(null, " Geovanny.Mendoza@Example.com ", null, LocalDate.of(2020, 12, 31));
+        var byDay = new CommentFilter(2L, null, LocalDate.of(2020, 5, 1), LocalDate.of(2020, 5, 1));
+        assertThat(commentRepository.findComments(byAuthor, null, null, 10).data())
+                .extracting(Comment::getContent)
+                .containsExactly("New", "Old");
+        assertThat(commentRepository.findComments(byDay, null, null, 10).data())
+                .extracting(Comment::getContent)
+                .containsExactly("Old");
+    }
+
+    @Test
+    void shouldPageThroughCommentsNewestFirstInBothDirections() {
+        for (int i = 1; i <= 5; i++) {
+            commentRepository.create(
+                    new Comment(null, "Comment " + i, 2L, new User(1L), LocalDateTime.of(2030, 1, 1, 10, i)));
+        }
+        var filter = new CommentFilter(2L, null, null, null);
+
+        CursorPagedResult<Comment> first = commentRepository.findComments(filter, null, null, 2);
+        CursorPagedResult<Comment> second =
+                commentRepository.findComments(filter, CommentCursor.decode(first.nextCursor()), null, 2);
+        CursorPagedResult<Comment> back =
+                commentRepository.findComments(filter, null, CommentCursor.decode(second.previousCursor()), 2);
+
+        assertThat(first.data()).extracting(Comment::getContent).containsExactly("Comment 5", "Comment 4");
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(second.data()).extracting(Comment::getContent).containsExactly("Comment 3", "Comment 2");
+        assertThat(second.hasPrevious()).isTrue();
+        assertThat(second.hasNext()).isTrue();
+        assertThat(back.data()).extracting(Comment::getContent).containsExactly("Comment 5", "Comment 4");
+        assertThat(back.hasPrevious()).isFalse();
+    }
+
+    @Test
+    void shouldStreamFilteredCommentsNewestFirst() {
+        List<Comment> streamed = new ArrayList<>();
+        commentRepository.streamComments(new CommentFilter(1L, null, null, null), streamed::add);
+        assertThat(streamed).extracting(Comment::getPostId).containsOnly(1L);
+        assertThat(streamed).hasSize(2);
+        assertThat(streamed.get(0).getCreatedDate())
+                .isAfterOrEqualTo(streamed.get(1).getCreatedDate());
+
+        List<Comment> none = new ArrayList<>();
+        commentRepository.streamComments(new CommentFilter(null, "nobody@example.com", null, null), none::add);
+        assertThat(none).isEmpty();
+    }
+
     @Test
     void shouldDeleteComment() {
         // Create a new comment first
@@ -85,14 +250,31 @@ class JdbcCommentRepositoryTest {
         commentRepository.create(comment2);
 
         // Verify comments exist for this post
-        List<Comment> commentsBeforeDelete = commentRepository.findByPostId(postId);
+        List<Comment> commentsBeforeDelete =
+                commentRepository.findByPostId(postId, null, 10).data();
         assertThat(commentsBeforeDelete).isNotEmpty();
 
         // Delete comments for this post
         commentRepository.deleteCommentsByPostIds(List.of(postId));
 
         // Verify they're deleted
-        List<Comment> commentsAfterDelete = commentRepository.findByPostId(postId);
+        List<Comment> commentsAfterDelete =
+                commentRepository.findByPostId(postId, null, 10).data();
         assertThat(commentsAfterDelete).isEmpty();
     }
+
+    private int commentsCount(Long postId) {
+        return jdbcClient
+                .sql("select comments_count from posts where id = ?")
+                .param(postId)
+                .query(Integer.class)
+                .single();
+    }
+
+    private long commentsVersion() {
+        return jdbcClient
+                .sql("select version from content_versions where name = 'comments'")
+                .query(Long.class)
+                .single();
+    }
 }
@@ -3,6 +3,17 @@ package com.sivalabs.springblog.adapter.jdbc;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Category;
+import com.sivalabs.springblog.domain.models.Counter;
+import com.sivalabs.springblog.domain.models.CursorPagedResult;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostCursor;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.Tag;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,4 +41,162 @@ class JdbcPostRepositoryTest {
         Long count = postRepository.findPostsCount();
         assertThat(count).isEqualTo(22); // Based on test-data.sql
     }
+
+    @Test
+    void shouldCountPostsByCategoryAndTag() {
+        assertThat(postRepository.countPostsByCategorySlug("java")).contains(6L);
+        assertThat(postRepository.countPostsByTagSlug("quarkus")).contains(2L);
+        assertThat(postRepository.countPostsByTagSlug("no-such-tag")).isEmpty();
+        assertThat(postRepository.estimatePostsCount()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void shouldPageThroughPostsUsingCursors() {
+        CursorPagedResult<PostSummary> firstPage = postRepository.findAllPosts(null, null, 10);
+        assertThat(firstPage.data())
+                .extracting(PostSummary::getId)
+                .startsWith(22L, 21L)
+                .hasSize(10);
+        assertThat(firstPage.hasPrevious()).isFalse();
+        assertThat(firstPage.hasNext()).isTrue();
+
+        CursorPagedResult<PostSummary> secondPage =
+                postRepository.findAllPosts(PostCursor.decode(firstPage.nextCursor()), null, 10);
+        assertThat(secondPage.data())
+                .extracting(PostSummary::getId)
+                .startsWith(12L, 11L)
+                .hasSize(10);
+        assertThat(secondPage.hasPrevious()).isTrue();
+        assertThat(secondPage.hasNext()).isTrue();
+
+        CursorPagedResult<PostSummary> lastPage =
+                postRepository.findAllPosts(PostCursor.decode(secondPage.nextCursor()), null, 10);
+        assertThat(lastPage.data()).extracting(PostSummary::getId).containsExactly(2L, 1L);
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldPageBackwardsUsingBeforeCursor() {
+        CursorPagedResult<PostSummary> firstPage = postRepository.findAllPosts(null, null, 10);
+        CursorPagedResult<PostSummary> secondPage =
+                postRepository.findAllPosts(PostCursor.decode(firstPage.nextCursor()), null, 10);
+
+        CursorPagedResult<PostSummary> previousPage =
+                postRepository.findAllPosts(null, PostCursor.decode(secondPage.previousCursor()), 10);
+
+        assertThat(previousPage.data())
+                .extracting(PostSummary::getId)
+                .containsExactlyElementsOf(
+                        firstPage.data().stream().map(PostSummary::getId).toList());
+        assertThat(previousPage.hasPrevious()).isFalse();
+        assertThat(previousPage.hasNext()).isTrue();
+    }
+
+    @Test
+    void shouldPagePostsByTagSlugUsingCursors() {
+        CursorPagedResult<PostSummary> firstPage = postRepository.findPostsByTagSlug("java", null, null, 1);
+        assertThat(firstPage.data()).extracting(PostSummary::getId).containsExactly(3L);
+        assertThat(firstPage.hasNext()).isTrue();
+
+        CursorPagedResult<PostSummary> secondPage =
+                postRepository.findPostsByTagSlug("java", PostCursor.decode(firstPage.nextCursor()), null, 1);
+        assertThat(secondPage.data()).extracting(PostSummary::getId).containsExactly(1L);
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldNotLoadPostContentForListings() {
+        var pagedResult = postRepository.findAllPosts(1, 5);
+        assertThat(pagedResult.totalElements()).isEqualTo(22);
+        assertThat(pagedResult.data()).hasSize(5);
+        assertThat(pagedResult.data().getFirst().getCategory().getName()).isNotNull();
+        assertThat(pagedResult.data().getFirst().getCreatedBy().getName()).isNotNull();
+    }
+
+    @Test
+    void shouldPageThroughPostsCreatedAtTheSameTime() {
+        jdbcClient.sql("UPDATE posts SET created_date = '2024-01-01 10:00:00'").update();
+
+        List<Long> ids = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            postRepository.findAllPosts(page, 10).data().forEach(post -> ids.add(post.getId()));
+        }
+        assertThat(ids).hasSize(22).doesNotHaveDuplicates().isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(postRepository.findPostsByCategorySlug("java", 1, 3).data())
+                .extracting(PostSummary::getId)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void shouldIgnoreMalformedCursor() {
+        assertThat(PostCursor.decode("not-a-cursor")).isNull();
+        assertThat(PostCursor.decode(null)).isNull();
+    }
+
+    @Test
+    void shouldFindPostVersionBySlug() {
+        var firstPost = postRepository.findPostVersionBySlug("first-post");
+        assertThat(firstPost).isPresent();
+        assertThat(firstPost.get().count()).isEqualTo(2);
+        assertThat(postRepository.findPostVersionBySlug("second-post").get().count())
+                .isZero();
+        assertThat(postRepository.findPostVersionBySlug("no-such-post")).isEmpty();
+        assertThat(postRepository.findPostsActivity().lastModified()).isNotNull();
+    }
+
+    @Test
+    void shouldSyncPostTagsOnUpdate() {
+        Post post = postRepository.findById(1L).orElseThrow();
+        post.setTags(Set.of(new Tag(2L), new Tag(3L), new Tag(4L)));
+        postRepository.update(post);
+        assertThat(tagIdsOfPost(1L)).containsExactlyInAnyOrder(2L, 3L, 4L);
+
+        post.setTags(Set.of());
+        postRepository.update(post);
+        assertThat(tagIdsOfPost(1L)).isEmpty();
+
+        post.setTags(Set.of(new Tag(1L), new Tag(5L)));
+        postRepository.update(post);
+        assertThat(tagIdsOfPost(1L)).containsExactlyInAnyOrder(1L, 5L);
+    }
+
+    @Test
+    void shouldMaintainTagAndCategoryPostCounts() {
+        var counterRepository = new JdbcCounterRepository(jdbcClient);
+        Post post = postRepository.findById(1L).orElseThrow();
+        int javaPosts = postsCount("categories", 1L);
+        int pythonPosts = postsCount("categories", 2L);
+        int springBootPosts = postsCount("tags", 1L);
+        int quarkusPosts = postsCount("tags", 3L);
+
+        post.setCategory(new Category(2L));
+        post.setTags(Set.of(new Tag(2L), new Tag(3L)));
+        postRepository.update(post);
+        assertThat(postsCount("categories", 1L)).isEqualTo(javaPosts - 1);
+        assertThat(postsCount("categories", 2L)).isEqualTo(pythonPosts + 1);
+        assertThat(postsCount("tags", 1L)).isEqualTo(springBootPosts - 1);
+        assertThat(postsCount("tags", 3L)).isEqualTo(quarkusPosts + 1);
+
+        postRepository.deletePostsByIds(List.of(3L));
+        for (Counter counter : List.of(Counter.TAG_POSTS, Counter.CATEGORY_POSTS)) {
+            assertThat(counterRepository.findDriftedIds(counter)).isEmpty();
+        }
+    }
+
+    private int postsCount(String table, Long id) {
+        return jdbcClient
+                .sql("select posts_count from " + table + " where id = ?")
+                .param(id)
+                .query(Integer.class)
+                .single();
+    }
+
+    private List<Long> tagIdsOfPost(Long postId) {
+        return jdbcClient
+                .sql("select tag_id from post_tags where post_id = ?")
+                .param(postId)
+                .query(Long.class)
+                .list();
+    }
 }
@@ -0,0 +1,93 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.jdbc.Sql;
+
+@JdbcTest
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class JdbcPostSearchRepositoryTest {
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private JdbcPostSearchRepository searchRepository;
+
+    @BeforeEach
+    void setUp() {
+        searchRepository = new JdbcPostSearchRepository(jdbcClient);
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveBodyMatches() {
+        insertPost(101, "Structured concurrency", "Running many virtual threads at once");
+        insertPost(102, "Virtual threads explained", "A closer look at the new scheduler");
+
+        List<PostSearchHit> hits = searchRepository.search("virtual threads", null, 10);
+
+        assertThat(hits).extracting(PostSearchHit::postId).containsExactly(102L, 101L);
+        assertThat(hits.get(0).rank()).isGreaterThan(hits.get(1).rank());
+    }
+
+    @Test
+    void shouldMatchStemmedWordsAndIgnoreQuerySyntaxErrors() {
+        insertPost(101, "Structured concurrency", "Running many virtual threads at once");
+
+        assertThat(searchRepository.search("thread running", null, 10))
+                .extracting(PostSearchHit::postId)
+                .containsExactly(101L);
+        assertThat(searchRepository.search("\"virtual & ) threads", null, 10))
+                .extracting(PostSearchHit::postId)
+                .containsExactly(101L);
+        assertThat(searchRepository.search("kubernetes", null, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldPageThroughAllMatchesWithCursors() {
+        List<PostSearchHit> all = new ArrayList<>();
+        SearchCursor cursor = null;
+        List<PostSearchHit> page;
+        do {
+            page = searchRepository.search("post", cursor, 5);
+            all.addAll(page);
+            cursor = page.isEmpty()
+                    ? null
+                    : SearchCursor.decode(SearchCursor.of(page.getLast()).encode());
+        } while (page.size() == 5);
+
+        assertThat(all).hasSize(22);
+        assertThat(all).extracting(PostSearchHit::postId).doesNotHaveDuplicates();
+        for (int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i).rank()).isLessThanOrEqualTo(all.get(i - 1).rank());
+        }
+    }
+
+    @Test
+    void shouldTreatMalformedCursorsAsFirstPage() {
+        assertThat(SearchCursor.decode(null)).isNull();
+        assertThat(SearchCursor.decode("not a cursor")).isNull();
+        assertThat(SearchCursor.decode(new SearchCursor(0.5f, 7L).encode())).isEqualTo(new SearchCursor(0.5f, 7L));
+    }
+
+    private void insertPost(long id, String title, String markdown) {
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO posts (id, title, slug, short_description, content_markdown, content_html, category_id, status, created_by)
+                VALUES (?, ?, ?, '', ?, '', 1, 'PUBLISHED', 1)
+                """)
+                .params(id, title, "search-post-" + id, markdown)
+                .update();
+    }
+}
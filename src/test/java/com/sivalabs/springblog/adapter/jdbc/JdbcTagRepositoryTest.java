@@ -124,4 +124,18 @@ class JdbcTagRepositoryTest {
         var tag = tagRepository.findBySlug("non-existent-slug");
         assertThat(tag).isEmpty();
     }
+
+    @Test
+    void shouldGetOrCreateTagsByNames() {
+        List<Tag> tags = tagRepository.getOrCreateTagsByNames(List.of("Java", "Brand New", "brand new", "Quarkus"));
+
+        assertThat(tags).extracting(Tag::getSlug).containsExactly("java", "brand-new", "quarkus");
+        assertThat(tags.get(0).getId()).isEqualTo(1L);
+        assertThat(tags.get(2).getId()).isEqualTo(3L);
+        assertThat(tags.get(1).getId()).isNotNull();
+        assertThat(tagRepository.findBySlug("brand-new")).isPresent();
+
+        List<Tag> again = tagRepository.getOrCreateTagsByNames(List.of("Brand New"));
+        assertThat(again).extracting(Tag::getId).containsExactly(tags.get(1).getId());
+    }
 }
@@ -0,0 +1,355 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Category;
+import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.CommentCursor;
+import com.sivalabs.springblog.domain.models.CommentFilter;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostCursor;
+import com.sivalabs.springblog.domain.models.PostStatus;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import com.sivalabs.springblog.domain.models.Tag;
+import com.sivalabs.springblog.domain.models.User;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * Runs every repository query against a large synthetic data set and checks the plans with
+ * {@code EXPLAIN (FORMAT JSON)}.
+ * <p>
+ * The statements are recorded while calling the real repository methods, so this test cannot drift
+ * from the SQL the application runs. Queries on hot paths must not sequentially scan the tables that
+ * grow with content, nor sort more than a page's worth of candidate rows. Categories and tags are
+ * excluded: there are few of them and they are cached. Cold queries (admin listings of whole tables
+ * and total counts) are only checked to be valid.
+ */
+@JdbcTest
+@Import(TestcontainersConfig.class)
+class QueryPlanTest {
+    private static final Set<String> GROWING_TABLES =
+            Set.of("posts", "post_tags", "comments", "users", "post_stats", "post_related");
+    private static final int MAX_SORTED_ROWS = 1000;
+
+    private static final int USERS = 5_000;
+    private static final int CATEGORIES = 10;
+    private static final int TAGS = 500;
+    private static final int POSTS = 20_000;
+    private static final int COMMENTS = 100_000;
+    private static final long ID_OFFSET = 1_000_000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesShouldUseIndexes() {
+        seedSyntheticData();
+        RecordingDataSource recorder = new RecordingDataSource(dataSource);
+        JdbcClient client = JdbcClient.create(recorder);
+        var posts = new JdbcPostRepository(client);
+        var comments = new JdbcCommentRepository(client, recorder);
+        var tags = new JdbcTagRepository(client);
+        var categories = new JdbcCategoryRepository(client);
+        var users = new JdbcUserRepository(client);
+        var search = new JdbcPostSearchRepository(client);
+        var stats = new JdbcPostStatsRepository(client);
+        var related = new JdbcRelatedPostRepository(client);
+
+        long postId = ID_OFFSET + POSTS / 2;
+        String postSlug = "synthetic-post-" + (POSTS / 2);
+        String categorySlug = "category-7";
+        String tagSlug = "tag-42";
+        PostCursor cursor = PostCursor.of(LocalDateTime.now().minusDays(100), postId);
+        CommentCursor commentCursor = new CommentCursor(LocalDateTime.now().minusDays(10), ID_OFFSET + 50_000);
+        String author = "User-17@Example.com";
+        LocalDate today = LocalDate.now();
+        List<Long> pageOfIds = List.of(postId, postId + 1, postId + 2, postId + 3, postId + 4);
+
+        List<QueryCase> cases = List.of(
+                hot("posts page", () -> posts.findAllPosts(1, 10, POSTS)),
+                hot("deep posts page", () -> posts.findAllPosts(100, 10, POSTS)),
+                hot("posts after cursor", () -> posts.findAllPosts(cursor, null, 10)),
+                hot("posts before cursor", () -> posts.findAllPosts(null, cursor, 10)),
+                hot("category page", () -> posts.findPostsByCategorySlug(categorySlug, 1, 10, 2000)),
+                hot("category after cursor", () -> posts.findPostsByCategorySlug(categorySlug, cursor, null, 10)),
+                hot("tag page", () -> posts.findPostsByTagSlug(tagSlug, 1, 10, 120)),
+                hot("tag after cursor", () -> posts.findPostsByTagSlug(tagSlug, cursor, null, 10)),
+                hot("category count", () -> posts.countPostsByCategorySlug(categorySlug)),
+                hot("tag count", () -> posts.countPostsByTagSlug(tagSlug)),
+                hot("post by slug", () -> posts.findBySlug(postSlug)),
+                hot("post by id", () -> posts.findById(postId)),
+                hot("post id by slug", () -> posts.findIdBySlug(postSlug)),
+                hot("post summaries by ids", () -> posts.findPostSummariesByIds(pageOfIds)),
+                hot("post version by slug", () -> posts.findPostVersionBySlug(postSlug)),
+                hot("posts activity", posts::findPostsActivity),
+                hot("search documents by ids", () -> posts.findSearchDocumentsByIds(pageOfIds)),
+                hot("search documents batch", () -> posts.findSearchDocuments(ID_OFFSET + 5_000, 1000)),
+                hot("tags of posts", () -> tags.findTagsByPostIds(pageOfIds)),
+                hot("tag by slug", () -> tags.findBySlug(tagSlug)),
+                hot("tags by names", () -> tags.getOrCreateTagsByNames(List.of("Tag 1", "Tag 2", "Brand new"))),
+                hot("category by slug", () -> categories.findBySlug(categorySlug)),
+                hot("categories by names", () -> categories.getOrCreateCategoriesByNames(List.of("Category 3"))),
+                hot("comments of post", () -> comments.findByPostId(postId, null, 20)),
+                hot("comments of post after cursor", () -> comments.findByPostId(postId, commentCursor, 20)),
+                hot("comments page", () -> comments.findComments(CommentFilter.none(), null, null, 20)),
+                hot(
+                        "comments after cursor",
+                        () -> comments.findComments(CommentFilter.none(), commentCursor, null, 20)),
+                hot(
+                        "comments before cursor",
+                        () -> comments.findComments(CommentFilter.none(), null, commentCursor, 20)),
+                hot(
+                        "comments of post filtered",
+                        () -> comments.findComments(new CommentFilter(postId, null, null, null), null, null, 20)),
+                hot(
+                        "comments of author",
+                        () -> comments.findComments(new CommentFilter(null, author, null, null), null, null, 20)),
+                hot(
+                        "comments in date range",
+                        () -> comments.findComments(
+                                new CommentFilter(null, null, today.minusDays(3), today), commentCursor, null, 20)),
+                hot(
+                        "comments of author in date range",
+                        () -> comments.findComments(
+                                new CommentFilter(null, author, today.minusDays(30), today), null, null, 20)),
+                hot(
+                        "export comments of post",
+                        () -> comments.streamComments(new CommentFilter(postId, null, null, null), comment -> {})),
+                hot("comment by id", () -> comments.findById(ID_OFFSET + 10)),
+                hot("post ids of comments", () -> comments.findPostIdsByCommentIds(pageOfIds)),
+                hot("user by email", () -> users.findByEmail("User-17@Example.com")),
+                hot("search", () -> search.search("synthetic-topic-123", null, 10)),
+                hot(
+                        "search after cursor",
+                        () -> search.search("synthetic-topic-123", new SearchCursor(0.5f, postId), 10)),
+                hot("create post", () -> posts.create(newPost("created-post"))),
+                hot("create posts", () -> posts.createAll(List.of(newPost("imported-1"), newPost("imported-2")))),
+                hot("update post", () -> {
+                    Post post = posts.findById(postId).orElseThrow();
+                    post.setTags(Set.of(new Tag(ID_OFFSET + 1), new Tag(ID_OFFSET + 2)));
+                    posts.update(post);
+                }),
+                hot(
+                        "add view counts",
+                        () -> stats.addViewCounts(Map.of(postId, 3L, postId + 1, 1L, ID_OFFSET - 1, 1L))),
+                hot("most viewed posts", () -> stats.findMostViewedPosts(5)),
+                hot("related posts", () -> related.findRelatedPosts(postId)),
+                hot("posts related to", () -> related.findPostIdsRelatedTo(List.of(postId, postId + 1))),
+                hot("recompute related posts", () -> related.recompute(pageOfIds, 5, 0.2)),
+                hot("create comment", () -> comments.create(newComment(postId))),
+                hot("create comments", () -> comments.createAll(List.of(newComment(postId), newComment(postId + 1)))),
+                hot("delete comments", () -> comments.deleteCommentsByIds(List.of(ID_OFFSET + 1, ID_OFFSET + 2))),
+                hot("delete posts", () -> {
+                    comments.deleteCommentsByPostIds(List.of(ID_OFFSET + 1));
+                    posts.deletePostsByIds(List.of(ID_OFFSET + 1));
+                }),
+                cold("posts count", posts::findPostsCount),
+                cold("posts estimate", posts::estimatePostsCount),
+                cold("export all comments", () -> comments.streamComments(CommentFilter.none(), comment -> {})),
+                cold(
+                        "recent comment activity",
+                        () -> comments.findCommentActivity(LocalDateTime.now().minusDays(8))),
+                cold("related posts batch", () -> related.findPostIds(ID_OFFSET, 500, false)),
+                cold("posts without related posts", () -> related.findPostIds(ID_OFFSET, 500, true)),
+                cold("all tags", tags::findAll),
+                cold("all categories", categories::findAll));
+
+        return cases.stream()
+                .map(queryCase -> dynamicTest(queryCase.name(), () -> {
+                    recorder.clear();
+                    queryCase.action().run();
+                    assertThat(recorder.statements()).as("statements").isNotEmpty();
+                    for (RecordingDataSource.RecordedStatement statement : recorder.statements()) {
+                        JsonNode plan = explain(statement);
+                        if (queryCase.hot()) {
+                            List<String> problems = new ArrayList<>();
+                            findProblems(plan, problems);
+                            assertThat(problems)
+                                    .as("plan of %s%n%s", statement.sql(), plan.toPrettyString())
+                                    .isEmpty();
+                        }
+                    }
+                }));
+    }
+
+    private JsonNode explain(RecordingDataSource.RecordedStatement statement) throws Throwable {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement explain = statement.prepare(connection, "EXPLAIN (FORMAT JSON) ");
+                ResultSet rs = explain.executeQuery()) {
+            rs.next();
+            return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void findProblems(JsonNode node, List<String> problems) {
+        String nodeType = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText();
+        if (nodeType.equals("Seq Scan") && GROWING_TABLES.contains(relation)) {
+            problems.add("sequential scan on " + relation);
+        }
+        if (nodeType.endsWith("Sort")) {
+            double sortedRows = node.path("Plans").path(0).path("Plan Rows").asDouble();
+            if (sortedRows > MAX_SORTED_ROWS) {
+                problems.add("sort of ~" + (long) sortedRows + " rows on " + node.path("Sort Key"));
+            }
+        }
+        node.path("Plans").forEach(child -> findProblems(child, problems));
+    }
+
+    // Few enough rows to seed in a couple of seconds, enough for the planner to prefer indexes where it should
+    private void seedSyntheticData() {
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO users (id, email, password, name, role)
+                SELECT :offset + i, 'user-' || i || '@example.com', 'secret', 'User ' || i, 'ROLE_USER'
+                FROM generate_series(1, :users) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("users", USERS)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO categories (id, name, slug)
+                SELECT :offset + i, 'Category ' || i, 'category-' || i FROM generate_series(1, :categories) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("categories", CATEGORIES)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO tags (id, name, slug)
+                SELECT :offset + i, 'Tag ' || i, 'tag-' || i FROM generate_series(1, :tags) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("tags", TAGS)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO posts (id, title, slug, short_description, content_markdown, content_html, status,
+                                   category_id, created_by, created_date, updated_date)
+                SELECT :offset + i, 'Synthetic post ' || i, 'synthetic-post-' || i, 'About synthetic-topic-' || (i % 2000),
+                       repeat('Lorem ipsum dolor sit amet. ', 20) || 'synthetic-topic-' || (i % 2000),
+                       '<p>Lorem ipsum</p>', CASE WHEN i % 10 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END,
+                       :offset + 1 + i % :categories, :offset + 1 + i % :users,
+                       now() - make_interval(mins => i * 15), CASE WHEN i % 7 = 0 THEN now() END
+                FROM generate_series(1, :posts) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("categories", CATEGORIES)
+                .param("users", USERS)
+                .param("posts", POSTS)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO post_tags (post_id, tag_id)
+                SELECT DISTINCT :offset + i, :offset + 1 + (i * k * 7) % :tags
+                FROM generate_series(1, :posts) i, generate_series(1, 3) k
+                """)
+                .param("offset", ID_OFFSET)
+                .param("tags", TAGS)
+                .param("posts", POSTS)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO comments (id, content, post_id, created_by, created_date)
+                SELECT :offset + i, 'Comment ' || i, :offset + 1 + (i * 31) % :posts, :offset + 1 + i % :users,
+                       now() - make_interval(mins => i)
+                FROM generate_series(1, :comments) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("posts", POSTS)
+                .param("users", USERS)
+                .param("comments", COMMENTS)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO post_stats (post_id, view_count)
+                SELECT :offset + i, (i * 7919) % 100000 FROM generate_series(1, :posts) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("posts", POSTS)
+                .update();
+        jdbcClient
+                .sql(
+                        """
+                INSERT INTO post_related (post_id, related_post_ids)
+                SELECT :offset + i, ARRAY(SELECT :offset + 1 + (i + k) % :posts FROM generate_series(1, 5) k)
+                FROM generate_series(1, :posts) i
+                """)
+                .param("offset", ID_OFFSET)
+                .param("posts", POSTS)
+                .update();
+        jdbcClient
+                .sql("ANALYZE users, categories, tags, posts, post_tags, comments, post_stats, post_related")
+                .update();
+    }
+
+    private static Post newPost(String slug) {
+        return new Post(
+                null,
+                "Title of " + slug,
+                slug,
+                "Description",
+                "Markdown",
+                "<p>Markdown</p>",
+                new Category(ID_OFFSET + 1),
+                Set.of(new Tag(ID_OFFSET + 1)),
+                PostStatus.PUBLISHED,
+                new User(ID_OFFSET + 1),
+                LocalDateTime.now());
+    }
+
+    private static Comment newComment(long postId) {
+        Comment comment = new Comment();
+        comment.setContent("New comment");
+        comment.setPostId(postId);
+        comment.setCreatedBy(new User(ID_OFFSET + 1));
+        comment.setCreatedDate(LocalDateTime.now());
+        return comment;
+    }
+
+    private static QueryCase hot(String name, Runnable action) {
+        return new QueryCase(name, true, action);
+    }
+
+    private static QueryCase cold(String name, Runnable action) {
+        return new QueryCase(name, false, action);
+    }
+
+    private record QueryCase(String name, boolean hot, Runnable action) {}
+}
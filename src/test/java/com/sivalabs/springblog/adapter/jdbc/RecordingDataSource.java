@@ -0,0 +1,108 @@
+package com.sivalabs.springblog.adapter.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records every statement executed through it, with its bind calls, so tests can replay the exact
+ * statements a repository method issues. Connections come from the current transaction of the
+ * target data source, so recorded statements see the test's uncommitted data.
+ */
+class RecordingDataSource extends DelegatingDataSource {
+    private final List<RecordedStatement> statements = new ArrayList<>();
+
+    RecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    List<RecordedStatement> statements() {
+        return List.copyOf(statements);
+    }
+
+    void clear() {
+        statements.clear();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = obtainTargetDataSource();
+        Connection connection = DataSourceUtils.getConnection(target);
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "close" -> {
+                DataSourceUtils.releaseConnection(connection, target);
+                yield null;
+            }
+            case "prepareStatement" -> {
+                RecordedStatement recorded = record((String) args[0]);
+                PreparedStatement statement = (PreparedStatement) invoke(method, connection, args);
+                yield proxy(PreparedStatement.class, (statementProxy, statementMethod, statementArgs) -> {
+                    if (statementMethod.getName().startsWith("set")
+                            && statementArgs != null
+                            && statementArgs.length >= 2
+                            && statementArgs[0] instanceof Integer) {
+                        recorded.binds().add(new Bind(statementMethod, statementArgs));
+                    }
+                    return invoke(statementMethod, statement, statementArgs);
+                });
+            }
+            case "createStatement" -> {
+                Statement statement = (Statement) invoke(method, connection, args);
+                yield proxy(Statement.class, (statementProxy, statementMethod, statementArgs) -> {
+                    if (statementMethod.getName().startsWith("execute")
+                            && statementArgs != null
+                            && statementArgs[0] instanceof String sql) {
+                        record(sql);
+                    }
+                    return invoke(statementMethod, statement, statementArgs);
+                });
+            }
+            default -> invoke(method, connection, args);
+        });
+    }
+
+    private RecordedStatement record(String sql) {
+        RecordedStatement statement = new RecordedStatement(sql, new ArrayList<>());
+        statements.add(statement);
+        return statement;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    record Bind(Method method, Object[] args) {}
+
+    record RecordedStatement(String sql, List<Bind> binds) {
+
+        /**
+         * Prepares {@code prefix + sql} on the given connection with the recorded bind values.
+         */
+        PreparedStatement prepare(Connection connection, String prefix) throws Throwable {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+            for (Bind bind : binds) {
+                invoke(bind.method(), statement, bind.args());
+            }
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sivalabs.springblog.adapter.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.data.PostRepository;
+import com.sivalabs.springblog.domain.data.PostSearchRepository;
+import com.sivalabs.springblog.domain.events.PostEvent;
+import com.sivalabs.springblog.domain.models.Category;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostSearchDocument;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.PostStatus;
+import com.sivalabs.springblog.domain.models.User;
+import com.sivalabs.springblog.domain.services.PostService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(properties = "blog.search.backend=in-memory")
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class InMemoryPostSearchRepositoryTest {
+    @Autowired
+    PostSearchRepository searchRepository;
+
+    @Autowired
+    PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        ((InMemoryPostSearchRepository) searchRepository).rebuild();
+    }
+
+    @Test
+    void shouldRebuildIndexFromDatabase() {
+        assertThat(searchRepository).isInstanceOf(InMemoryPostSearchRepository.class);
+        assertThat(searchRepository.search("twelfth", null, 10))
+                .extracting(PostSearchHit::postId)
+                .containsExactly(12L);
+        assertThat(searchRepository.search("post", null, 100)).hasSize(22);
+    }
+
+    @Test
+    void shouldFollowPostChanges() {
+        var post = new Post(
+                null,
+                "Garbage collection tuning",
+                "garbage-collection-tuning",
+                "Pause times",
+                "Tuning ZGC",
+                "<p>Tuning ZGC</p>",
+                new Category(1L),
+                Set.of(),
+                PostStatus.PUBLISHED,
+                new User(1L),
+                LocalDateTime.now());
+        postService.createPost(post);
+        assertThat(searchRepository.search("zgc pause", null, 10))
+                .extracting(PostSearchHit::postId)
+                .containsExactly(post.getId());
+
+        Post updated = postService.getPostById(post.getId());
+        updated.setContentMarkdown("Tuning Shenandoah");
+        postService.updatePost(updated);
+        assertThat(searchRepository.search("zgc", null, 10)).isEmpty();
+        assertThat(searchRepository.search("shenandoah", null, 10)).hasSize(1);
+
+        postService.deletePostsByIds(List.of(post.getId(), 12L));
+        assertThat(searchRepository.search("shenandoah", null, 10)).isEmpty();
+        assertThat(searchRepository.search("twelfth", null, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepChangesMadeDuringRebuild() {
+        PostRepository posts = mock(PostRepository.class);
+        var repository = new InMemoryPostSearchRepository(posts);
+        var stale = new PostSearchDocument(1L, "Virtual threads", "", "Pinning");
+        var current = new PostSearchDocument(1L, "Virtual threads", "", "Structured concurrency");
+        when(posts.findSearchDocumentsByIds(anyList())).thenReturn(List.of(current));
+        // The post changes after the rebuild has read it, but before the new index replaces the old one
+        when(posts.findSearchDocuments(anyLong(), anyInt())).thenAnswer(invocation -> {
+            repository.onPostEvent(new PostEvent(PostEvent.Type.UPDATED, 1L, null, null));
+            return List.of(stale);
+        });
+
+        repository.rebuild();
+
+        assertThat(repository.search("pinning", null, 10)).isEmpty();
+        assertThat(repository.search("structured", null, 10))
+                .extracting(PostSearchHit::postId)
+                .containsExactly(1L);
+    }
+}
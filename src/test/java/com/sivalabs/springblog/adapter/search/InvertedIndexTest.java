@@ -0,0 +1,79 @@
+package com.sivalabs.springblog.adapter.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.domain.models.PostSearchDocument;
+import com.sivalabs.springblog.domain.models.PostSearchHit;
+import com.sivalabs.springblog.domain.models.SearchCursor;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void shouldRankTitleMatchesAboveBodyMatches() {
+        index.put(new PostSearchDocument(1L, "Structured concurrency", "", "Running many virtual threads at once"));
+        index.put(new PostSearchDocument(2L, "Virtual threads explained", "", "A closer look at the scheduler"));
+        index.put(new PostSearchDocument(3L, "Records", "Virtual machine internals", "Nothing about threading"));
+
+        List<PostSearchHit> hits = index.search("Virtual THREADS", null, 10);
+
+        assertThat(hits).extracting(PostSearchHit::postId).containsExactly(2L, 1L);
+        assertThat(hits.get(0).rank()).isGreaterThan(hits.get(1).rank());
+        assertThat(index.search("thread", null, 10)).hasSize(2);
+        assertThat(index.search("the of and", null, 10)).isEmpty();
+        assertThat(index.search("kubernetes threads", null, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceAndRemovePosts() {
+        index.put(new PostSearchDocument(1L, "Spring Boot testing", "", ""));
+        index.put(new PostSearchDocument(1L, "Quarkus testing", "", ""));
+
+        assertThat(index.search("spring", null, 10)).isEmpty();
+        assertThat(index.search("quarkus", null, 10))
+                .extracting(PostSearchHit::postId)
+                .containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        assertThat(index.remove(1L)).isTrue();
+        assertThat(index.remove(1L)).isFalse();
+        assertThat(index.search("testing", null, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepResultsStableAcrossCompaction() {
+        for (long id = 1; id <= 300; id++) {
+            String topic = id % 2 == 0 ? "java" : "kotlin";
+            index.put(new PostSearchDocument(id, "Post " + id + " about " + topic, "", "word".repeat((int) id % 7)));
+        }
+        for (long id = 1; id <= 200; id++) {
+            index.remove(id);
+        }
+
+        assertThat(index.size()).isEqualTo(100);
+        List<PostSearchHit> java = index.search("java", null, 100);
+        assertThat(java).hasSize(50).allMatch(hit -> hit.postId() > 200 && hit.postId() % 2 == 0);
+    }
+
+    @Test
+    void shouldPageThroughAllMatchesWithCursors() {
+        for (long id = 1; id <= 23; id++) {
+            index.put(new PostSearchDocument(id, "Post " + id, "java ".repeat((int) id % 3 + 1), ""));
+        }
+        List<PostSearchHit> all = new ArrayList<>();
+        SearchCursor cursor = null;
+        List<PostSearchHit> page;
+        do {
+            page = index.search("java", cursor, 5);
+            all.addAll(page);
+            cursor = page.isEmpty() ? null : SearchCursor.of(page.getLast());
+        } while (page.size() == 5);
+
+        assertThat(all).hasSize(23);
+        assertThat(all).extracting(PostSearchHit::postId).doesNotHaveDuplicates();
+        assertThat(all).isEqualTo(index.search("java", null, 100));
+    }
+}
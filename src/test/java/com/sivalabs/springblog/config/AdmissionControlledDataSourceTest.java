@@ -0,0 +1,76 @@
+package com.sivalabs.springblog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlledDataSourceTest {
+    private DataSource pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    void shouldAdmitWaitingCallerWhenConnectionIsClosed() throws Exception {
+        var dataSource = new AdmissionControlledDataSource(pool, 1, 1, Duration.ofSeconds(5));
+        Connection first = dataSource.getConnection();
+
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(second).isNotDone();
+
+        first.close();
+        first.close();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isNotNull();
+        second.get().close();
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void shouldTurnCallersAwayWhenQueueIsFullOrWaitIsOver() throws Exception {
+        var dataSource = new AdmissionControlledDataSource(pool, 1, 0, Duration.ofSeconds(5));
+        Connection held = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("already waiting");
+
+        var patient = new AdmissionControlledDataSource(pool, 1, 1, Duration.ofMillis(50));
+        Connection heldByPatient = patient.getConnection();
+        assertThatThrownBy(patient::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("within 50 ms");
+
+        held.close();
+        heldByPatient.close();
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws Exception {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        var dataSource = new AdmissionControlledDataSource(pool, 1, 0, Duration.ofMillis(50));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+    }
+}
@@ -0,0 +1,66 @@
+package com.sivalabs.springblog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sivalabs.springblog.AbstractIT;
+import com.sivalabs.springblog.domain.services.MarkdownRenderer;
+import com.sivalabs.springblog.web.cache.PostPageCache;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.jdbc.Sql;
+
+@Sql("/test-data.sql")
+class FlightRecordingEndpointTest extends AbstractIT {
+    @Autowired
+    PostPageCache postPageCache;
+
+    @Autowired
+    MarkdownRenderer markdownRenderer;
+
+    @Test
+    void shouldNotDumpRecordingForAnonymousUsers() throws Exception {
+        mockMvc.perform(get("/actuator/jfr")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails("siva@gmail.com")
+    void shouldDumpRecordingWithRequestPhases(@TempDir Path dir) throws Exception {
+        postPageCache.clear();
+        mockMvc.perform(get("/posts/second-post")).andExpect(status().isOk());
+        markdownRenderer.render("# Recorded " + UUID.randomUUID());
+
+        byte[] dump = mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        Path file = Files.write(dir.resolve("dump.jfr"), dump);
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.sivalabs.springblog."))
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertThat(events.get("com.sivalabs.springblog.Controller")).anySatisfy(event -> {
+            assertThat(event.getString("handler")).isEqualTo("PostController.getPostDetails");
+            assertThat(event.getString("path")).isEqualTo("/posts/second-post");
+            assertThat(event.getInt("status")).isEqualTo(200);
+        });
+        assertThat(events.get("com.sivalabs.springblog.ViewRender"))
+                .anySatisfy(event -> assertThat(event.getString("view")).isEqualTo("blog/post-details"));
+        assertThat(events.get("com.sivalabs.springblog.RepositoryCall"))
+                .anySatisfy(event -> assertThat(event.getString("sqlId")).isEqualTo("JdbcPostRepository.findBySlug"));
+        assertThat(events.get("com.sivalabs.springblog.MarkdownRender"))
+                .anySatisfy(event -> assertThat(event.getInt("markdownLength")).isEqualTo(47));
+    }
+}
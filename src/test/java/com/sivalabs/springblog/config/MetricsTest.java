@@ -0,0 +1,79 @@
+package com.sivalabs.springblog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sivalabs.springblog.AbstractIT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.jdbc.Sql;
+
+@Sql("/test-data.sql")
+class MetricsTest extends AbstractIT {
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRecordRepositoryViewAndCacheMetrics() {
+        restTemplate.getForEntity("/posts", String.class);
+        restTemplate.getForEntity("/posts/first-post", String.class);
+
+        Timer postsPage = meterRegistry
+                .find(RepositoryMetricsInterceptor.CALLS)
+                .tags("repository", "JdbcPostRepository", "outcome", "success")
+                .timer();
+        assertThat(postsPage).isNotNull();
+        assertThat(postsPage.count()).isPositive();
+        assertThat(meterRegistry
+                        .find(RepositoryMetricsInterceptor.ROWS)
+                        .tag("repository", "JdbcPostRepository")
+                        .summaries())
+                .anySatisfy(rows -> assertThat(rows.totalAmount()).isPositive());
+
+        assertThat(meterRegistry
+                        .find(ViewRenderMetricsInterceptor.RENDER)
+                        .tag("view", "blog/posts")
+                        .timer())
+                .isNotNull()
+                .satisfies(render -> assertThat(render.count()).isPositive());
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "post-pages").meters())
+                .isNotEmpty();
+        assertThat(meterRegistry.find("hikaricp.connections.max").gauge()).isNotNull();
+        assertThat(meterRegistry.find("blog.db.admission.available").gauge()).isNotNull();
+    }
+
+    @Test
+    void shouldOnlyExposeHealthAndInfoToAnonymousUsers() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/info")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldLetScrapersAuthenticateWithHttpBasic() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("siva@gmail.com", "secret")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("geovanny.mendoza@example.com", "secret")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("siva@gmail.com", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithUserDetails("siva@gmail.com")
+    void shouldExposeMetricsToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,53 @@
+package com.sivalabs.springblog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class QueryTrackingDataSourceTest {
+
+    @Test
+    void shouldCountExecutionsOfOpenStats() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        when(connection.createStatement()).thenAnswer(invocation -> mock(Statement.class));
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(connection);
+        var dataSource = new QueryTrackingDataSource(pool, Duration.ofSeconds(1));
+
+        try (Connection tracked = dataSource.getConnection()) {
+            tracked.prepareStatement("select 1").executeQuery();
+
+            QueryStats stats = QueryStats.open();
+            try {
+                PreparedStatement insert = tracked.prepareStatement("insert into tags (name) values (?)");
+                insert.setString(1, "java");
+                insert.addBatch();
+                insert.setString(1, "kotlin");
+                insert.addBatch();
+                insert.executeBatch();
+                tracked.createStatement().execute("select 2");
+            } finally {
+                stats.close();
+            }
+            tracked.prepareStatement("select 3").executeQuery();
+
+            assertThat(stats.statements()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldMaskLiteralsInLoggedSql() {
+        assertThat(QueryTrackingDataSource.redact(
+                        "select *\n  from users where email = 'it''s@example.com' and id = ?"))
+                .isEqualTo("select * from users where email = ? and id = ?");
+    }
+}
@@ -0,0 +1,40 @@
+package com.sivalabs.springblog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.AbstractIT;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+
+class SchedulingConfigTest extends AbstractIT {
+    @Autowired
+    TaskScheduler taskScheduler;
+
+    @Test
+    void shouldRunFixedDelayTasksWhileAnotherOneIsBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(1);
+        ScheduledFuture<?> slow = taskScheduler.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                Duration.ofHours(1));
+        ScheduledFuture<?> fast = taskScheduler.scheduleWithFixedDelay(ran::countDown, Duration.ofHours(1));
+        try {
+            assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+            slow.cancel(true);
+            fast.cancel(true);
+        }
+    }
+}
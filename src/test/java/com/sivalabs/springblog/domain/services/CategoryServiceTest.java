@@ -6,6 +6,7 @@ import com.sivalabs.springblog.TestcontainersConfig;
 import com.sivalabs.springblog.domain.data.CategoryRepository;
 import com.sivalabs.springblog.domain.models.Category;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -22,6 +23,14 @@ class CategoryServiceTest {
     @Autowired
     CategoryRepository categoryRepository;
 
+    @Autowired
+    TaxonomyCache taxonomyCache;
+
+    @BeforeEach
+    void setUp() {
+        taxonomyCache.clear();
+    }
+
     @Test
     void shouldGetAllCategories() {
         List<Category> categories = categoryService.findAllCategories();
@@ -52,4 +61,21 @@ class CategoryServiceTest {
         assertThat(savedCategory).isPresent();
         assertThat(savedCategory.get().getName()).isEqualTo(newCategoryName);
     }
+
+    @Test
+    void shouldForgetDeletedCategories() {
+        Category category = categoryService.getOrCreateCategoryByName("Deleted Category");
+        assertThat(categoryService.findAllCategories())
+                .extracting(Category::getId)
+                .contains(category.getId());
+
+        categoryService.deleteCategory(category.getId());
+
+        assertThat(categoryService.findAllCategories())
+                .extracting(Category::getId)
+                .doesNotContain(category.getId());
+        Category recreated = categoryService.getOrCreateCategoryByName("Deleted Category");
+        assertThat(recreated.getId()).isNotEqualTo(category.getId());
+        assertThat(categoryRepository.findById(recreated.getId())).isPresent();
+    }
 }
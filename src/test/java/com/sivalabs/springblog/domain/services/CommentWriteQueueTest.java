@@ -0,0 +1,112 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.User;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(
+        properties = {
+            "blog.comment-queue.batch-size=7",
+            "blog.comment-queue.spill-file=target/comment-write-queue-test/pending-comments.jsonl",
+            "blog.comment-queue.dead-letter-file=target/comment-write-queue-test/failed-comments.jsonl"
+        })
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class CommentWriteQueueTest {
+    private static final Path SPILL_FILE = Path.of("target/comment-write-queue-test/pending-comments.jsonl");
+    private static final Path DEAD_LETTER_FILE = Path.of("target/comment-write-queue-test/failed-comments.jsonl");
+
+    @Autowired
+    CommentWriteQueue commentWriteQueue;
+
+    @Autowired
+    PostService postService;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(SPILL_FILE);
+        Files.deleteIfExists(DEAD_LETTER_FILE);
+    }
+
+    @Test
+    void shouldWriteSubmittedComments() {
+        for (int i = 1; i <= 30; i++) {
+            commentWriteQueue.submit(comment(2L, "Queued comment " + i));
+        }
+        // The post is gone, so this one is dropped without failing the rest of its batch
+        commentWriteQueue.submit(comment(999L, "Comment on a missing post"));
+
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(commentsOf(2L)).hasSize(30));
+        assertThat(commentsOf(2L)).extracting(Comment::getContent).contains("Queued comment 1", "Queued comment 30");
+    }
+
+    @Test
+    void shouldWriteSpilledComments() throws IOException {
+        commentWriteQueue.spill(List.of(comment(3L, "Spilled comment 1"), comment(3L, "Spilled comment 2")));
+        assertThat(SPILL_FILE).exists();
+        Files.writeString(SPILL_FILE, "{\"content\":\"cut sh", StandardOpenOption.APPEND);
+
+        commentWriteQueue.replaySpilled();
+
+        assertThat(commentsOf(3L))
+                .extracting(Comment::getContent)
+                .containsExactly("Spilled comment 1", "Spilled comment 2");
+        assertThat(SPILL_FILE).doesNotExist();
+    }
+
+    @Test
+    void shouldMoveRejectedSpilledCommentsToDeadLetterFile() throws IOException {
+        Comment rejected = new Comment(null, "Comment by a missing user", 3L, new User(999L), LocalDateTime.now());
+        commentWriteQueue.spill(List.of(comment(3L, "Spilled comment 1"), rejected, comment(3L, "Spilled comment 2")));
+
+        commentWriteQueue.replaySpilled();
+
+        assertThat(commentsOf(3L))
+                .extracting(Comment::getContent)
+                .containsExactly("Spilled comment 1", "Spilled comment 2");
+        assertThat(SPILL_FILE).doesNotExist();
+        assertThat(Files.readAllLines(DEAD_LETTER_FILE))
+                .singleElement()
+                .asString()
+                .contains("Comment by a missing user");
+    }
+
+    @Test
+    void shouldNotDuplicateSpilledCommentsThatWereWrittenAlready() {
+        Comment comment = comment(3L, "Written before the failure");
+        comment.setClientId(UUID.randomUUID());
+        postService.createComments(List.of(comment));
+        commentWriteQueue.spill(List.of(comment));
+
+        commentWriteQueue.replaySpilled();
+
+        assertThat(commentsOf(3L)).extracting(Comment::getContent).containsExactly("Written before the failure");
+        assertThat(SPILL_FILE).doesNotExist();
+    }
+
+    private List<Comment> commentsOf(Long postId) {
+        return postService.findCommentsByPostId(postId, null, 100).data();
+    }
+
+    private static Comment comment(Long postId, String content) {
+        return new Comment(null, content, postId, new User(2L), LocalDateTime.now());
+    }
+}
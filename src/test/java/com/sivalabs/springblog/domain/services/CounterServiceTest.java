@@ -0,0 +1,49 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Counter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class CounterServiceTest {
+    @Autowired
+    CounterService counterService;
+
+    @Autowired
+    JdbcClient jdbcClient;
+
+    @Test
+    void shouldCorrectDriftedCounters() {
+        jdbcClient.sql("update posts set comments_count = 7 where id in (1, 2)").update();
+        jdbcClient.sql("update tags set posts_count = 0 where id = 1").update();
+        jdbcClient.sql("update categories set posts_count = posts_count + 1").update();
+
+        assertThat(counterService.reconcile(Counter.POST_COMMENTS)).isEqualTo(2);
+        assertThat(counterService.reconcile(Counter.TAG_POSTS)).isEqualTo(1);
+        assertThat(counterService.reconcile(Counter.CATEGORY_POSTS))
+                .isEqualTo(jdbcClient
+                        .sql("select count(*) from categories")
+                        .query(Integer.class)
+                        .single());
+
+        assertThat(count("select comments_count from posts where id = 1")).isEqualTo(2);
+        assertThat(count("select comments_count from posts where id = 2")).isZero();
+        assertThat(count("select posts_count from tags where id = 1")).isEqualTo(2);
+        for (Counter counter : Counter.values()) {
+            assertThat(counterService.reconcile(counter)).isZero();
+        }
+    }
+
+    private int count(String sql) {
+        return jdbcClient.sql(sql).query(Integer.class).single();
+    }
+}
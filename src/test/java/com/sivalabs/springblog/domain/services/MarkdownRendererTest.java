@@ -0,0 +1,31 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MarkdownRendererTest {
+    private final MarkdownRenderer renderer = new MarkdownRenderer(List.of(), 1024 * 1024, new SimpleMeterRegistry());
+
+    @Test
+    void shouldRenderMarkdownToHtml() {
+        String html = renderer.render("# Title\n\nSome *emphasis*.");
+        assertThat(html).isEqualTo("<h1>Title</h1>\n<p>Some <em>emphasis</em>.</p>\n");
+    }
+
+    @Test
+    void shouldReturnCachedHtmlForSameContent() {
+        String first = renderer.render("Hello **world**");
+        String second = renderer.render("Hello **world**");
+        assertThat(second).isSameAs(first);
+        assertThat(renderer.render("Hello *world*")).isEqualTo("<p>Hello <em>world</em></p>\n");
+    }
+
+    @Test
+    void shouldRenderEmptyContentAsEmptyHtml() {
+        assertThat(renderer.render(null)).isEmpty();
+        assertThat(renderer.render("")).isEmpty();
+    }
+}
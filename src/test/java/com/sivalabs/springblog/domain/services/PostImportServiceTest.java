@@ -0,0 +1,120 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostImportEntry;
+import com.sivalabs.springblog.domain.models.PostImportResult;
+import com.sivalabs.springblog.domain.models.Tag;
+import com.sivalabs.springblog.domain.models.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(properties = {"blog.post-import.batch-size=2", "blog.post-import.parallelism=2"})
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class PostImportServiceTest {
+    @Autowired
+    PostImportService postImportService;
+
+    @Autowired
+    PostService postService;
+
+    @Autowired
+    PostCountCache postCountCache;
+
+    @Autowired
+    TaxonomyCache taxonomyCache;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        postCountCache.clear();
+        taxonomyCache.clear();
+    }
+
+    @Test
+    void shouldImportPostsInBatches() {
+        LocalDateTime publishedAt = LocalDateTime.of(2020, 5, 17, 10, 30);
+        List<PostImportEntry> entries = List.of(
+                entry("imported-one", "Java", Set.of("Java", "Imported Tag"), null, () -> "# One"),
+                entry("imported-two", "Imported Category", Set.of(), publishedAt, () -> "Two *posts*"),
+                entry("first-post", "Java", Set.of("Java"), null, () -> "# Already exists"),
+                entry("unreadable", "Java", Set.of(), null, () -> {
+                    throw new IOException("missing file");
+                }),
+                entry("imported-three", "Python", Set.of("python"), null, () -> "Three"));
+
+        PostImportResult result = postImportService.importPosts(entries, new User(1L));
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(postImportService.getProgress().isFinished()).isTrue();
+        assertThat(importedPosts("total")).isEqualTo(5);
+        assertThat(importedPosts("rendered")).isEqualTo(4);
+        assertThat(importedPosts("imported")).isEqualTo(3);
+        assertThat(importedPosts("skipped")).isEqualTo(1);
+        assertThat(importedPosts("failed")).isEqualTo(1);
+        assertThat(meterRegistry.get("blog.post.import").timer().count()).isPositive();
+        assertThat(postService.getPosts(1, 10).totalElements()).isEqualTo(25);
+
+        Post one = postService.getPostBySlug("imported-one");
+        assertThat(one.getContentHtml()).isEqualTo("<h1>One</h1>\n");
+        assertThat(one.getCategory().getSlug()).isEqualTo("java");
+        assertThat(one.getTags()).extracting(Tag::getSlug).containsExactlyInAnyOrder("java", "imported-tag");
+
+        Post two = postService.getPostBySlug("imported-two");
+        assertThat(two.getCategory().getName()).isEqualTo("Imported Category");
+        assertThat(two.getCreatedDate()).isEqualTo(publishedAt);
+    }
+
+    @Test
+    void shouldSkipPostsRepeatingASlugOfTheSameBatch() {
+        List<PostImportEntry> entries = List.of(
+                entry("imported-twice", "Java", Set.of("Java"), null, () -> "First"),
+                new PostImportEntry(
+                        "Another title", "imported-twice", "Second", "Python", Set.of("python"), null, () -> "Second"));
+
+        PostImportResult result = postImportService.importPosts(entries, new User(1L));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.skipped()).isEqualTo(1);
+        Post post = postService.getPostBySlug("imported-twice");
+        assertThat(post.getContentMarkdown()).isEqualTo("First");
+        assertThat(post.getTags()).extracting(Tag::getSlug).containsExactly("java");
+        assertThat(postService.getPostsByCategorySlug("python", 1, 10).totalElements())
+                .isEqualTo(4);
+    }
+
+    private double importedPosts(String state) {
+        return meterRegistry
+                .get("blog.post.import.posts")
+                .tag("state", state)
+                .gauge()
+                .value();
+    }
+
+    private static PostImportEntry entry(
+            String slug,
+            String category,
+            Set<String> tags,
+            LocalDateTime createdDate,
+            PostImportEntry.MarkdownSource markdown) {
+        return new PostImportEntry(
+                "Title of " + slug, slug, "Description of " + slug, category, tags, createdDate, markdown);
+    }
+}
@@ -7,9 +7,12 @@ import com.sivalabs.springblog.TestcontainersConfig;
 import com.sivalabs.springblog.domain.data.CommentRepository;
 import com.sivalabs.springblog.domain.exceptions.ResourceNotFoundException;
 import com.sivalabs.springblog.domain.models.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,18 +30,29 @@ class PostServiceTest {
     @Autowired
     CommentRepository commentRepository;
 
+    @Autowired
+    PostCountCache postCountCache;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        postCountCache.clear();
+    }
+
     @Nested
     class PostTests {
         @Test
         void shouldGetPosts() {
-            PagedResult<Post> pagedResult = postService.getPosts(1, 10);
+            PagedResult<PostSummary> pagedResult = postService.getPosts(1, 10);
             assertThat(pagedResult.totalElements()).isEqualTo(22);
         }
 
         @Test
         void shouldFindPostsByCategorySlug() {
             // Java category has posts in test data
-            PagedResult<Post> pagedResult = postService.getPostsByCategorySlug("java", 1, 10);
+            PagedResult<PostSummary> pagedResult = postService.getPostsByCategorySlug("java", 1, 10);
             // The count might vary depending on test execution order, so we just verify it's not empty
             assertThat(pagedResult.totalElements()).isGreaterThan(0);
             assertThat(pagedResult.data()).isNotEmpty();
@@ -47,7 +61,7 @@ class PostServiceTest {
 
         @Test
         void shouldReturnEmptyResultWhenCategorySlugNotFound() {
-            PagedResult<Post> pagedResult = postService.getPostsByCategorySlug("non-existent-category", 1, 10);
+            PagedResult<PostSummary> pagedResult = postService.getPostsByCategorySlug("non-existent-category", 1, 10);
             assertThat(pagedResult.totalElements()).isEqualTo(0);
             assertThat(pagedResult.data()).isEmpty();
         }
@@ -55,18 +69,19 @@ class PostServiceTest {
         @Test
         void shouldFindPostsByTagSlug() {
             // Java tag (id=1) is associated with posts 1 and 3
-            PagedResult<Post> pagedResult = postService.getPostsByTagSlug("java", 1, 10);
+            PagedResult<PostSummary> pagedResult = postService.getPostsByTagSlug("java", 1, 10);
             assertThat(pagedResult.totalElements()).isEqualTo(2);
             assertThat(pagedResult.data()).hasSize(2);
 
             // Extract post IDs and verify they include posts 1 and 3
-            List<Long> postIds = pagedResult.data().stream().map(Post::getId).toList();
+            List<Long> postIds =
+                    pagedResult.data().stream().map(PostSummary::getId).toList();
             assertThat(postIds).containsExactlyInAnyOrder(1L, 3L);
         }
 
         @Test
         void shouldReturnEmptyResultWhenTagSlugNotFound() {
-            PagedResult<Post> pagedResult = postService.getPostsByTagSlug("non-existent-tag", 1, 10);
+            PagedResult<PostSummary> pagedResult = postService.getPostsByTagSlug("non-existent-tag", 1, 10);
             assertThat(pagedResult.totalElements()).isEqualTo(0);
             assertThat(pagedResult.data()).isEmpty();
         }
@@ -84,6 +99,13 @@ class PostServiceTest {
                     .isInstanceOf(ResourceNotFoundException.class);
         }
 
+        @Test
+        void shouldResolvePostIdBySlug() {
+            assertThat(postService.getPostIdBySlug("first-post")).isEqualTo(1L);
+            assertThatThrownBy(() -> postService.getPostIdBySlug("non-existent-post"))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
         @Test
         void shouldFindPostById() {
             Post post = postService.getPostById(1L);
@@ -132,6 +154,45 @@ class PostServiceTest {
             assertThatThrownBy(() -> postService.getPostById(4L)).isInstanceOf(ResourceNotFoundException.class);
         }
 
+        @Test
+        void shouldKeepCachedPostCountsInSyncWithDeletes() {
+            assertThat(postService.getPosts(1, 10).totalElements()).isEqualTo(22);
+            assertThat(postService.getPostsByCategorySlug("python", 1, 10).totalElements())
+                    .isEqualTo(4);
+            assertThat(postService.getPostsByTagSlug("java", 1, 10).totalElements())
+                    .isEqualTo(2);
+
+            postService.deletePostsByIds(List.of(3L, 4L));
+
+            assertThat(postService.getPosts(1, 10).totalElements()).isEqualTo(20);
+            assertThat(postService.getPostsByCategorySlug("python", 1, 10).totalElements())
+                    .isEqualTo(3);
+            assertThat(postService.getPostsByTagSlug("java", 1, 10).totalElements())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void shouldNotCachePostCountsOfUnknownSlugs() {
+            for (int i = 0; i < 100; i++) {
+                assertThat(postService
+                                .getPostsByCategorySlug("no-such-category-" + i, 1, 10)
+                                .totalElements())
+                        .isZero();
+                assertThat(postService
+                                .getPostsByTagSlug("no-such-tag-" + i, 1, 10)
+                                .totalElements())
+                        .isZero();
+            }
+            postService.getPostsByCategorySlug("python", 1, 10);
+
+            assertThat(meterRegistry
+                            .get("cache.size")
+                            .tag("cache", "post-counts")
+                            .gauge()
+                            .value())
+                    .isEqualTo(1);
+        }
+
         @Test
         void shouldHandleEmptyListInDeletePostsByIds() {
             // This should not throw an exception
@@ -174,11 +235,21 @@ class PostServiceTest {
 
         @Test
         void shouldFindAllComments() {
-            List<Comment> comments = postService.findAllComments();
+            List<Comment> comments = postService
+                    .findComments(CommentFilter.none(), null, null, 10)
+                    .data();
             assertThat(comments).isNotEmpty();
             assertThat(comments.size()).isGreaterThanOrEqualTo(1);
         }
 
+        @Test
+        void shouldExportComments() {
+            List<Comment> exported = new ArrayList<>();
+            postService.exportComments(new CommentFilter(1L, null, null, null), exported::add);
+            assertThat(exported).extracting(Comment::getPostId).containsOnly(1L);
+            assertThat(exported).hasSize(2);
+        }
+
         @Test
         void shouldDeleteCommentsByIds() {
             // Create a few new comments first
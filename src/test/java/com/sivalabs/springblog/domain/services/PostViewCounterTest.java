@@ -0,0 +1,66 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.PopularPost;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class PostViewCounterTest {
+    private static final String BROWSER = "Mozilla/5.0 (X11; Linux x86_64; rv:131.0) Gecko/20100101 Firefox/131.0";
+
+    @Autowired
+    PostViewCounter postViewCounter;
+
+    @Autowired
+    PostService postService;
+
+    @Test
+    void shouldFlushViewCountsAndRankPopularPosts() {
+        postViewCounter.flush();
+        for (int i = 0; i < 3; i++) {
+            postViewCounter.recordView(2L, BROWSER);
+        }
+        postViewCounter.recordView(1L, BROWSER);
+        postViewCounter.recordView(1L, "Googlebot/2.1 (+http://www.google.com/bot.html)");
+        postViewCounter.recordView(1L, null);
+        postViewCounter.flush();
+        postViewCounter.recordView(1L, BROWSER);
+        postViewCounter.flush();
+
+        assertThat(postService.getPostById(2L).getViewCount()).isEqualTo(3);
+        assertThat(postService.getPostById(1L).getViewCount()).isEqualTo(2);
+        assertThat(postViewCounter.getPopularPosts())
+                .extracting(PopularPost::id)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldChangeVersionOnlyWhenViewsAreWritten() {
+        postViewCounter.flush();
+        ContentVersion before = postViewCounter.getVersion();
+
+        postViewCounter.flush();
+        assertThat(postViewCounter.getVersion()).isEqualTo(before);
+
+        postViewCounter.recordView(1L, BROWSER);
+        postViewCounter.flush();
+        assertThat(postViewCounter.getVersion()).isNotEqualTo(before);
+    }
+
+    @Test
+    void shouldDetectBots() {
+        assertThat(PostViewCounter.isBot(BROWSER)).isFalse();
+        assertThat(PostViewCounter.isBot("curl/8.5.0")).isTrue();
+        assertThat(PostViewCounter.isBot("facebookexternalhit/1.1")).isTrue();
+        assertThat(PostViewCounter.isBot("")).isTrue();
+    }
+}
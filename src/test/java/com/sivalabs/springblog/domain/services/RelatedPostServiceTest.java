@@ -0,0 +1,66 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Post;
+import com.sivalabs.springblog.domain.models.PostSummary;
+import com.sivalabs.springblog.domain.models.Tag;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class RelatedPostServiceTest {
+    @Autowired
+    RelatedPostService relatedPostService;
+
+    @Autowired
+    PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        relatedPostService.computeMissing();
+    }
+
+    @Test
+    void shouldRankPostsSharingTagsFirst() {
+        List<Long> relatedIds = relatedPostIds(1L);
+
+        assertThat(relatedIds).hasSizeLessThanOrEqualTo(5).doesNotContain(1L);
+        assertThat(relatedIds.subList(0, 2)).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void shouldRefreshRelatedPostsOfNeighboursWhenTagsChange() {
+        Post post = postService.getPostById(4L);
+        post.setTags(Set.of(new Tag(1L), new Tag(2L)));
+        postService.updatePost(post);
+
+        // Refreshed in the background after the change commits
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(relatedPostIds(4L)).startsWith(1L);
+            assertThat(relatedPostIds(1L)).startsWith(4L);
+        });
+
+        postService.deletePostsByIds(List.of(4L));
+
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(relatedPostIds(1L)).doesNotContain(4L));
+    }
+
+    private List<Long> relatedPostIds(Long postId) {
+        return relatedPostService.getRelatedPosts(postId).stream()
+                .map(PostSummary::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class StringUtilsTest {
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            value = {
+                "Spring Boot|spring-boot",
+                "  Java   21  |java-21",
+                "Café au lait|cafe-au-lait",
+                "Crème Brûlée!|creme-brulee",
+                "C++ & Go|c-go",
+                "Spring-Boot|springboot",
+                "a - b|a-b",
+                "日本語|''",
+                "Ünïcödé Tëst|unicode-test",
+                "!!!|''",
+            })
+    void shouldCreateSlugs(String input, String slug) {
+        assertThat(StringUtils.toSlug(input)).isEqualTo(slug);
+    }
+
+    @Test
+    void shouldReturnEmptySlugForEmptyInput() {
+        assertThat(StringUtils.toSlug(null)).isEmpty();
+        assertThat(StringUtils.toSlug("")).isEmpty();
+    }
+
+    @Test
+    void shouldMatchRegexBasedSlugs() {
+        String alphabet = "aZ9 \t\n-_.!éÉñçß日 ́";
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder input = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertThat(StringUtils.toSlug(input.toString()))
+                    .as("slug of \"%s\"", input)
+                    .isEqualTo(regexSlug(input.toString()));
+        }
+    }
+
+    // How slugs were created before toSlug became a single pass
+    private static String regexSlug(String input) {
+        String withoutAccents = Normalizer.normalize(input, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        String alphanumeric = withoutAccents.replaceAll("[^a-zA-Z0-9\\s]", "");
+        return alphanumeric.trim().replaceAll("\\s+", "-").toLowerCase(Locale.ROOT);
+    }
+}
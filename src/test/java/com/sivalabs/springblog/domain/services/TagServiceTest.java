@@ -5,7 +5,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.sivalabs.springblog.TestcontainersConfig;
 import com.sivalabs.springblog.domain.data.TagRepository;
 import com.sivalabs.springblog.domain.models.Tag;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -23,6 +25,17 @@ class TagServiceTest {
     @Autowired
     TagRepository tagRepository;
 
+    @Autowired
+    TaxonomyCache taxonomyCache;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        taxonomyCache.clear();
+    }
+
     @Test
     void shouldGetAllTags() {
         List<Tag> tags = tagService.findAllTags();
@@ -55,4 +68,52 @@ class TagServiceTest {
         assertThat(savedTag).isPresent();
         assertThat(savedTag.get().getName()).isEqualTo(newTagName);
     }
+
+    @Test
+    void shouldRefreshCachedTagsWhenNewTagIsCreated() {
+        assertThat(tagService.findAllTags()).hasSize(10);
+
+        tagService.getOrCreateTagByName("Cached Tag");
+
+        assertThat(tagService.findAllTags())
+                .hasSize(11)
+                .extracting(Tag::getSlug)
+                .contains("cached-tag");
+    }
+
+    @Test
+    void shouldResolveTagsInBulkAndCacheTheirSlugs() {
+        List<Tag> tags = tagService.getOrCreateTagsByNames(List.of("Java", "Bulk Tag"));
+        assertThat(tags).extracting(Tag::getSlug).containsExactly("java", "bulk-tag");
+        double hits = slugCacheHits();
+
+        assertThat(tagService.getOrCreateTagsByNames(List.of("Bulk Tag", "Java")))
+                .extracting(Tag::getId)
+                .containsExactly(tags.get(1).getId(), tags.get(0).getId());
+        assertThat(slugCacheHits()).isEqualTo(hits + 2);
+    }
+
+    @Test
+    void shouldForgetDeletedTags() {
+        Tag tag = tagService.getOrCreateTagByName("Deleted Tag");
+        assertThat(tagService.findAllTags()).extracting(Tag::getId).contains(tag.getId());
+
+        tagService.deleteTag(tag.getId());
+
+        assertThat(tagService.findAllTags()).extracting(Tag::getId).doesNotContain(tag.getId());
+        Tag recreated = tagService.getOrCreateTagByName("Deleted Tag");
+        assertThat(recreated.getId()).isNotEqualTo(tag.getId());
+        assertThat(tagRepository.findBySlug("deleted-tag"))
+                .get()
+                .extracting(Tag::getId)
+                .isEqualTo(recreated.getId());
+    }
+
+    private double slugCacheHits() {
+        return meterRegistry
+                .get("cache.gets")
+                .tags("cache", "tags-by-slug", "result", "hit")
+                .functionCounter()
+                .count();
+    }
 }
@@ -0,0 +1,100 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.sivalabs.springblog.TestcontainersConfig;
+import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.ContentVersion;
+import com.sivalabs.springblog.domain.models.TrendingPost;
+import com.sivalabs.springblog.domain.models.User;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(properties = "blog.trending.size=3")
+@Import(TestcontainersConfig.class)
+@Sql("/test-data.sql")
+class TrendingRankerTest {
+    private static final Duration HALF_LIFE = Duration.ofHours(24);
+
+    @Autowired
+    TrendingRanker trendingRanker;
+
+    @Autowired
+    PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        trendingRanker.clear();
+    }
+
+    @Test
+    void shouldRankByDecayedScore() {
+        Instant now = Instant.now();
+        synchronized (trendingRanker) {
+            trendingRanker.add(2L, 16, now.minus(HALF_LIFE.multipliedBy(3)));
+            trendingRanker.add(3L, 3, now);
+            trendingRanker.add(4L, 1, now);
+            trendingRanker.add(5L, 0.5, now);
+        }
+        trendingRanker.publish();
+
+        List<TrendingPost> posts = trendingRanker.getSnapshot().posts();
+        assertThat(posts).extracting(post -> post.post().getId()).containsExactly(3L, 2L, 4L);
+        assertThat(posts.get(1).score()).isCloseTo(2.0, within(0.01));
+        assertThat(posts.getFirst().post().getTitle()).isEqualTo("Third Post");
+
+        ContentVersion version = trendingRanker.getSnapshot().version();
+        trendingRanker.publish();
+        assertThat(trendingRanker.getSnapshot().version()).isEqualTo(version);
+
+        // Views that leave the order unchanged do not change the pages
+        trendingRanker.recordViews(Map.of(3L, 1L));
+        trendingRanker.publish();
+        assertThat(trendingRanker.getSnapshot().version()).isEqualTo(version);
+
+        trendingRanker.recordViews(Map.of(4L, 5L));
+        trendingRanker.publish();
+        assertThat(trendingRanker.getSnapshot().version()).isNotEqualTo(version);
+        assertThat(trendingRanker.getSnapshot().top(1))
+                .extracting(post -> post.post().getId())
+                .containsExactly(4L);
+    }
+
+    @Test
+    void shouldKeepOrderWhenRebasingScores() {
+        Instant now = Instant.now();
+        synchronized (trendingRanker) {
+            trendingRanker.add(2L, 1, now);
+            trendingRanker.add(3L, 1, now.plus(HALF_LIFE.multipliedBy(100)));
+            trendingRanker.add(4L, 2, now.plus(HALF_LIFE.multipliedBy(100)));
+        }
+        trendingRanker.publish();
+
+        // Post 2 has decayed to 2^-100 and was dropped when the scores were rebased
+        assertThat(trendingRanker.getSnapshot().posts())
+                .extracting(post -> post.post().getId())
+                .containsExactly(4L, 3L);
+    }
+
+    @Test
+    void shouldRankNewCommentsAndDropDeletedPosts() {
+        postService.createComments(List.of(new Comment(null, "Trending", 6L, new User(1L), null)));
+        trendingRanker.publish();
+        assertThat(trendingRanker.getSnapshot().posts())
+                .extracting(post -> post.post().getId())
+                .containsExactly(6L);
+
+        postService.deletePostsByIds(List.of(6L));
+        trendingRanker.publish();
+        assertThat(trendingRanker.getSnapshot().posts()).isEmpty();
+    }
+}
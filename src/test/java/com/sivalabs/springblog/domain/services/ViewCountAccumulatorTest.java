@@ -0,0 +1,85 @@
+package com.sivalabs.springblog.domain.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class ViewCountAccumulatorTest {
+
+    @Test
+    void shouldSumViewsRecordedConcurrently() throws Exception {
+        var accumulator = new ViewCountAccumulator(8, 1000);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        accumulator.increment(1 + i % 100);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        Map<Long, Long> counts = accumulator.drain();
+        assertThat(counts).hasSize(100);
+        assertThat(counts.values()).allMatch(count -> count == 800);
+        assertThat(accumulator.drain()).isEmpty();
+        assertThat(accumulator.drainDropped()).isZero();
+    }
+
+    @Test
+    void shouldDropViewsOfPostsBeyondTheLimit() {
+        var accumulator = new ViewCountAccumulator(1, 2);
+        accumulator.increment(1);
+        accumulator.increment(2);
+        accumulator.increment(3);
+        accumulator.increment(1);
+
+        assertThat(accumulator.drain()).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 2L, 2L, 1L));
+        assertThat(accumulator.drainDropped()).isEqualTo(1);
+        assertThat(accumulator.drainDropped()).isZero();
+    }
+
+    @Test
+    void shouldHoldUpToTheLimitOfPostsRecordedFromVirtualThreads() throws Exception {
+        int maxPosts = 1000;
+        var accumulator = new ViewCountAccumulator(64, maxPosts);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int view = 0; view < 10 * maxPosts; view++) {
+                long postId = 1 + view % maxPosts;
+                futures.add(executor.submit(() -> accumulator.increment(postId)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        accumulator.increment(maxPosts + 1);
+
+        Map<Long, Long> counts = accumulator.drain();
+        assertThat(counts).hasSize(maxPosts);
+        assertThat(counts.values()).allMatch(count -> count == 10);
+        assertThat(accumulator.drainDropped()).isEqualTo(1);
+
+        accumulator.increment(maxPosts + 1);
+        assertThat(accumulator.drain()).containsExactlyEntriesOf(Map.of(maxPosts + 1L, 1L));
+    }
+
+    @Test
+    void shouldKeepCountsAddedBack() {
+        var accumulator = new ViewCountAccumulator(4, 100);
+        accumulator.increment(7);
+        accumulator.addAll(Map.of(7L, 5L, 9L, 2L));
+
+        assertThat(accumulator.drain()).containsExactlyInAnyOrderEntriesOf(Map.of(7L, 6L, 9L, 2L));
+    }
+}
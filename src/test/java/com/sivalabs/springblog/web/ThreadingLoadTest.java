@@ -0,0 +1,201 @@
+package com.sivalabs.springblog.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.SpringBlogApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Compares throughput and latency of {@code /posts} and {@code /posts/{slug}} served on platform threads
+ * and on virtual threads, with more concurrent clients than Tomcat has platform worker threads. The post
+ * page cache is off, so every request goes to the database.
+ * <p>
+ * Not part of the regular build. Run it with
+ * {@code ./mvnw test -Dtest=ThreadingLoadTest -Dload-test=true [-Dload-test.clients=400] [-Dload-test.duration=30s]}.
+ * It starts a Postgres container unless {@code -Dload-test.jdbc-url=...} (with {@code load-test.username} and
+ * {@code load-test.password}, both {@code postgres} by default) points it at an existing database.
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class ThreadingLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(ThreadingLoadTest.class);
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private static PostgreSQLContainer<?> postgres;
+    private static String jdbcUrl = System.getProperty("load-test.jdbc-url");
+    private static String username = System.getProperty("load-test.username", "postgres");
+    private static String password = System.getProperty("load-test.password", "postgres");
+
+    private final HttpClient httpClient =
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @BeforeAll
+    static void startDatabase() {
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17"));
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        int clients = Integer.getInteger("load-test.clients", 400);
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("load-test.duration", "30s"));
+
+        Map<String, Map<String, Stats>> results = new LinkedHashMap<>();
+        for (boolean virtualThreads : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = startApplication(virtualThreads)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                List<String> slugs = context.getBean(JdbcClient.class)
+                        .sql("select slug from posts where status = 'PUBLISHED'")
+                        .query(String.class)
+                        .list();
+                run(baseUrl, slugs, clients, WARMUP);
+                results.put(virtualThreads ? "virtual" : "platform", run(baseUrl, slugs, clients, duration));
+            }
+        }
+
+        StringBuilder report = new StringBuilder(String.format(
+                "%n%d clients, %s per mode; latencies of successful requests%n%-9s %-14s %8s %8s %8s %10s %9s %9s%n",
+                clients, duration, "threads", "endpoint", "ok", "503", "errors", "ok/s", "p50 ms", "p99 ms"));
+        results.forEach((mode, byEndpoint) -> byEndpoint.forEach((endpoint, stats) -> report.append(String.format(
+                "%-9s %-14s %8d %8d %8d %10.1f %9.1f %9.1f%n",
+                mode,
+                endpoint,
+                stats.ok(),
+                stats.rejected(),
+                stats.errors(),
+                stats.ok() / (duration.toMillis() / 1000.0),
+                stats.percentileMillis(0.50),
+                stats.percentileMillis(0.99)))));
+        log.info(report.toString());
+
+        results.values().forEach(byEndpoint -> assertThat(byEndpoint.values())
+                .allSatisfy(stats -> assertThat(stats.ok()).isPositive()));
+    }
+
+    private static ConfigurableApplicationContext startApplication(boolean virtualThreads) {
+        return new SpringApplicationBuilder(SpringBlogApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--blog.post-page-cache.enabled=false");
+    }
+
+    private Map<String, Stats> run(String baseUrl, List<String> slugs, int clients, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Recorder listing = new Recorder();
+        Recorder details = new Recorder();
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    if (random.nextBoolean()) {
+                        get(baseUrl + "/posts", listing);
+                    } else {
+                        get(baseUrl + "/posts/" + slugs.get(random.nextInt(slugs.size())), details);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        stats.put("/posts", listing.stats());
+        stats.put("/posts/{slug}", details.stats());
+        return stats;
+    }
+
+    private void get(String url, Recorder recorder) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("User-Agent", "Mozilla/5.0 (load test)")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            recorder.record(System.nanoTime() - start, response.statusCode());
+        } catch (Exception e) {
+            recorder.record(System.nanoTime() - start, -1);
+        }
+    }
+
+    private static final class Recorder {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, int status) {
+            if (status == 200) {
+                synchronized (latencies) {
+                    latencies.add(nanos);
+                }
+            } else if (status == 503) {
+                rejected.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        Stats stats() {
+            synchronized (latencies) {
+                long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(sorted);
+                return new Stats(sorted, rejected.get(), errors.get());
+            }
+        }
+    }
+
+    private record Stats(long[] sortedNanos, long rejected, long errors) {
+        long ok() {
+            return sortedNanos.length;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sivalabs.springblog.web.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sivalabs.springblog.AbstractIT;
+import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.User;
+import com.sivalabs.springblog.domain.services.PostService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.jdbc.Sql;
+
+@Sql("/test-data.sql")
+class PostPageCacheTest extends AbstractIT {
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcClient jdbcClient;
+
+    @Autowired
+    PostService postService;
+
+    @Autowired
+    PostPageCache postPageCache;
+
+    @BeforeEach
+    void setUp() {
+        postPageCache.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedAnonymousRequestsFromCache() {
+        String first = restTemplate.getForObject("/posts/second-post", String.class);
+        assertThat(first).contains("HTML content 2");
+
+        jdbcClient
+                .sql("update posts set content_html = '<p>Changed behind the cache</p>' where id = 2")
+                .update();
+
+        String second = restTemplate.getForObject("/posts/second-post", String.class);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void shouldInvalidateCachedPageWhenCommentsChange() {
+        String page = restTemplate.getForObject("/posts/second-post", String.class);
+        assertThat(page).doesNotContain("A fresh comment");
+
+        Comment comment =
+                postService.createComment(new Comment(null, "A fresh comment", 2L, new User(1L), LocalDateTime.now()));
+        page = restTemplate.getForObject("/posts/second-post", String.class);
+        assertThat(page).contains("A fresh comment");
+
+        postService.deleteCommentsByIds(List.of(comment.getId()));
+        page = restTemplate.getForObject("/posts/second-post", String.class);
+        assertThat(page).doesNotContain("A fresh comment");
+    }
+}
@@ -0,0 +1,139 @@
+package com.sivalabs.springblog.web.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.sivalabs.springblog.AbstractIT;
+import com.sivalabs.springblog.domain.models.Comment;
+import com.sivalabs.springblog.domain.models.User;
+import com.sivalabs.springblog.domain.services.ContentVersionCache;
+import com.sivalabs.springblog.domain.services.PostCountCache;
+import com.sivalabs.springblog.domain.services.PostService;
+import com.sivalabs.springblog.web.cache.PostPageCache;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.web.context.request.ServletWebRequest;
+
+// Trending posts are only published on startup, so the sidebar cannot change between two requests of a test
+@TestPropertySource(properties = "blog.trending.publish-interval=1h")
+@Sql("/test-data.sql")
+class ConditionalGetTest extends AbstractIT {
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    PostService postService;
+
+    @Autowired
+    PostCountCache postCountCache;
+
+    @Autowired
+    PostPageCache postPageCache;
+
+    @Autowired
+    ContentVersionCache contentVersionCache;
+
+    @Autowired
+    ObjectProvider<BuildProperties> buildProperties;
+
+    @BeforeEach
+    void setUp() {
+        postCountCache.clear();
+        postPageCache.clear();
+        contentVersionCache.clear();
+    }
+
+    @Test
+    void shouldAnswerUnchangedListingWith304() {
+        ResponseEntity<String> first = restTemplate.getForEntity("/posts", String.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+        assertThat(first.getHeaders().getLastModified()).isPositive();
+
+        ResponseEntity<String> second = getIfNoneMatch("/posts", etag);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+
+        postService.deletePostsByIds(List.of(22L));
+
+        ResponseEntity<String> third = getIfNoneMatch("/posts", etag);
+        assertThat(third.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(third.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void shouldChangePostDetailsEtagWhenCommentsChange() {
+        String etag = restTemplate
+                .getForEntity("/posts/second-post", String.class)
+                .getHeaders()
+                .getETag();
+        assertThat(getIfNoneMatch("/posts/second-post", etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        postService.createComment(new Comment(null, "New comment", 2L, new User(1L), LocalDateTime.now()));
+
+        ResponseEntity<String> response = getIfNoneMatch("/posts/second-post", etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("New comment");
+    }
+
+    @Test
+    void shouldChangeListingEtagWhenCommentsChange() {
+        String etag =
+                restTemplate.getForEntity("/posts", String.class).getHeaders().getETag();
+        assertThat(getIfNoneMatch("/posts", etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        postService.createComment(new Comment(null, "New comment", 2L, new User(1L), LocalDateTime.now()));
+
+        ResponseEntity<String> response = getIfNoneMatch("/posts", etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void shouldRevalidateListingWithoutQueries() throws Exception {
+        String etag = mockMvc.perform(get("/posts")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        var revalidated = assertQueryCount(get("/posts").header(HttpHeaders.IF_NONE_MATCH, etag), 0);
+        assertThat(revalidated.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    void shouldValidateEtagsOfAnotherInstanceOfTheSameBuild() {
+        String etag = restTemplate
+                .getForEntity("/posts/second-post/comments", String.class)
+                .getHeaders()
+                .getETag();
+
+        // Started later, as another instance of the same build would be
+        ConditionalGetSupport otherInstance = new ConditionalGetSupport(buildProperties);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts/second-post/comments");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertThat(otherInstance.isNotModified(
+                        new ServletWebRequest(request, new MockHttpServletResponse()),
+                        postService.getPostsVersion(),
+                        postService.getPostVersion("second-post").orElseThrow()))
+                .isTrue();
+    }
+
+    private ResponseEntity<String> getIfNoneMatch(String url, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.sivalabs.springblog.web.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.sivalabs.springblog.AbstractIT;
+import com.sivalabs.springblog.domain.services.ContentVersionCache;
+import com.sivalabs.springblog.domain.services.PostCountCache;
+import com.sivalabs.springblog.domain.services.PostIdCache;
+import com.sivalabs.springblog.domain.services.TaxonomyCache;
+import com.sivalabs.springblog.web.cache.PostPageCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Locks in how many statements each endpoint runs, starting from cold caches, so N+1 queries fail the build.
+ * Pages with the sidebar are allowed one statement for the popular posts, which are reloaded after every
+ * flush of the view counts.
+ */
+@Sql("/test-data.sql")
+class QueryBudgetTest extends AbstractIT {
+    @Autowired
+    PostCountCache postCountCache;
+
+    @Autowired
+    TaxonomyCache taxonomyCache;
+
+    @Autowired
+    PostPageCache postPageCache;
+
+    @Autowired
+    PostIdCache postIdCache;
+
+    @Autowired
+    ContentVersionCache contentVersionCache;
+
+    @BeforeEach
+    void setUp() {
+        postCountCache.clear();
+        taxonomyCache.clear();
+        postPageCache.clear();
+        postIdCache.clear();
+        contentVersionCache.clear();
+    }
+
+    @Test
+    void shouldListPostsWithinBudget() throws Exception {
+        assertQueryCount("/posts", 7);
+        assertQueryCount("/posts?page=2", 4);
+        assertQueryCount("/posts/category/java", 5);
+        assertQueryCount("/posts/tag/java", 5);
+        assertQueryCount("/posts/popular", 1);
+        assertQueryCount("/posts/search?q=post", 5);
+    }
+
+    @Test
+    void shouldShowPostWithinBudget() throws Exception {
+        assertQueryCount("/posts/second-post", 10);
+        assertQueryCount("/posts/second-post/comments", 5);
+    }
+
+    @Test
+    void shouldServeCachedPostWithoutQueries() throws Exception {
+        mockMvc.perform(get("/posts/second-post"));
+
+        assertQueryCount("/posts/second-post", 0);
+    }
+
+    @Test
+    @WithUserDetails("siva@gmail.com")
+    void shouldRenderAdminPagesWithinBudget() throws Exception {
+        assertQueryCount("/admin/posts", 3);
+        assertQueryCount("/admin/comments", 1);
+        assertQueryCount("/admin/categories", 1);
+        assertQueryCount("/admin/posts/create", 0);
+        assertQueryCount("/admin/posts/edit/2", 2);
+    }
+
+    @Test
+    @WithUserDetails("siva@gmail.com")
+    void shouldCreateAndUpdatePostWithinBudget() throws Exception {
+        // Related posts are recomputed in the background after commit, so they are not part of the budget
+        var created = assertQueryCount(
+                post("/admin/posts/create")
+                        .with(csrf())
+                        .param("title", "Budget Post")
+                        .param("slug", "budget-post")
+                        .param("shortDescription", "Short")
+                        .param("contentMarkdown", "# Budget")
+                        .param("categoryId", "1")
+                        .param("tags", "java, spring-boot, brand-new, another-new")
+                        .param("status", "PUBLISHED"),
+                7);
+        assertThat(created.getResponse().getRedirectedUrl()).isEqualTo("/admin/posts");
+
+        var updated = assertQueryCount(
+                post("/admin/posts/edit")
+                        .with(csrf())
+                        .param("id", "2")
+                        .param("title", "Second Post")
+                        .param("slug", "second-post")
+                        .param("shortDescription", "Updated")
+                        .param("contentMarkdown", "# Updated")
+                        .param("categoryId", "2")
+                        .param("tags", "java, quarkus, yet-another-new")
+                        .param("status", "PUBLISHED"),
+                12);
+        assertThat(updated.getResponse().getRedirectedUrl()).isEqualTo("/admin/posts");
+    }
+
+    @Test
+    @WithUserDetails("siva@gmail.com")
+    void shouldAddCommentWithinBudget() throws Exception {
+        // Only the post id is looked up; the comment queue writes the comment, off the request thread
+        var added = assertQueryCount(
+                post("/posts/second-post/comments")
+                        .with(csrf())
+                        .param("postId", "2")
+                        .param("content", "Nice post"),
+                1);
+        assertThat(added.getResponse().getRedirectedUrl()).isEqualTo("/posts/second-post");
+    }
+}
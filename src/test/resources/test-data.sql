@@ -1,3 +1,5 @@
+DELETE FROM post_related;
+DELETE FROM post_stats;
 DELETE FROM post_tags;
 DELETE FROM comments;
 DELETE FROM posts;
@@ -94,3 +96,7 @@ VALUES (1, 1),
 INSERT INTO COMMENTS (id, content, post_id, created_by)
 VALUES (1, 'This is a comment on the first post.', 1, 2),
        (2, 'This is another comment on the first post.', 1, 1);
+
+UPDATE posts p SET comments_count = (SELECT count(*) FROM comments c WHERE c.post_id = p.id);
+UPDATE tags t SET posts_count = (SELECT count(*) FROM post_tags pt WHERE pt.tag_id = t.id);
+UPDATE categories c SET posts_count = (SELECT count(*) FROM posts p WHERE p.category_id = c.id);